@@ -0,0 +1,294 @@
+package org.gltfio.deserialize;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.gltfio.gltf2.AssetBaseObject;
+import org.gltfio.gltf2.JSONBuffer;
+import org.gltfio.gltf2.JSONGltf;
+import org.gltfio.lib.FileUtils;
+import org.gltfio.lib.Logger;
+import org.gltfio.lib.Settings;
+import org.gltfio.lib.Settings.IntProperty;
+import org.gltfio.prepare.GltfSettings;
+import org.gltfio.prepare.ModelPreparation;
+
+/**
+ * Cache of loaded glTF and glb assets, used by {@link Ladda#loadGltf(String, String, ModelPreparation, GltfSettings)}
+ * when the budget is set. Assets are keyed by canonical path, settings and class of model preparation, an entry is
+ * only used if the modification time and size of the file is unchanged.
+ * When the bytes retained by buffers goes above the budget the least recently used assets are evicted, an evicted
+ * asset is not destroyed - the memory is freed when it is no longer referenced.
+ * Cached assets are shared by all callers and buffers are made readonly, writing to a buffer of a cached asset
+ * throws IllegalArgumentException - see {@link JSONBuffer#share()}
+ */
+public class AssetCache {
+
+    public enum CacheProperties implements IntProperty {
+        /**
+         * Max size, in MB, of buffers retained by cached assets. 0 means the cache is disabled.
+         */
+        BUDGET_MB("gltf.assetcache.budget", 0);
+
+        private final String key;
+        private final int defaultValue;
+
+        CacheProperties(String key, int defaultValue) {
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        public String getName() {
+            return this.name();
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getDefault() {
+            return Integer.toString(defaultValue);
+        }
+
+    }
+
+    private static class Key {
+        private final String canonicalPath;
+        private final GltfSettings settings;
+        private final Class<?> modelPrep;
+
+        private Key(String canonicalPath, GltfSettings settings, ModelPreparation modelPrep) {
+            this.canonicalPath = canonicalPath;
+            this.settings = settings;
+            this.modelPrep = modelPrep != null ? modelPrep.getClass() : null;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return canonicalPath.equals(other.canonicalPath) && Objects.equals(settings, other.settings)
+                    && modelPrep == other.modelPrep;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(canonicalPath, settings, modelPrep);
+        }
+    }
+
+    private static class Entry {
+        private final AssetBaseObject asset;
+        private final long lastModified;
+        private final long size;
+        private final long retainedBytes;
+
+        private Entry(AssetBaseObject asset, long lastModified, long size, long retainedBytes) {
+            this.asset = asset;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.retainedBytes = retainedBytes;
+        }
+    }
+
+    /**
+     * Access ordered, the first entry is the least recently used
+     */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+    private long retainedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Returns true if the budget is set
+     *
+     * @return
+     */
+    public boolean isEnabled() {
+        return Settings.getInstance().getInt(CacheProperties.BUDGET_MB) > 0;
+    }
+
+    /**
+     * Returns the cached asset, or null if not cached or the file has changed since the asset was cached
+     *
+     * @param path
+     * @param filename
+     * @param modelPrep
+     * @param settings
+     * @return
+     */
+    AssetBaseObject get(String path, String filename, ModelPreparation modelPrep, GltfSettings settings) {
+        File file = getFile(path, filename);
+        if (file == null) {
+            return null;
+        }
+        Key key = new Key(getCanonicalPath(file), settings, modelPrep);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.lastModified == file.lastModified() && entry.size == file.length()) {
+                hits++;
+                return entry.asset;
+            }
+            if (entry != null) {
+                remove(key);
+            }
+            misses++;
+            return null;
+        }
+    }
+
+    /**
+     * Stores a loaded asset, buffers of the asset are made readonly. Least recently used assets are evicted if the
+     * budget is exceeded, the asset is not stored if it is larger than the budget.
+     *
+     * @param path
+     * @param filename
+     * @param modelPrep
+     * @param settings
+     * @param asset
+     */
+    void put(String path, String filename, ModelPreparation modelPrep, GltfSettings settings, AssetBaseObject asset) {
+        File file = getFile(path, filename);
+        if (file == null || !(asset instanceof JSONGltf) || ((JSONGltf) asset).getBuffers() == null) {
+            return;
+        }
+        long budget = (long) Settings.getInstance().getInt(CacheProperties.BUDGET_MB) * 1024 * 1024;
+        long retained = 0;
+        ArrayList buffers = ((JSONGltf) asset).getBuffers();
+        for (Object b : buffers) {
+            JSONBuffer buffer = (JSONBuffer) b;
+            // Mapped files are backed by the page cache and not counted
+            if (buffer.isResident() && !buffer.isMapped()) {
+                retained += buffer.getByteLength();
+            }
+        }
+        if (retained > budget) {
+            Logger.d(getClass(), "Not caching " + filename + ", retains " + retained + " bytes");
+            return;
+        }
+        for (Object b : buffers) {
+            ((JSONBuffer) b).share();
+        }
+        Key key = new Key(getCanonicalPath(file), settings, modelPrep);
+        synchronized (entries) {
+            remove(key);
+            entries.put(key, new Entry(asset, file.lastModified(), file.length(), retained));
+            retainedBytes += retained;
+            Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+            while (retainedBytes > budget && iterator.hasNext()) {
+                retainedBytes -= iterator.next().getValue().retainedBytes;
+                iterator.remove();
+                evictions++;
+            }
+        }
+    }
+
+    private void remove(Key key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            retainedBytes -= removed.retainedBytes;
+        }
+    }
+
+    /**
+     * Removes all cached assets, the counters are not reset
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            retainedBytes = 0;
+        }
+    }
+
+    /**
+     * Returns the file of the asset, or null if the asset is not a file - for instance when inside a jar.
+     *
+     * @param path
+     * @param filename
+     * @return
+     */
+    private File getFile(String path, String filename) {
+        try {
+            File file = FileUtils.getInstance().getFile(path, filename);
+            return file.isFile() ? file : null;
+        } catch (URISyntaxException | IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private String getCanonicalPath(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            return file.getAbsolutePath();
+        }
+    }
+
+    /**
+     * Returns the number of loads that used a cached asset
+     *
+     * @return
+     */
+    public long getHits() {
+        synchronized (entries) {
+            return hits;
+        }
+    }
+
+    /**
+     * Returns the number of loads, while the cache is enabled, that did not find a cached asset
+     *
+     * @return
+     */
+    public long getMisses() {
+        synchronized (entries) {
+            return misses;
+        }
+    }
+
+    /**
+     * Returns the number of assets evicted because the budget was exceeded
+     *
+     * @return
+     */
+    public long getEvictions() {
+        synchronized (entries) {
+            return evictions;
+        }
+    }
+
+    /**
+     * Returns the number of bytes retained by the buffers of cached assets
+     *
+     * @return
+     */
+    public long getRetainedBytes() {
+        synchronized (entries) {
+            return retainedBytes;
+        }
+    }
+
+    /**
+     * Returns the number of cached assets
+     *
+     * @return
+     */
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+}
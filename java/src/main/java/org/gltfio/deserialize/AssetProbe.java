@@ -0,0 +1,324 @@
+package org.gltfio.deserialize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.gltfio.glb2.Glb2Writer;
+import org.gltfio.gltf2.AssetBaseObject.FileType;
+import org.gltfio.gltf2.JSONAccessor;
+import org.gltfio.gltf2.JSONBuffer;
+import org.gltfio.gltf2.JSONGltf;
+import org.gltfio.gltf2.JSONMesh;
+import org.gltfio.gltf2.JSONPrimitive;
+import org.gltfio.gltf2.JSONPrimitive.Attributes;
+import org.gltfio.gltf2.JSONScene;
+import org.gltfio.gltf2.MinMax;
+import org.gltfio.gltf2.stream.SceneStream;
+import org.gltfio.lib.Constants;
+
+/**
+ * Counts, extensions and bounds of a glTF, glb or glb2 asset, read without loading buffers - see
+ * {@link Ladda#probe(String, String)}.
+ * Bounds are calculated from the accessor min/max of the first scene, or read from the scene chunk of glb2.
+ * Values that are not known are {@link Constants#NO_VALUE}, for instance the number of accessors in a glb2.
+ */
+public class AssetProbe {
+
+    private final String path;
+    private final String filename;
+    private final FileType fileType;
+    private String version;
+    private String generator;
+    private int sceneCount = Constants.NO_VALUE;
+    private int nodeCount = Constants.NO_VALUE;
+    private int meshCount = Constants.NO_VALUE;
+    private int primitiveCount = Constants.NO_VALUE;
+    private int materialCount = Constants.NO_VALUE;
+    private int textureCount = Constants.NO_VALUE;
+    private int imageCount = Constants.NO_VALUE;
+    private int accessorCount = Constants.NO_VALUE;
+    private int bufferCount = Constants.NO_VALUE;
+    private long bufferByteLength = Constants.NO_VALUE;
+    private long vertexCount = Constants.NO_VALUE;
+    private long indexCount = Constants.NO_VALUE;
+    private String[] extensionsUsed;
+    private MinMax bounds;
+
+    /**
+     * Creates the probe from a glTF that has been deserialized and resolved, buffers are not used.
+     *
+     * @param path
+     * @param filename
+     * @param glTF
+     */
+    AssetProbe(String path, String filename, JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene> glTF) {
+        this.path = path;
+        this.filename = filename;
+        this.fileType = FileType.get(filename);
+        if (glTF.getAsset() != null) {
+            version = glTF.getAsset().getVersion();
+            generator = glTF.getAsset().getGenerator();
+        }
+        sceneCount = glTF.getSceneCount();
+        nodeCount = glTF.getNodeCount();
+        meshCount = glTF.getMeshCount();
+        materialCount = glTF.getMaterialCount();
+        textureCount = glTF.getTextureCount();
+        imageCount = glTF.getImageCount();
+        accessorCount = glTF.getAccessorCount();
+        bufferCount = glTF.getBufferCount();
+        extensionsUsed = glTF.getExtensionsUsed();
+        bufferByteLength = 0;
+        ArrayList<JSONBuffer> buffers = glTF.getBuffers();
+        if (buffers != null) {
+            for (JSONBuffer b : buffers) {
+                bufferByteLength += b.getByteLength();
+            }
+        }
+        boolean hasMinMax = countPrimitives(glTF.getMeshes());
+        if (hasMinMax && sceneCount > 0) {
+            bounds = glTF.getScene(0).calculateBounds();
+        }
+    }
+
+    /**
+     * Creates the probe from the scene chunk of a glb2
+     *
+     * @param path
+     * @param filename
+     * @param scene
+     */
+    AssetProbe(String path, String filename, SceneStream scene) {
+        this.path = path;
+        this.filename = filename;
+        this.fileType = FileType.get(filename);
+        version = Integer.toHexString(Glb2Writer.CURRENT_GLB2_VERSION);
+        sceneCount = 1;
+        nodeCount = scene.getNodeCount();
+        meshCount = scene.getMeshCount();
+        primitiveCount = scene.getPrimitiveCount();
+        materialCount = scene.getMaterialCount();
+        vertexCount = scene.getAttributeCount(Attributes.POSITION);
+        indexCount = 0;
+        for (int count : scene.getIndicesCount()) {
+            indexCount += count;
+        }
+        bounds = new MinMax(scene.getMin(), scene.getMax());
+    }
+
+    /**
+     * Counts primitives, vertices and indices
+     *
+     * @param meshes
+     * @return True if all POSITION accessors have min and max
+     */
+    private boolean countPrimitives(JSONMesh<JSONPrimitive>[] meshes) {
+        boolean hasMinMax = true;
+        primitiveCount = 0;
+        vertexCount = 0;
+        indexCount = 0;
+        if (meshes != null) {
+            for (JSONMesh<JSONPrimitive> mesh : meshes) {
+                JSONPrimitive[] primitives = mesh.getPrimitives();
+                if (primitives == null) {
+                    continue;
+                }
+                primitiveCount += primitives.length;
+                for (JSONPrimitive p : primitives) {
+                    JSONAccessor position = p.getAccessor(Attributes.POSITION);
+                    if (position != null) {
+                        vertexCount += position.getCount();
+                        hasMinMax = hasMinMax && position.getMin() != null && position.getMax() != null;
+                    }
+                    JSONAccessor indices = p.getIndices();
+                    if (indices != null) {
+                        indexCount += indices.getCount();
+                    }
+                }
+            }
+        }
+        return hasMinMax;
+    }
+
+    /**
+     * Returns the path to the folder of the asset
+     *
+     * @return
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the filename of the asset
+     *
+     * @return
+     */
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * Returns the filetype
+     *
+     * @return
+     */
+    public FileType getFileType() {
+        return fileType;
+    }
+
+    /**
+     * Returns the glTF asset version, or the glb2 version as hex, or null
+     *
+     * @return
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the generator of the asset, or null
+     *
+     * @return
+     */
+    public String getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Returns the number of scenes
+     *
+     * @return
+     */
+    public int getSceneCount() {
+        return sceneCount;
+    }
+
+    /**
+     * Returns the number of nodes
+     *
+     * @return
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the number of meshes
+     *
+     * @return
+     */
+    public int getMeshCount() {
+        return meshCount;
+    }
+
+    /**
+     * Returns the total number of primitives in all meshes
+     *
+     * @return
+     */
+    public int getPrimitiveCount() {
+        return primitiveCount;
+    }
+
+    /**
+     * Returns the number of materials
+     *
+     * @return
+     */
+    public int getMaterialCount() {
+        return materialCount;
+    }
+
+    /**
+     * Returns the number of textures, or {@link Constants#NO_VALUE} for glb2
+     *
+     * @return
+     */
+    public int getTextureCount() {
+        return textureCount;
+    }
+
+    /**
+     * Returns the number of images, or {@link Constants#NO_VALUE} for glb2
+     *
+     * @return
+     */
+    public int getImageCount() {
+        return imageCount;
+    }
+
+    /**
+     * Returns the number of accessors, or {@link Constants#NO_VALUE} for glb2
+     *
+     * @return
+     */
+    public int getAccessorCount() {
+        return accessorCount;
+    }
+
+    /**
+     * Returns the number of buffers, or {@link Constants#NO_VALUE} for glb2
+     *
+     * @return
+     */
+    public int getBufferCount() {
+        return bufferCount;
+    }
+
+    /**
+     * Returns the total byteLength of the buffers, or {@link Constants#NO_VALUE} for glb2
+     *
+     * @return
+     */
+    public long getBufferByteLength() {
+        return bufferByteLength;
+    }
+
+    /**
+     * Returns the total number of vertices, that is the count of the POSITION accessors of all primitives
+     *
+     * @return
+     */
+    public long getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the total number of indices of all primitives
+     *
+     * @return
+     */
+    public long getIndexCount() {
+        return indexCount;
+    }
+
+    /**
+     * Returns the extensions used, or null
+     *
+     * @return
+     */
+    public String[] getExtensionsUsed() {
+        return extensionsUsed;
+    }
+
+    /**
+     * Returns the bounds of the first scene, or null if not known - for instance if POSITION accessors does not
+     * have min and max.
+     *
+     * @return
+     */
+    public MinMax getBounds() {
+        return bounds;
+    }
+
+    @Override
+    public String toString() {
+        return filename + ", " + fileType + ", scenes " + sceneCount + ", nodes " + nodeCount + ", meshes "
+                + meshCount + ", primitives " + primitiveCount + ", materials " + materialCount + ", accessors "
+                + accessorCount + ", vertices " + vertexCount + ", indices " + indexCount
+                + (bounds != null ? ", min " + Arrays.toString(bounds.getMinValue(new float[3])) + ", max "
+                        + Arrays.toString(bounds.getMaxValue(new float[3])) : "");
+    }
+
+}
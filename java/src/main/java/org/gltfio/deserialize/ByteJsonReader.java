@@ -0,0 +1,716 @@
+package org.gltfio.deserialize;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+/**
+ * JSON reader that tokenizes UTF-8 JSON directly from a ByteBuffer, for instance a mapped .gltf file or the JSON
+ * chunk of a glb, without first decoding the data to chars.
+ * Numbers are parsed from the bytes and object names are looked up in a cache so that each distinct name is
+ * decoded once, string values are decoded when read.
+ * Use with {@link com.google.gson.Gson#fromJson(JsonReader, java.lang.reflect.Type)}, this reader is strict and
+ * does not support lenient JSON. Not threadsafe.
+ */
+public class ByteJsonReader extends JsonReader {
+
+    private static final int PEEKED_NONE = 0;
+    private static final int PEEKED_BEGIN_OBJECT = 1;
+    private static final int PEEKED_END_OBJECT = 2;
+    private static final int PEEKED_BEGIN_ARRAY = 3;
+    private static final int PEEKED_END_ARRAY = 4;
+    private static final int PEEKED_TRUE = 5;
+    private static final int PEEKED_FALSE = 6;
+    private static final int PEEKED_NULL = 7;
+    private static final int PEEKED_STRING = 8;
+    private static final int PEEKED_NAME = 9;
+    private static final int PEEKED_NUMBER = 10;
+    private static final int PEEKED_EOF = 11;
+
+    private static final int EMPTY_ARRAY = 1;
+    private static final int NONEMPTY_ARRAY = 2;
+    private static final int EMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int EMPTY_DOCUMENT = 6;
+    private static final int NONEMPTY_DOCUMENT = 7;
+    private static final int CLOSED = 8;
+
+    private static final int NAME_CACHE_SIZE = 256;
+    /**
+     * Max number of significant digits that are parsed into a long without overflow
+     */
+    private static final int MAX_LONG_DIGITS = 18;
+    /**
+     * Mantissa must be below this value for the double to be exact
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = new double[] { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+            1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    private final ByteBuffer data;
+    private final byte[] array;
+    private final int arrayOffset;
+    private final int limit;
+    private int pos;
+
+    private int[] stack = new int[32];
+    private int stackSize = 0;
+    private int peeked = PEEKED_NONE;
+
+    /**
+     * Start and end of the peeked string, name or number. For strings and names the quotes are not included.
+     */
+    private int valueStart;
+    private int valueEnd;
+    private boolean valueEscaped;
+    private boolean valueAscii;
+    private boolean valueIntegral;
+
+    private final String[] names = new String[NAME_CACHE_SIZE];
+    private byte[] scratch = new byte[256];
+
+    /**
+     * Creates a reader for the remaining UTF-8 JSON in data, the position of data is not changed.
+     *
+     * @param data
+     */
+    public ByteJsonReader(ByteBuffer data) {
+        // Superclass is never read from
+        super(new StringReader(""));
+        if (data == null) {
+            throw new IllegalArgumentException("Null data");
+        }
+        this.data = data.duplicate();
+        if (data.hasArray()) {
+            array = data.array();
+            arrayOffset = data.arrayOffset();
+        } else {
+            array = null;
+            arrayOffset = 0;
+        }
+        pos = data.position();
+        limit = data.limit();
+        // Skip UTF-8 byte order mark
+        if (limit - pos >= 3 && at(pos) == (byte) 0xEF && at(pos + 1) == (byte) 0xBB && at(pos + 2) == (byte) 0xBF) {
+            pos += 3;
+        }
+        push(EMPTY_DOCUMENT);
+    }
+
+    private byte at(int index) {
+        return array != null ? array[arrayOffset + index] : data.get(index);
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            int[] newStack = new int[stackSize * 2];
+            System.arraycopy(stack, 0, newStack, 0, stackSize);
+            stack = newStack;
+        }
+        stack[stackSize++] = scope;
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        expect(PEEKED_BEGIN_ARRAY, JsonToken.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+        peeked = PEEKED_NONE;
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        expect(PEEKED_END_ARRAY, JsonToken.END_ARRAY);
+        stackSize--;
+        peeked = PEEKED_NONE;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        expect(PEEKED_BEGIN_OBJECT, JsonToken.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+        peeked = PEEKED_NONE;
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        expect(PEEKED_END_OBJECT, JsonToken.END_OBJECT);
+        stackSize--;
+        peeked = PEEKED_NONE;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        int p = peekInternal();
+        return p != PEEKED_END_OBJECT && p != PEEKED_END_ARRAY;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        switch (peekInternal()) {
+            case PEEKED_BEGIN_OBJECT:
+                return JsonToken.BEGIN_OBJECT;
+            case PEEKED_END_OBJECT:
+                return JsonToken.END_OBJECT;
+            case PEEKED_BEGIN_ARRAY:
+                return JsonToken.BEGIN_ARRAY;
+            case PEEKED_END_ARRAY:
+                return JsonToken.END_ARRAY;
+            case PEEKED_TRUE:
+            case PEEKED_FALSE:
+                return JsonToken.BOOLEAN;
+            case PEEKED_NULL:
+                return JsonToken.NULL;
+            case PEEKED_STRING:
+                return JsonToken.STRING;
+            case PEEKED_NAME:
+                return JsonToken.NAME;
+            case PEEKED_NUMBER:
+                return JsonToken.NUMBER;
+            case PEEKED_EOF:
+                return JsonToken.END_DOCUMENT;
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        expect(PEEKED_NAME, JsonToken.NAME);
+        String name = valueAscii && !valueEscaped ? getCachedName(valueStart, valueEnd) : decodeString();
+        peeked = PEEKED_NONE;
+        return name;
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        int p = peekInternal();
+        String result;
+        if (p == PEEKED_STRING) {
+            result = decodeString();
+        } else if (p == PEEKED_NUMBER) {
+            result = decodeAscii(valueStart, valueEnd);
+        } else {
+            throw unexpected(JsonToken.STRING);
+        }
+        peeked = PEEKED_NONE;
+        return result;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        int p = peekInternal();
+        if (p != PEEKED_TRUE && p != PEEKED_FALSE) {
+            throw unexpected(JsonToken.BOOLEAN);
+        }
+        peeked = PEEKED_NONE;
+        return p == PEEKED_TRUE;
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        expect(PEEKED_NULL, JsonToken.NULL);
+        peeked = PEEKED_NONE;
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        int p = peekInternal();
+        double result;
+        if (p == PEEKED_NUMBER) {
+            result = parseDouble(valueStart, valueEnd);
+        } else if (p == PEEKED_STRING) {
+            result = Double.parseDouble(decodeString());
+        } else {
+            throw unexpected(JsonToken.NUMBER);
+        }
+        peeked = PEEKED_NONE;
+        return result;
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        int p = peekInternal();
+        long result;
+        if (p == PEEKED_NUMBER) {
+            if (valueIntegral) {
+                result = parseLong(valueStart, valueEnd);
+            } else {
+                result = toLong(parseDouble(valueStart, valueEnd));
+            }
+        } else if (p == PEEKED_STRING) {
+            String str = decodeString();
+            try {
+                result = Long.parseLong(str);
+            } catch (NumberFormatException e) {
+                result = toLong(Double.parseDouble(str));
+            }
+        } else {
+            throw unexpected(JsonToken.NUMBER);
+        }
+        peeked = PEEKED_NONE;
+        return result;
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        long result = nextLong();
+        if (result != (int) result) {
+            throw new NumberFormatException("Expected an int but was " + result + location());
+        }
+        return (int) result;
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        int count = 0;
+        do {
+            switch (peekInternal()) {
+                case PEEKED_BEGIN_ARRAY:
+                    push(EMPTY_ARRAY);
+                    count++;
+                    break;
+                case PEEKED_BEGIN_OBJECT:
+                    push(EMPTY_OBJECT);
+                    count++;
+                    break;
+                case PEEKED_END_ARRAY:
+                case PEEKED_END_OBJECT:
+                    stackSize--;
+                    count--;
+                    break;
+                case PEEKED_EOF:
+                    throw new EOFException("End of input" + location());
+                default:
+                    // Strings, names, numbers and literals are already scanned
+                    break;
+            }
+            peeked = PEEKED_NONE;
+        } while (count != 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = PEEKED_NONE;
+        stack[0] = CLOSED;
+        stackSize = 1;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + location();
+    }
+
+    private void expect(int expected, JsonToken token) throws IOException {
+        if (peekInternal() != expected) {
+            throw unexpected(token);
+        }
+    }
+
+    private IllegalStateException unexpected(JsonToken expected) throws IOException {
+        return new IllegalStateException("Expected " + expected + " but was " + peek() + location());
+    }
+
+    private String location() {
+        return " at byte " + pos;
+    }
+
+    private int peekInternal() throws IOException {
+        return peeked != PEEKED_NONE ? peeked : doPeek();
+    }
+
+    private int doPeek() throws IOException {
+        int top = stack[stackSize - 1];
+        switch (top) {
+            case EMPTY_ARRAY:
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                break;
+            case NONEMPTY_ARRAY:
+                switch (nextNonWhitespace(true)) {
+                    case ']':
+                        pos++;
+                        return peeked = PEEKED_END_ARRAY;
+                    case ',':
+                        pos++;
+                        break;
+                    default:
+                        throw syntaxError("Unterminated array");
+                }
+                break;
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                stack[stackSize - 1] = DANGLING_NAME;
+                if (top == NONEMPTY_OBJECT) {
+                    switch (nextNonWhitespace(true)) {
+                        case '}':
+                            pos++;
+                            return peeked = PEEKED_END_OBJECT;
+                        case ',':
+                            pos++;
+                            break;
+                        default:
+                            throw syntaxError("Unterminated object");
+                    }
+                }
+                switch (nextNonWhitespace(true)) {
+                    case '"':
+                        pos++;
+                        scanString();
+                        return peeked = PEEKED_NAME;
+                    case '}':
+                        if (top == EMPTY_OBJECT) {
+                            pos++;
+                            return peeked = PEEKED_END_OBJECT;
+                        }
+                        throw syntaxError("Expected name");
+                    default:
+                        throw syntaxError("Expected name");
+                }
+            case DANGLING_NAME:
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                if (nextNonWhitespace(true) != ':') {
+                    throw syntaxError("Expected ':'");
+                }
+                pos++;
+                break;
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                if (nextNonWhitespace(false) == -1) {
+                    return peeked = PEEKED_EOF;
+                }
+                throw syntaxError("Expected end of document");
+            case CLOSED:
+                throw new IllegalStateException("JsonReader is closed");
+            default:
+                throw new AssertionError();
+        }
+        int c = nextNonWhitespace(true);
+        switch (c) {
+            case ']':
+                if (top == EMPTY_ARRAY) {
+                    pos++;
+                    return peeked = PEEKED_END_ARRAY;
+                }
+                throw syntaxError("Unexpected value");
+            case '"':
+                pos++;
+                scanString();
+                return peeked = PEEKED_STRING;
+            case '{':
+                pos++;
+                return peeked = PEEKED_BEGIN_OBJECT;
+            case '[':
+                pos++;
+                return peeked = PEEKED_BEGIN_ARRAY;
+            case 't':
+                return peeked = scanLiteral("true", PEEKED_TRUE);
+            case 'f':
+                return peeked = scanLiteral("false", PEEKED_FALSE);
+            case 'n':
+                return peeked = scanLiteral("null", PEEKED_NULL);
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    scanNumber();
+                    return peeked = PEEKED_NUMBER;
+                }
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    /**
+     * Returns the next non whitespace byte, without consuming it, or -1 if end of data
+     */
+    private int nextNonWhitespace(boolean throwOnEof) throws IOException {
+        while (pos < limit) {
+            byte b = at(pos);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return b;
+            }
+            pos++;
+        }
+        if (throwOnEof) {
+            throw new EOFException("End of input" + location());
+        }
+        return -1;
+    }
+
+    private int scanLiteral(String literal, int result) throws IOException {
+        int length = literal.length();
+        if (limit - pos < length) {
+            throw syntaxError("Unexpected value");
+        }
+        for (int i = 0; i < length; i++) {
+            if (at(pos + i) != literal.charAt(i)) {
+                throw syntaxError("Unexpected value");
+            }
+        }
+        pos += length;
+        return result;
+    }
+
+    /**
+     * Scans the string starting at pos, after the opening quote, and positions after the closing quote.
+     */
+    private void scanString() throws IOException {
+        int p = pos;
+        boolean escaped = false;
+        boolean ascii = true;
+        while (p < limit) {
+            byte b = at(p);
+            if (b == '"') {
+                valueStart = pos;
+                valueEnd = p;
+                valueEscaped = escaped;
+                valueAscii = ascii;
+                pos = p + 1;
+                return;
+            }
+            if (b == '\\') {
+                escaped = true;
+                p += 2;
+            } else {
+                ascii &= b >= 0;
+                p++;
+            }
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    private void scanNumber() throws IOException {
+        int p = pos;
+        boolean integral = true;
+        if (at(p) == '-') {
+            p++;
+        }
+        p = scanDigits(p);
+        if (p < limit && at(p) == '.') {
+            integral = false;
+            p = scanDigits(p + 1);
+        }
+        if (p < limit && (at(p) == 'e' || at(p) == 'E')) {
+            integral = false;
+            p++;
+            if (p < limit && (at(p) == '+' || at(p) == '-')) {
+                p++;
+            }
+            p = scanDigits(p);
+        }
+        valueStart = pos;
+        valueEnd = p;
+        valueIntegral = integral;
+        pos = p;
+    }
+
+    private int scanDigits(int start) throws IOException {
+        int p = start;
+        while (p < limit && at(p) >= '0' && at(p) <= '9') {
+            p++;
+        }
+        if (p == start) {
+            pos = p;
+            throw syntaxError("Malformed number");
+        }
+        return p;
+    }
+
+    private long parseLong(int start, int end) {
+        int p = start;
+        boolean negative = at(p) == '-';
+        if (negative) {
+            p++;
+        }
+        if (end - p > MAX_LONG_DIGITS) {
+            return Long.parseLong(decodeAscii(start, end));
+        }
+        long result = 0;
+        while (p < end) {
+            result = result * 10 + (at(p++) - '0');
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * Parses the number, numbers with few enough significant digits and a small exponent are calculated exactly
+     * from the mantissa and a power of ten - other numbers are parsed using Double.parseDouble()
+     */
+    private double parseDouble(int start, int end) {
+        int p = start;
+        boolean negative = at(p) == '-';
+        if (negative) {
+            p++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        byte b = 0;
+        for (; p < end && (b = at(p)) >= '0' && b <= '9'; p++) {
+            if (digits > 0 || b != '0') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+            }
+        }
+        if (p < end && b == '.') {
+            for (p++; p < end && (b = at(p)) >= '0' && b <= '9'; p++) {
+                if (digits > 0 || b != '0') {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                }
+                exponent--;
+            }
+        }
+        if (digits > MAX_LONG_DIGITS) {
+            return Double.parseDouble(decodeAscii(start, end));
+        }
+        if (p < end) {
+            // Exponent
+            p++;
+            boolean negativeExponent = at(p) == '-';
+            if (at(p) == '-' || at(p) == '+') {
+                p++;
+            }
+            if (end - p > 3) {
+                return Double.parseDouble(decodeAscii(start, end));
+            }
+            int value = 0;
+            while (p < end) {
+                value = value * 10 + (at(p++) - '0');
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        if (mantissa >= MAX_EXACT_MANTISSA || exponent < -POWERS_OF_TEN.length + 1
+                || exponent >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(decodeAscii(start, end));
+        }
+        double result = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -result : result;
+    }
+
+    private long toLong(double value) {
+        long result = (long) value;
+        if (result != value) {
+            throw new NumberFormatException("Expected a long but was " + value + location());
+        }
+        return result;
+    }
+
+    private String getCachedName(int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = hash * 31 + at(i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & (NAME_CACHE_SIZE - 1);
+        String name = names[slot];
+        if (name == null || !matches(name, start, end)) {
+            name = decodeAscii(start, end);
+            names[slot] = name;
+        }
+        return name;
+    }
+
+    private boolean matches(String name, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (name.charAt(i - start) != at(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] copy(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        if (array != null) {
+            System.arraycopy(array, arrayOffset + start, scratch, 0, length);
+        } else {
+            data.limit(end).position(start);
+            data.get(scratch, 0, length);
+            data.limit(limit);
+        }
+        return scratch;
+    }
+
+    private String decodeAscii(int start, int end) {
+        return new String(copy(start, end), 0, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Decodes the peeked string or name
+     */
+    private String decodeString() throws IOException {
+        if (!valueEscaped) {
+            return new String(copy(valueStart, valueEnd), 0, valueEnd - valueStart,
+                    valueAscii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+        }
+        StringBuilder sb = new StringBuilder(valueEnd - valueStart);
+        int p = valueStart;
+        int runStart = p;
+        while (p < valueEnd) {
+            if (at(p) != '\\') {
+                p++;
+                continue;
+            }
+            if (p > runStart) {
+                sb.append(new String(copy(runStart, p), 0, p - runStart, StandardCharsets.UTF_8));
+            }
+            byte escape = at(p + 1);
+            p += 2;
+            switch (escape) {
+                case 'u':
+                    if (p + 4 > valueEnd) {
+                        throw syntaxError("Unterminated escape sequence");
+                    }
+                    sb.append((char) Integer.parseInt(decodeAscii(p, p + 4), 16));
+                    p += 4;
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case '"':
+                case '\\':
+                case '/':
+                    sb.append((char) escape);
+                    break;
+                default:
+                    throw syntaxError("Invalid escape sequence");
+            }
+            runStart = p;
+        }
+        if (p > runStart) {
+            sb.append(new String(copy(runStart, p), 0, p - runStart, StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+
+    private IOException syntaxError(String message) {
+        return new MalformedJsonException(message + location());
+    }
+
+}
@@ -2,16 +2,26 @@
 package org.gltfio.deserialize;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import org.gltfio.glb.GlbReader;
 import org.gltfio.glb2.Glb2Reader;
@@ -30,8 +40,11 @@ import org.gltfio.gltf2.JSONPrimitive.HashMapTypeAdapter;
 import org.gltfio.gltf2.JSONSampler;
 import org.gltfio.gltf2.JSONScene;
 import org.gltfio.gltf2.JSONTexture;
+import org.gltfio.gltf2.JSONTypeAdapter;
 import org.gltfio.gltf2.MinMax;
 import org.gltfio.gltf2.RenderableScene;
+import org.gltfio.gltf2.StreamingGltf;
+import org.gltfio.gltf2.StreamingScene;
 import org.gltfio.gltf2.VanillaGltf;
 import org.gltfio.gltf2.extensions.GltfExtensions.ExtensionTypes;
 import org.gltfio.gltf2.extensions.JSONExtension;
@@ -42,13 +55,19 @@ import org.gltfio.gltf2.extensions.KHRLightsPunctual;
 import org.gltfio.gltf2.extensions.KHRLightsPunctual.Light;
 import org.gltfio.glxf.Glxf;
 import org.gltfio.glxf.GlxfAssetReference;
+import org.gltfio.lib.ByteBufferInputStream;
 import org.gltfio.lib.ErrorMessage;
 import org.gltfio.lib.FileUtils;
+import org.gltfio.lib.LoadHandle;
+import org.gltfio.lib.LoadHandle.Priority;
+import org.gltfio.lib.LoadHandle.State;
 import org.gltfio.lib.Logger;
 import org.gltfio.lib.Settings;
 import org.gltfio.lib.Settings.BooleanProperty;
 import org.gltfio.lib.Settings.FloatProperty;
+import org.gltfio.lib.Settings.IntProperty;
 import org.gltfio.lib.Settings.StringProperty;
+import org.gltfio.lib.ThreadService;
 import org.gltfio.lighting.IrradianceMap;
 import org.gltfio.lighting.IrradianceMap.IRMAP;
 import org.gltfio.prepare.GltfSettings;
@@ -65,7 +84,31 @@ import com.google.gson.GsonBuilder;
 public class Ladda {
 
     public enum LaddaBooleanProperties implements BooleanProperty {
-        SELECT_RUNTIME_CAMERA("gltf.runtimecamera", true);
+        SELECT_RUNTIME_CAMERA("gltf.runtimecamera", true),
+        /**
+         * Loads external buffers in parallel, using ThreadService, instead of one after another.
+         */
+        PARALLEL_BUFFER_LOAD("gltf.parallelbufferload", true),
+        /**
+         * Maps external buffer files into memory as readonly buffers instead of loading them, data is copied
+         * when written to.
+         */
+        MAP_BUFFERS("gltf.mapbuffers", false),
+        /**
+         * Parses JSON directly from the mapped file, or glb JSON chunk, using {@link ByteJsonReader} instead of
+         * decoding to chars.
+         */
+        BYTE_JSON_READER("gltf.bytejsonreader", true),
+        /**
+         * Deserializes the glTF model classes using {@link JSONTypeAdapter} instead of reflection, read when the
+         * Ladda instance is created.
+         */
+        MODEL_TYPE_ADAPTERS("gltf.modeltypeadapters", true),
+        /**
+         * Loads, or maps, external buffers the first time they are used instead of when the asset is loaded, see
+         * {@link JSONBuffer#setLazy(String, boolean)}. Buffers with data uri are always loaded.
+         */
+        LAZY_BUFFERS("gltf.lazybuffers", false);
 
         private final String key;
         private final boolean defaultValue;
@@ -145,7 +188,11 @@ public class Ladda {
         /**
          * Runtime camera alignment
          */
-        CAMERA_ALIGNMENT("gltf.camera.alignment", null);
+        CAMERA_ALIGNMENT("gltf.camera.alignment", null),
+        /**
+         * Absolute path to folder where prepared models are cached, see {@link PreparedCache}
+         */
+        PREPARED_CACHE("gltf.preparedcache", null);
 
         private final String key;
         private final String defaultValue;
@@ -172,6 +219,39 @@ public class Ladda {
 
     }
 
+    public enum LaddaIntProperties implements IntProperty {
+
+        /**
+         * Max number of glXF asset references that are loaded at the same time, 1 to load one after another.
+         * The ModelPreparation must be threadsafe if more than one reference is loaded at the same time.
+         */
+        GLXF_PARALLELISM("gltf.glxf.parallelism", 4);
+
+        private final String key;
+        private final int defaultValue;
+
+        LaddaIntProperties(String key, int defaultValue) {
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        public String getName() {
+            return name();
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getDefault() {
+            return Integer.toString(defaultValue);
+        }
+
+    }
+
     public enum LaddaFloatProperties implements FloatProperty {
 
         /**
@@ -245,7 +325,7 @@ public class Ladda {
 
     public static class LaddaDefault extends Ladda {
 
-        private static LaddaDefault ladda;
+        private static volatile LaddaDefault ladda;
 
         public LaddaDefault(Type glTFType) {
             super(glTFType);
@@ -260,7 +340,11 @@ public class Ladda {
          */
         public static LaddaDefault getInstance() {
             if (ladda == null) {
-                ladda = createInstance(VanillaGltf.class);
+                synchronized (LaddaDefault.class) {
+                    if (ladda == null) {
+                        ladda = createInstance(VanillaGltf.class);
+                    }
+                }
             }
             return ladda;
         }
@@ -271,11 +355,15 @@ public class Ladda {
 
     }
 
-    private static HashMap<String, Ladda> laddaMap = new HashMap<>();
+    private static final ConcurrentHashMap<String, Ladda> laddaMap = new ConcurrentHashMap<>();
     private AssetResolver resolver = new LaddaAssetResolver();
     final java.lang.reflect.Type glTFType;
-    private Glb2Streamer<?> listener;
-    private Gson gSon;
+    /**
+     * Gson is threadsafe, the same instance is used for all loads
+     */
+    private final Gson gSon = createGson();
+    private volatile Executor executor = command -> ThreadService.getInstance().execute(command);
+    private final AssetCache assetCache = new AssetCache();
 
     public Ladda(Type glTFType) {
         if (glTFType == null) {
@@ -297,47 +385,67 @@ public class Ladda {
     public static Ladda getInstance(Type glTFType) {
         Ladda ladda = laddaMap.get(glTFType.toString());
         if (ladda == null) {
-            ladda = createInstance(glTFType);
+            ladda = laddaMap.computeIfAbsent(glTFType.toString(), key -> createInstance(glTFType));
         }
         return ladda;
     }
 
     private static Ladda createInstance(Type glTFType) {
-        Ladda ladda = new Ladda(glTFType);
-        laddaMap.put(glTFType.toString(), ladda);
-        return ladda;
+        return new Ladda(glTFType);
+    }
+
+    /**
+     * Sets the executor used by {@link #loadGltfAsync(String, String, ModelPreparation, GltfSettings)}, default
+     * is to use the threads in ThreadService.
+     * 
+     * @param executor
+     */
+    public void setExecutor(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Null executor");
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the cache of loaded assets, the cache is used when {@link AssetCache.CacheProperties#BUDGET_MB} is set
+     * 
+     * @return
+     */
+    public AssetCache getAssetCache() {
+        return assetCache;
     }
 
     /**
      * Loads a glTF asset, this will not load binary data (buffers) or texture images.
      * Scene and nodes will NOT be resolved.
+     * Threadsafe - several assets may be loaded at the same time.
      * 
      * @param path Path where gltf assets such as binary buffers and images are loaded from.
      * @param name The filename
      * @param is
      * @return The loaded glTF asset without any buffers or image loaded.
+     * @throws IllegalArgumentException If filename is a streaming glb2, use
+     * {@link #loadStreamingGltf(String, String, ModelPreparation, GltfSettings, Glb2Streamer, Priority)}
      * @throws IOException
      * @throws ClassNotFoundException
      * @throws URISyntaxException
      */
-    public synchronized AssetBaseObject loadJSON(String path, String filename) throws IOException, ClassNotFoundException, URISyntaxException {
+    public AssetBaseObject loadJSON(String path, String filename) throws IOException, ClassNotFoundException, URISyntaxException {
         if (path.length() == 0) {
             path = FileUtils.getInstance().getFolder(filename) + FileUtils.DIRECTORY_SEPARATOR_STRING;
             filename = FileUtils.getInstance().getFilename(filename);
         }
         path = FileUtils.getInstance().replaceDirectorySeparator(path);
         AssetBaseObject asset = null;
-        if (gSon == null) {
-            gSon = createGson();
-        }
         FileType ft = FileType.get(filename);
         switch (ft) {
             case GLB:
                 asset = internalloadGLB(gSon, path, filename);
                 break;
             case GLB2:
-                internalloadGLB2(path, filename);
-                break;
+                throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message
+                        + "Use loadStreamingGltf() to load " + filename);
             case GLTF:
                 asset = internalloadGLTF(gSon, path, filename);
                 break;
@@ -365,19 +473,48 @@ public class Ladda {
         builder.registerTypeAdapter(ExtensionObject.class, new ExtensionObject());
         builder.registerTypeAdapter(Extras.class, new Extras());
         builder.registerTypeAdapter(HashMap.class, new HashMapTypeAdapter());
+        if (Settings.getInstance().getBoolean(LaddaBooleanProperties.MODEL_TYPE_ADAPTERS)) {
+            builder.registerTypeAdapterFactory(new JSONTypeAdapter.Factory());
+        }
         return builder.create();
     }
 
     private AssetBaseObject internalloadGLTF(Gson gson, String path, String filename)
             throws IOException {
-        InputStream is = FileUtils.getInstance().getInputStream(path, filename);
-        Reader reader = new InputStreamReader(is, "UTF-8");
-        AssetBaseObject glTF = null;
-        glTF = gson.fromJson(reader, glTFType);
+        AssetBaseObject glTF = fromJson(gson, path, filename, glTFType);
         glTF.setPathAndFilename(path, filename);
         return glTF;
     }
 
+    /**
+     * Deserializes the JSON file, the file is mapped and parsed using {@link ByteJsonReader} if enabled and the
+     * file can be mapped - otherwise it is read as chars from an InputStream.
+     * 
+     * @param gson
+     * @param path
+     * @param filename
+     * @param type
+     * @return
+     * @throws IOException
+     */
+    private <T> T fromJson(Gson gson, String path, String filename, Type type) throws IOException {
+        if (Settings.getInstance().getBoolean(LaddaBooleanProperties.BYTE_JSON_READER)) {
+            ByteBuffer json;
+            try {
+                json = FileUtils.getInstance().mapFile(path, filename);
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+            if (json != null) {
+                return gson.fromJson(new ByteJsonReader(json), type);
+            }
+        }
+        try (Reader reader = new InputStreamReader(FileUtils.getInstance().getInputStream(path, filename),
+                "UTF-8")) {
+            return gson.fromJson(reader, type);
+        }
+    }
+
     private AssetBaseObject<RenderableScene> internalloadGLB(Gson gson, String path, String filename)
             throws IOException, ClassNotFoundException, URISyntaxException {
         GlbReader deserializer = new GlbReader();
@@ -389,13 +526,18 @@ public class Ladda {
 
     private AssetBaseObject internalloadGLB(Gson gson, GlbReader deserializer, String path, String filename)
             throws UnsupportedEncodingException {
-        Reader reader = new InputStreamReader(deserializer.createJsonInputStream(), "UTF-8");
-        JSONGltf glTF = gson.fromJson(reader, glTFType);
+        JSONGltf glTF;
+        if (Settings.getInstance().getBoolean(LaddaBooleanProperties.BYTE_JSON_READER)) {
+            glTF = gson.fromJson(new ByteJsonReader(deserializer.getJson()), glTFType);
+        } else {
+            Reader reader = new InputStreamReader(deserializer.createJsonInputStream(), "UTF-8");
+            glTF = gson.fromJson(reader, glTFType);
+        }
         ArrayList buffers = glTF.getBuffers();
         if (buffers != null) {
             for (int i = 0; i < buffers.size(); i++) {
                 JSONBuffer b = (JSONBuffer) buffers.get(i);
-                if (b.getUri() == null) {
+                if (b.getUri() == null && !deserializer.bind(b, i + 1)) {
                     b.createBuffer();
                     deserializer.get(b, i + 1);
                 }
@@ -405,20 +547,20 @@ public class Ladda {
         return glTF;
     }
 
-    private void internalloadGLB2(String path, String filename) throws ClassNotFoundException,
-            IOException, URISyntaxException {
+    private LoadHandle<StreamingGltf<StreamingScene>> internalloadGLB2(String path, String filename,
+            Glb2Streamer<StreamingScene> listener, Priority priority) throws ClassNotFoundException, IOException,
+            URISyntaxException {
         if (listener == null) {
             throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + ", listener is null");
         }
         Glb2Reader reader = new Glb2Reader(glTFType);
-        reader.mapToBuffer(path, filename);
-        reader.processChunksAsync(listener);
+        // Falls back to reading from inputstream if file cannot be mapped, for instance when inside a jar
+        reader.open(path, filename);
+        return reader.processChunksAsync(listener, priority);
     }
 
     private Glxf internalloadGLXF(Gson gson, String path, String filename) throws IOException {
-        InputStream is = FileUtils.getInstance().getInputStream(path, filename);
-        Reader reader = new InputStreamReader(is, "UTF-8");
-        Glxf glXF = gson.fromJson(reader, Glxf.class);
+        Glxf glXF = fromJson(gson, path, filename, Glxf.class);
         glXF.setPathAndFilename(path, filename);
         return glXF;
     }
@@ -426,6 +568,8 @@ public class Ladda {
     /**
      * Loads the assets (buffers/textures) into the gltf model, resolves the asset, including extensions.
      * If the asset source is a glXF the referenced glTF's are loaded and resolved.
+     * If the asset cache is enabled a cached glTF or glb asset is returned when the file is unchanged, the cached
+     * asset is shared and buffers are readonly - see {@link AssetCache}
      * 
      * @param path The path to the folder where the glTF file is.
      * @param filaName Filename of the glTF file
@@ -436,29 +580,178 @@ public class Ladda {
      * @throws URISyntaxException
      */
     public AssetBaseObject loadGltf(String path, String filename, ModelPreparation modelPrep, GltfSettings settings) throws IOException, ClassNotFoundException, URISyntaxException {
+        return loadGltf(path, filename, modelPrep, settings, null);
+    }
+
+    /**
+     * Loads a glTF asset, as {@link #loadGltf(String, String, ModelPreparation, GltfSettings)}, using the
+     * executor - see {@link #setExecutor(Executor)}. This method will return immediately.
+     * Parsing, resolving, loading of buffers and model preparation is done on the executor, several assets may be
+     * loaded at the same time. The ModelPreparation must be threadsafe if it is used for assets that are loaded
+     * at the same time.
+     * 
+     * @param path The path to the folder where the glTF file is.
+     * @param filename Filename of the glTF file
+     * @param modelPrep
+     * @param settings
+     * @return Future that is completed with the loaded asset, or completed exceptionally if loading fails.
+     */
+    public CompletableFuture<AssetBaseObject> loadGltfAsync(String path, String filename,
+            ModelPreparation modelPrep, GltfSettings settings) {
+        if (path == null || filename == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "NULL");
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return loadGltf(path, filename, modelPrep, settings, null);
+            } catch (IOException | ClassNotFoundException | URISyntaxException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Reads counts, extensions and bounds of a glTF, glb or glb2 asset without loading buffers. Model preparation
+     * is not done and no runtime camera is added.
+     * For glTF and glb only the JSON is read and the scenegraph resolved, binary chunks of glb are not read.
+     * For glb2 only the header and the scene chunk are read.
+     * 
+     * @param path The path to the folder where the file is.
+     * @param filename Filename of the glTF, glb or glb2 file
+     * @return
+     * @throws IOException
+     */
+    public AssetProbe probe(String path, String filename) throws IOException {
+        if (path == null || filename == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "NULL");
+        }
+        path = FileUtils.getInstance().fixPath(path);
+        FileType ft = FileType.get(filename);
+        switch (ft) {
+            case GLB2:
+                try (ReadableByteChannel channel = Channels.newChannel(FileUtils.getInstance().getInputStream(path,
+                        filename))) {
+                    return new AssetProbe(path, filename, Glb2Reader.readScene(channel));
+                }
+            case GLB:
+                ByteBuffer json;
+                try (ReadableByteChannel channel = Channels.newChannel(FileUtils.getInstance().getInputStream(path,
+                        filename))) {
+                    json = GlbReader.readJson(channel);
+                }
+                if (Settings.getInstance().getBoolean(LaddaBooleanProperties.BYTE_JSON_READER)) {
+                    return probe(path, filename, gSon.fromJson(new ByteJsonReader(json), glTFType));
+                }
+                return probe(path, filename, gSon.fromJson(new InputStreamReader(new ByteBufferInputStream(json),
+                        "UTF-8"), glTFType));
+            case GLTF:
+                return probe(path, filename, fromJson(gSon, path, filename, glTFType));
+            default:
+                throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + ft);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private AssetProbe probe(String path, String filename, Object glTF) {
+        JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene> resolved =
+                (JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene>) glTF;
+        resolved.setPathAndFilename(path, filename);
+        resolveSceneGraph(resolved);
+        return new AssetProbe(path, filename, resolved);
+    }
+
+    /**
+     * Probes an asset, as {@link #probe(String, String)}, using the executor - see {@link #setExecutor(Executor)}.
+     * This method will return immediately, use this to probe many assets at the same time.
+     * 
+     * @param path The path to the folder where the file is.
+     * @param filename Filename of the glTF, glb or glb2 file
+     * @return Future that is completed with the probe, or completed exceptionally if the file cannot be read.
+     */
+    public CompletableFuture<AssetProbe> probeAsync(String path, String filename) {
+        if (path == null || filename == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "NULL");
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return probe(path, filename);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Starts loading of a glTF asset, as {@link #loadGltf(String, String, ModelPreparation, GltfSettings)}, using
+     * the threads in ThreadService - this method will return immediately.
+     * The load is checked between buffers, and between referenced assets for glXF, this is where a cancelled
+     * load stops and where a load waits while a load with higher priority is running.
+     * If the load is cancelled, or fails, the partially loaded asset is destroyed.
+     * 
+     * @param path The path to the folder where the glTF file is.
+     * @param filename Filename of the glTF file
+     * @param modelPrep
+     * @param settings
+     * @param priority
+     * @return Handle to cancel the load, change priority, read progress or wait for the loaded asset
+     */
+    public LoadHandle<AssetBaseObject> startLoadGltf(String path, String filename, ModelPreparation modelPrep,
+            GltfSettings settings, Priority priority) {
+        if (path == null || filename == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "NULL");
+        }
+        LoadHandle<AssetBaseObject> handle = new LoadHandle<AssetBaseObject>(filename, priority);
+        ThreadService.getInstance().execute(() -> handle.run(() -> loadGltf(path, filename, modelPrep, settings,
+                handle)));
+        return handle;
+    }
+
+    private AssetBaseObject loadGltf(String path, String filename, ModelPreparation modelPrep, GltfSettings settings, LoadHandle<?> handle) throws IOException, ClassNotFoundException, URISyntaxException {
         if (path == null || filename == null) {
             throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "NULL");
         }
         path = FileUtils.getInstance().fixPath(path);
+        FileType sourceType = FileType.get(filename);
+        boolean cache = (sourceType == FileType.GLTF || sourceType == FileType.GLB) && assetCache.isEnabled();
+        if (cache) {
+            AssetBaseObject cached = assetCache.get(path, filename, modelPrep, settings);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        checkpoint(handle);
         AssetBaseObject asset = loadJSON(path, filename);
+        if (handle != null) {
+            handle.setRelease(() -> release(asset));
+        }
         // How to resolve the asset
         FileType ft = asset.getFileType();
         switch (ft) {
             case GLXB:
             case GLTF:
             case GLB:
-                resolve((JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene>) asset, modelPrep, settings);
-                JSONScene scene = (JSONScene) asset.getScene(0);
+                JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene> glTF = resolve(
+                        (JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene>) asset, filename, modelPrep,
+                        settings, handle);
+                JSONScene scene = glTF.getScene(0);
                 MinMax bounds = scene.calculateBounds();
                 if (bounds != null) {
-                    int cameraIndex = asset.addRuntimeCamera("Default camera", bounds, settings.getCameraAlignment(), Settings.getInstance().getFloat(Settings.PlatformFloatProperties.DISPLAY_ASPECT), scene);
-                    if (Settings.getInstance().getBoolean(LaddaBooleanProperties.SELECT_RUNTIME_CAMERA) || asset.getCameraCount() == 1) {
-                        asset.setSelectedCamera(cameraIndex);
+                    int cameraIndex = glTF.addRuntimeCamera("Default camera", bounds, settings.getCameraAlignment(), Settings.getInstance().getFloat(Settings.PlatformFloatProperties.DISPLAY_ASPECT), scene);
+                    if (Settings.getInstance().getBoolean(LaddaBooleanProperties.SELECT_RUNTIME_CAMERA) || glTF.getCameraCount() == 1) {
+                        glTF.setSelectedCamera(cameraIndex);
                     }
                 }
-                break;
+                if (cache) {
+                    // Last point where the load can be cancelled, buffers of a cached asset must not be released
+                    checkpoint(handle);
+                    if (handle != null) {
+                        handle.setRelease(null);
+                    }
+                    assetCache.put(path, filename, modelPrep, settings, glTF);
+                }
+                return glTF;
             case GLXF:
-                resolve((Glxf) asset, modelPrep, settings);
+                resolve((Glxf) asset, modelPrep, settings, handle);
                 break;
             default:
                 throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + ft);
@@ -466,6 +759,37 @@ public class Ladda {
         return asset;
     }
 
+    /**
+     * Checks the load handle, if there is one
+     * 
+     * @param handle
+     */
+    private void checkpoint(LoadHandle<?> handle) {
+        if (handle != null) {
+            handle.checkpoint();
+        }
+    }
+
+    /**
+     * Releases the buffers of a partially loaded, or discarded, asset. Buffers of cached assets are not released.
+     * 
+     * @param asset
+     */
+    private void release(AssetBaseObject asset) {
+        if (asset instanceof JSONGltf) {
+            ArrayList buffers = ((JSONGltf) asset).getBuffers();
+            if (buffers != null) {
+                for (Object b : buffers) {
+                    JSONBuffer buffer = (JSONBuffer) b;
+                    // Buffers of a cached asset are shared and not released
+                    if (!buffer.isShared()) {
+                        buffer.destroyBuffer();
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Loads a streaming asset
      * 
@@ -474,12 +798,31 @@ public class Ladda {
      * @param modelPrep
      * @param settings
      * @param callback
+     * @return Handle to cancel the load or read progress
+     * @throws URISyntaxException
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    public LoadHandle<StreamingGltf<StreamingScene>> loadStreamingGltf(String path, String filename, ModelPreparation modelPrep, GltfSettings settings, Glb2Streamer<StreamingScene> callback) throws ClassNotFoundException, IOException, URISyntaxException {
+        return loadStreamingGltf(path, filename, modelPrep, settings, callback, Priority.NORMAL);
+    }
+
+    /**
+     * Loads a streaming asset with priority, chunks of a load with lower priority are not processed while a load
+     * with higher priority is running.
+     * 
+     * @param path
+     * @param filename
+     * @param modelPrep
+     * @param settings
+     * @param callback
+     * @param priority
+     * @return Handle to cancel the load, change priority or read progress
      * @throws URISyntaxException
      * @throws IOException
      * @throws ClassNotFoundException
      */
-    public void loadStreamingGltf(String path, String filename, ModelPreparation modelPrep, GltfSettings settings, Glb2Streamer callback) throws ClassNotFoundException, IOException, URISyntaxException {
-        this.listener = callback;
+    public LoadHandle<StreamingGltf<StreamingScene>> loadStreamingGltf(String path, String filename, ModelPreparation modelPrep, GltfSettings settings, Glb2Streamer<StreamingScene> callback, Priority priority) throws ClassNotFoundException, IOException, URISyntaxException {
         if (path == null || filename == null) {
             throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "NULL");
         }
@@ -487,33 +830,241 @@ public class Ladda {
         FileType ft = FileType.get(filename);
         switch (ft) {
             case GLB2:
-                internalloadGLB2(path, filename);
-                break;
+                return internalloadGLB2(path, filename, callback, priority);
             default:
                 throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + ft);
         }
     }
 
-    private void resolve(Glxf asset, ModelPreparation modelPrep, GltfSettings settings) throws ClassNotFoundException, IOException, URISyntaxException {
+    /**
+     * Loads the referenced assets, at most {@link LaddaIntProperties#GLXF_PARALLELISM} at the same time using
+     * ThreadService. References with the same uri share the loaded asset.
+     * The scene of each referenced asset is set in the glXF in reference order, regardless of the order that
+     * loads complete.
+     * 
+     * @param asset
+     * @param modelPrep
+     * @param settings
+     * @param handle
+     * @throws ClassNotFoundException
+     * @throws IOException
+     * @throws URISyntaxException
+     */
+    private void resolve(Glxf asset, ModelPreparation modelPrep, GltfSettings settings, LoadHandle<?> handle) throws ClassNotFoundException, IOException, URISyntaxException {
         resolver.resolveTransientValues(asset);
         GlxfAssetReference[] references = asset.getAssetReferences();
-        if (references != null) {
-            for (int i = 0; i < references.length; i++) {
-                AssetBaseObject renderAsset = loadGltf(asset.getPath(), references[i].getURI(), modelPrep,
-                        settings);
+        if (references == null) {
+            return;
+        }
+        // Unique uris in the order they are first referenced
+        ArrayList<String> uris = new ArrayList<String>();
+        HashMap<String, Integer> uriIndexes = new HashMap<String, Integer>();
+        int[] loadIndexes = new int[references.length];
+        for (int i = 0; i < references.length; i++) {
+            String uri = references[i].getURI();
+            if (uri == null) {
+                throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "No uri for asset " + i);
             }
+            Integer index = uriIndexes.get(uri);
+            if (index == null) {
+                index = uris.size();
+                uriIndexes.put(uri, index);
+                uris.add(uri);
+            }
+            loadIndexes[i] = index;
+        }
+        AssetBaseObject[] loaded = loadReferences(asset.getPath(), uris, modelPrep, settings, handle);
+        for (int i = 0; i < references.length; i++) {
+            JSONGltf glTF = (JSONGltf) loaded[loadIndexes[i]];
+            asset.setAsset(glTF.getScene(Math.max(0, glTF.getSceneIndex())), i);
         }
     }
 
-    private void resolve(JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene> glTF, ModelPreparation modelPrep, GltfSettings settings) throws IOException {
+    /**
+     * Loads the unique asset references of a glXF, each reference is loaded with a handle that has the glXF load
+     * as parent so that cancelling the glXF cancels the reference loads. If the glXF load is cancelled or a
+     * reference fails the loads that have started are cancelled and the loaded references are released.
+     */
+    private AssetBaseObject[] loadReferences(String path, ArrayList<String> uris, ModelPreparation modelPrep,
+            GltfSettings settings, LoadHandle<?> handle) throws ClassNotFoundException, IOException,
+            URISyntaxException {
+        int parallelism = Math.max(1, Settings.getInstance().getInt(LaddaIntProperties.GLXF_PARALLELISM));
+        AssetBaseObject[] loaded = new AssetBaseObject[uris.size()];
+        ThreadService service = ThreadService.getInstance();
+        ArrayList<LoadHandle<AssetBaseObject>> references = new ArrayList<LoadHandle<AssetBaseObject>>(
+                loaded.length);
+        ArrayList<FutureTask<AssetBaseObject>> loads = new ArrayList<FutureTask<AssetBaseObject>>(loaded.length);
+        boolean completed = false;
+        try {
+            for (int i = 0; i < loaded.length; i++) {
+                // Keeps at most parallelism loads queued or running, the next load is queued when one is taken
+                while (loads.size() < Math.min(loaded.length, i + parallelism)) {
+                    String uri = uris.get(loads.size());
+                    LoadHandle<AssetBaseObject> reference = handle != null ? new LoadHandle<AssetBaseObject>(uri,
+                            handle) : new LoadHandle<AssetBaseObject>(uri, Priority.NORMAL);
+                    references.add(reference);
+                    Callable<AssetBaseObject> load = () -> loadReference(path, modelPrep, settings, reference);
+                    loads.add(parallelism > 1 ? service.submit(load) : new FutureTask<AssetBaseObject>(load));
+                }
+                checkpoint(handle);
+                FutureTask<AssetBaseObject> load = loads.get(i);
+                // Runs the load in this thread if not yet started
+                load.run();
+                loaded[i] = load.get();
+                setProgress(handle, i + 1, loaded.length);
+            }
+            completed = true;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof ClassNotFoundException) {
+                throw (ClassNotFoundException) cause;
+            }
+            if (cause instanceof URISyntaxException) {
+                throw (URISyntaxException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } finally {
+            if (!completed) {
+                releaseReferences(references, loads);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Loads a glXF asset reference, the handle is updated when the load returns
+     *
+     * @param path
+     * @param modelPrep
+     * @param settings
+     * @param reference Handle with the uri of the reference as name
+     * @return
+     * @throws Exception If the load failed or is cancelled
+     */
+    private AssetBaseObject loadReference(String path, ModelPreparation modelPrep, GltfSettings settings,
+            LoadHandle<AssetBaseObject> reference) throws Exception {
+        reference.run(() -> loadGltf(path, reference.getName(), modelPrep, settings, reference));
+        try {
+            return reference.await();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Cancels the reference loads, waits for loads that have started to stop and releases the references that
+     * were loaded. Loads that are cancelled at a checkpoint release their buffers when they stop.
+     *
+     * @param references
+     * @param loads
+     */
+    private void releaseReferences(ArrayList<LoadHandle<AssetBaseObject>> references,
+            ArrayList<FutureTask<AssetBaseObject>> loads) {
+        for (LoadHandle<AssetBaseObject> reference : references) {
+            reference.cancel();
+        }
+        for (FutureTask<AssetBaseObject> load : loads) {
+            load.cancel(false);
+        }
+        boolean interrupted = false;
+        for (LoadHandle<AssetBaseObject> reference : references) {
+            // A queued reference is cancelled, it does not start even if the task has been taken by a thread
+            if (reference.getState() != State.QUEUED) {
+                try {
+                    release(reference.await());
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    // Failed or cancelled loads have released their buffers
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Resolves and prepares the glTF, if the prepared cache is enabled and has the prepared model then it is
+     * returned instead - see {@link PreparedCache}
+     * 
+     * @param glTF
+     * @param filename
+     * @param modelPrep
+     * @param settings
+     * @param handle
+     * @return The resolved glTF
+     * @throws IOException
+     */
+    private JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene> resolve(
+            JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene> glTF, String filename,
+            ModelPreparation modelPrep, GltfSettings settings, LoadHandle<?> handle) throws IOException {
+        String cacheFolder = Settings.getInstance().getProperty(LaddaProperties.PREPARED_CACHE);
+        PreparedCache preparedCache = modelPrep != null && cacheFolder != null ? new PreparedCache(cacheFolder)
+                : null;
+        String key = null;
+        if (preparedCache != null) {
+            key = preparedCache.getKey(glTF, filename, (Class<?>) glTFType, modelPrep, settings);
+            JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene> prepared = loadPrepared(preparedCache, key,
+                    glTF.getPath(), filename);
+            if (prepared != null) {
+                return prepared;
+            }
+        }
         resolveSceneGraph(glTF);
         checkProperties(glTF);
         glTF.resolveExtensions();
-        loadBuffers(glTF);
+        loadBuffers(glTF, handle);
+        checkpoint(handle);
         if (modelPrep != null) {
             modelPrep.prepareModel(glTF, settings);
+            if (preparedCache != null) {
+                preparedCache.write(glTF, gSon, key);
+            }
         }
         Logger.d(getClass(), glTF.getStats());
+        return glTF;
+    }
+
+    /**
+     * Loads the prepared model from the cache, buffers are bound to the mapped file. Properties have already been
+     * applied and preparation is not done.
+     * 
+     * @param preparedCache
+     * @param key
+     * @param path Path of the source
+     * @param filename Filename of the source
+     * @return The prepared model, or null if not in the cache or the cached file cannot be read
+     */
+    @SuppressWarnings("unchecked")
+    private JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene> loadPrepared(PreparedCache preparedCache,
+            String key, String path, String filename) {
+        if (!preparedCache.contains(key)) {
+            return null;
+        }
+        JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene> prepared;
+        try {
+            GlbReader deserializer = preparedCache.read(key);
+            prepared = (JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene>) internalloadGLB(gSon,
+                    deserializer, path, filename);
+            deserializer.destroy();
+        } catch (IOException | RuntimeException e) {
+            Logger.e(getClass(), "Could not read prepared model " + key + " for " + filename + ", " + e);
+            return null;
+        }
+        resolveSceneGraph(prepared);
+        prepared.resolveExtensions();
+        Logger.d(getClass(), "Loaded prepared model for " + filename + ", " + prepared.getStats());
+        return prepared;
     }
 
     private void checkProperties(JSONGltf glTF) {
@@ -634,25 +1185,110 @@ public class Ladda {
      * @throws {@link IllegalArgumentException} if buffers have already been loaded
      */
     public void loadBuffers(JSONGltf glTF) throws IOException {
-        try {
-            ArrayList buffers = glTF.getBuffers();
-            if (buffers != null) {
-                for (int i = 0; i < buffers.size(); i++) {
-                    JSONBuffer b = (JSONBuffer) buffers.get(i);
-                    if (b.getUri() != null) {
-                        b.createBuffer();
-                        b.load(glTF.getPath());
-                    } else {
-                        if (glTF.getFileType() == FileType.GLTF) {
-                            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message
-                                    + "Buffer specified with length " + b.getByteLength() + " but no URI");
-                        }
-                    }
+        loadBuffers(glTF, null);
+    }
+
+    private void loadBuffers(JSONGltf glTF, LoadHandle<?> handle) throws IOException {
+        ArrayList buffers = glTF.getBuffers();
+        if (buffers == null) {
+            return;
+        }
+        boolean map = Settings.getInstance().getBoolean(LaddaBooleanProperties.MAP_BUFFERS);
+        boolean lazy = Settings.getInstance().getBoolean(LaddaBooleanProperties.LAZY_BUFFERS);
+        ArrayList<JSONBuffer> external = new ArrayList<JSONBuffer>();
+        for (int i = 0; i < buffers.size(); i++) {
+            JSONBuffer b = (JSONBuffer) buffers.get(i);
+            if (b.getUri() != null) {
+                if (lazy && !FileUtils.getInstance().isDataURI(b.getUri())) {
+                    b.setLazy(glTF.getPath(), map);
+                } else if (!map || !mapBuffer(b, glTF.getPath(), handle)) {
+                    external.add(b);
+                }
+            } else {
+                if (glTF.getFileType() == FileType.GLTF) {
+                    throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message
+                            + "Buffer specified with length " + b.getByteLength() + " but no URI");
                 }
             }
+        }
+        if (external.size() > 1 && Settings.getInstance().getBoolean(LaddaBooleanProperties.PARALLEL_BUFFER_LOAD)) {
+            loadBuffersParallel(external, glTF.getPath(), handle);
+        } else {
+            try {
+                for (int i = 0; i < external.size(); i++) {
+                    checkpoint(handle);
+                    JSONBuffer b = external.get(i);
+                    b.createBuffer();
+                    b.load(glTF.getPath());
+                    setProgress(handle, i + 1, external.size());
+                }
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private boolean mapBuffer(JSONBuffer buffer, String path, LoadHandle<?> handle) throws IOException {
+        checkpoint(handle);
+        try {
+            return buffer.map(path);
         } catch (URISyntaxException e) {
             throw new IOException(e);
         }
     }
 
+    /**
+     * Issues the reads of all buffers up front, using ThreadService, then waits for them in order.
+     * A read that has not been started when it is waited for is run on the calling thread, so this does not
+     * starve when called from a ThreadService thread.
+     * 
+     * @param buffers
+     * @param path
+     * @param handle
+     * @throws IOException
+     */
+    private void loadBuffersParallel(ArrayList<JSONBuffer> buffers, String path, LoadHandle<?> handle)
+            throws IOException {
+        ThreadService service = ThreadService.getInstance();
+        ArrayList<FutureTask<JSONBuffer>> loads = new ArrayList<FutureTask<JSONBuffer>>(buffers.size());
+        try {
+            for (JSONBuffer b : buffers) {
+                b.createBuffer();
+                loads.add(service.submit(() -> {
+                    b.load(path);
+                    return b;
+                }));
+            }
+            for (int i = 0; i < loads.size(); i++) {
+                checkpoint(handle);
+                FutureTask<JSONBuffer> load = loads.get(i);
+                load.run();
+                load.get();
+                setProgress(handle, i + 1, loads.size());
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } finally {
+            for (FutureTask<JSONBuffer> load : loads) {
+                load.cancel(false);
+            }
+        }
+    }
+
+    private void setProgress(LoadHandle<?> handle, int loaded, int count) {
+        if (handle != null) {
+            handle.setProgress((float) loaded / count);
+        }
+    }
+
 }
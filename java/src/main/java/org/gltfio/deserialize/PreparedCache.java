@@ -0,0 +1,409 @@
+package org.gltfio.deserialize;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+
+import org.gltfio.glb.GlbHeader;
+import org.gltfio.glb.GlbReader;
+import org.gltfio.gltf2.AssetBaseObject.FileType;
+import org.gltfio.gltf2.JSONBuffer;
+import org.gltfio.gltf2.JSONGltf;
+import org.gltfio.lib.ErrorMessage;
+import org.gltfio.lib.FileUtils;
+import org.gltfio.lib.Logger;
+import org.gltfio.lib.Settings;
+import org.gltfio.prepare.GltfProperties;
+import org.gltfio.prepare.GltfSettings;
+import org.gltfio.prepare.ModelPreparation;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Disk cache of prepared models, used by {@link Ladda} when {@link Ladda.LaddaProperties#PREPARED_CACHE} is set.
+ * The result of {@link ModelPreparation#prepareModel(JSONGltf, GltfSettings)} is stored as a glb file with one BIN
+ * chunk for each buffer, when the same source is loaded again the cached file is mapped and model preparation is
+ * skipped.
+ * Files are named by a SHA-256 hash of the source contents, including external buffers, the settings handlers,
+ * the class of model preparation, the Ladda properties and the properties read during preparation, see
+ * {@link GltfProperties}.
+ * The hash is stored in an index file named by the canonical path, size and modification time of the source files,
+ * the contents is only hashed again when one of these changes.
+ * Images are not stored, they are loaded from the path of the source.
+ */
+public class PreparedCache {
+
+    /**
+     * Increase when the format or the preparation changes so that existing files are not used
+     */
+    public static final int FORMAT_VERSION = 1;
+    public static final String SUFFIX = ".glb";
+
+    private static final int CHUNK_HEADER_SIZE = 8;
+    private static final int ALIGNMENT = 4;
+    private static final String BUFFERS = "buffers";
+    private static final String URI = "uri";
+    private static final String INDEX_SUFFIX = ".key";
+    private static final int KEY_LENGTH = 64;
+    private static final int HASH_BUFFER_SIZE = 1 << 20;
+
+    private final String folder;
+
+    /**
+     * Creates a cache that stores prepared models in folder, the folder is created when the first model is stored
+     *
+     * @param folder Absolute path to the cache folder
+     */
+    public PreparedCache(String folder) {
+        if (folder == null || folder.length() == 0) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Folder is " + folder);
+        }
+        this.folder = FileUtils.getInstance().fixPath(folder);
+    }
+
+    /**
+     * Returns the cache folder
+     *
+     * @return
+     */
+    public String getFolder() {
+        return folder;
+    }
+
+    /**
+     * Returns the key of a deserialized glTF that has not been resolved, this is the name of the cached file
+     * without suffix.
+     * The key of a source that is stored as files is looked up in an index using the canonical path, size and
+     * modification time of the source and external buffers, the contents is only hashed when the index does not
+     * contain the key or when a file has changed.
+     *
+     * @param glTF The source glTF, path must be set
+     * @param sourceFilename Filename of the source
+     * @param glTFType Class of the glTF
+     * @param modelPrep
+     * @param settings
+     * @return
+     * @throws IOException If the source or external buffers cannot be read
+     */
+    String getKey(JSONGltf glTF, String sourceFilename, Class<?> glTFType, ModelPreparation modelPrep,
+            GltfSettings settings) throws IOException {
+        String properties = getProperties(glTFType, modelPrep, settings);
+        ArrayList<String[]> sources = getSources(glTF, sourceFilename);
+        ArrayList<File> files = getFiles(sources);
+        Path index = null;
+        if (files != null) {
+            StringBuilder sb = new StringBuilder(properties);
+            for (File file : files) {
+                sb.append(file.getCanonicalPath()).append('|').append(file.length()).append('|');
+                sb.append(file.lastModified()).append('|');
+            }
+            MessageDigest digest = createDigest();
+            digest.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+            index = Paths.get(folder + toHex(digest.digest()) + INDEX_SUFFIX);
+            String key = readIndex(index);
+            if (key != null) {
+                return key;
+            }
+        }
+        MessageDigest digest = createDigest();
+        digest.update(properties.getBytes(StandardCharsets.UTF_8));
+        byte[] data = new byte[HASH_BUFFER_SIZE];
+        for (int i = 0; i < sources.size(); i++) {
+            if (files != null) {
+                update(digest, files.get(i), data);
+            } else {
+                update(digest, sources.get(i)[0], sources.get(i)[1], data);
+            }
+        }
+        String key = toHex(digest.digest());
+        if (index != null) {
+            writeIndex(index, key);
+        }
+        return key;
+    }
+
+    private String getProperties(Class<?> glTFType, ModelPreparation modelPrep, GltfSettings settings) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(FORMAT_VERSION).append('|').append(glTFType.getName()).append('|');
+        sb.append(modelPrep.getClass().getName()).append('|');
+        if (settings != null) {
+            sb.append(getName(settings.getDefaultVertexBuffers())).append('|');
+            sb.append(getName(settings.getIndexedToShort())).append('|');
+            sb.append(getName(settings.getCreateNormals())).append('|');
+            sb.append(getName(settings.getCreateTangents())).append('|');
+        }
+        // Properties are applied to the glTF before preparation
+        for (Ladda.LaddaProperties property : Ladda.LaddaProperties.values()) {
+            sb.append(Settings.getInstance().getProperty(property)).append('|');
+        }
+        // Properties read during preparation - recalculated normals and tangents, removed texture channels
+        for (GltfProperties property : GltfProperties.values()) {
+            sb.append(Settings.getInstance().getBoolean(property)).append('|');
+        }
+        sb.append(Settings.getInstance().getFloat(Ladda.LaddaFloatProperties.MATERIAL_ABSORPTION)).append('|');
+        return sb.toString();
+    }
+
+    /**
+     * Returns path and filename of the source and the external buffers
+     *
+     * @param glTF
+     * @param sourceFilename
+     * @return
+     */
+    private ArrayList<String[]> getSources(JSONGltf glTF, String sourceFilename) {
+        ArrayList<String[]> sources = new ArrayList<String[]>();
+        sources.add(new String[] { glTF.getPath(), sourceFilename });
+        ArrayList buffers = glTF.getBuffers();
+        if (buffers != null && FileType.get(sourceFilename) == FileType.GLTF) {
+            for (Object b : buffers) {
+                String uri = ((JSONBuffer) b).getUri();
+                if (uri != null && !FileUtils.getInstance().isDataURI(uri)) {
+                    String name = glTF.getPath() + uri;
+                    String bufferFolder = FileUtils.getInstance().getFolder(name) + FileUtils.DIRECTORY_SEPARATOR;
+                    sources.add(new String[] { bufferFolder, name.substring(bufferFolder.length()) });
+                }
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Returns the files of the sources, or null if a source is not a regular file - for instance a resource in a jar.
+     *
+     * @param sources
+     * @return
+     */
+    private ArrayList<File> getFiles(ArrayList<String[]> sources) {
+        ArrayList<File> files = new ArrayList<File>();
+        for (String[] source : sources) {
+            try {
+                File file = FileUtils.getInstance().getFile(source[0], source[1]);
+                if (!file.isFile()) {
+                    return null;
+                }
+                files.add(file);
+            } catch (URISyntaxException | IOException | IllegalArgumentException
+                    | FileSystemNotFoundException e) {
+                return null;
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Returns the key stored in the index file, or null if the index file does not exist or is not valid
+     *
+     * @param index
+     * @return
+     */
+    private String readIndex(Path index) {
+        try {
+            String key = new String(Files.readAllBytes(index), StandardCharsets.UTF_8);
+            if (key.length() == KEY_LENGTH && Files.isRegularFile(Paths.get(folder + key + SUFFIX))) {
+                return key;
+            }
+        } catch (IOException e) {
+            // Not in index
+        }
+        return null;
+    }
+
+    /**
+     * Stores the key in the index file, the index is only an optimization and errors are logged.
+     *
+     * @param index
+     * @param key
+     */
+    private void writeIndex(Path index, String key) {
+        Path temp = null;
+        try {
+            Path folderPath = Paths.get(folder);
+            Files.createDirectories(folderPath);
+            temp = Files.createTempFile(folderPath, key, ".tmp");
+            Files.write(temp, key.getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Logger.d(getClass(), "Could not store index " + index + ": " + e.toString());
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    // Ignore
+                }
+            }
+        }
+    }
+
+    private MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_STATE.message + e.getMessage(), e);
+        }
+    }
+
+    private String toHex(byte[] hash) {
+        StringBuilder sb = new StringBuilder();
+        for (byte value : hash) {
+            sb.append(Character.forDigit((value >> 4) & 0x0f, 16)).append(Character.forDigit(value & 0x0f, 16));
+        }
+        return sb.toString();
+    }
+
+    private String getName(Object handler) {
+        return handler != null ? handler.getClass().getName() : "null";
+    }
+
+    /**
+     * Hashes the file using a channel, the file is not mapped since mappings are not released until the buffer is
+     * garbage collected.
+     */
+    private void update(MessageDigest digest, File file, byte[] data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (channel.read(buffer.clear()) > 0) {
+                digest.update(data, 0, buffer.position());
+            }
+        }
+    }
+
+    private void update(MessageDigest digest, String path, String filename, byte[] data) throws IOException {
+        try (InputStream is = FileUtils.getInstance().getInputStream(path, filename)) {
+            int read;
+            while ((read = is.read(data)) > 0) {
+                digest.update(data, 0, read);
+            }
+        }
+    }
+
+    /**
+     * Returns true if a prepared model is stored for the key
+     *
+     * @param key
+     * @return
+     */
+    boolean contains(String key) {
+        return Files.isRegularFile(Paths.get(folder + key + SUFFIX));
+    }
+
+    /**
+     * Opens the prepared model stored for the key, use {@link GlbReader#bind(JSONBuffer, int)} to bind buffers.
+     *
+     * @param key
+     * @return
+     * @throws IOException
+     */
+    GlbReader read(String key) throws IOException {
+        GlbReader reader = new GlbReader();
+        try {
+            reader.read(folder, key + SUFFIX);
+        } catch (ClassNotFoundException | URISyntaxException e) {
+            throw new IOException(e);
+        }
+        return reader;
+    }
+
+    /**
+     * Stores a prepared model, buffers are stored as BIN chunks and the buffer uris are removed.
+     * The file is written to a temporary file that is then moved, a file that is being read is not changed.
+     *
+     * @param glTF
+     * @param gson
+     * @param key
+     * @throws IOException
+     */
+    void write(JSONGltf glTF, Gson gson, String key) throws IOException {
+        JsonObject json = gson.toJsonTree(glTF).getAsJsonObject();
+        JsonElement bufferArray = json.get(BUFFERS);
+        if (bufferArray instanceof JsonArray) {
+            for (JsonElement buffer : (JsonArray) bufferArray) {
+                buffer.getAsJsonObject().remove(URI);
+            }
+        }
+        byte[] jsonBytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        ArrayList buffers = glTF.getBuffers();
+        int bufferCount = buffers != null ? buffers.size() : 0;
+        long length = GlbHeader.GLB_HEADER_SIZE + CHUNK_HEADER_SIZE + align(jsonBytes.length);
+        for (int i = 0; i < bufferCount; i++) {
+            length += CHUNK_HEADER_SIZE + align(((JSONBuffer) buffers.get(i)).getByteLength());
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Size " + length);
+        }
+        Path folderPath = Paths.get(folder);
+        Files.createDirectories(folderPath);
+        Path temp = Files.createTempFile(folderPath, key, ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(GlbHeader.GLB_HEADER_SIZE + CHUNK_HEADER_SIZE)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(GlbHeader.GLTF_MAGIC).putInt(2).putInt((int) length);
+                header.putInt(align(jsonBytes.length)).putInt(GlbReader.CHUNKTYPE_JSON);
+                writeFully(channel, header.flip());
+                writeFully(channel, ByteBuffer.wrap(jsonBytes));
+                writePadding(channel, jsonBytes.length, (byte) ' ');
+                for (int i = 0; i < bufferCount; i++) {
+                    JSONBuffer buffer = (JSONBuffer) buffers.get(i);
+                    ByteBuffer chunkHeader = ByteBuffer.allocate(CHUNK_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                    chunkHeader.putInt(align(buffer.getByteLength())).putInt(GlbReader.CHUNKTYPE_BIN);
+                    writeFully(channel, chunkHeader.flip());
+                    if (buffer.getByteLength() > 0) {
+                        writeFully(channel, buffer.getAsReadBuffer().limit(buffer.getByteLength()));
+                        writePadding(channel, buffer.getByteLength(), (byte) 0);
+                    }
+                }
+            }
+            try {
+                Files.move(temp, Paths.get(folder + key + SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, Paths.get(folder + key + SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        Logger.d(getClass(), "Stored prepared model " + glTF.getFilename() + " as " + key + SUFFIX + ", size "
+                + length);
+    }
+
+    private static int align(int size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    private static void writePadding(FileChannel channel, int size, byte value) throws IOException {
+        int padding = align(size) - size;
+        if (padding > 0) {
+            ByteBuffer pad = ByteBuffer.allocate(padding);
+            for (int i = 0; i < padding; i++) {
+                pad.put(value);
+            }
+            writeFully(channel, pad.flip());
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+}
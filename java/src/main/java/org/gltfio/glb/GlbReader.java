@@ -1,10 +1,12 @@
 package org.gltfio.glb;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 
 import org.gltfio.gltf2.JSONBuffer;
@@ -83,6 +85,46 @@ public class GlbReader {
         return new ByteBufferInputStream(jsonChunk.getBytes(mappedByteBuffer));
     }
 
+    /**
+     * Returns the JSON chunk as a readonly buffer, positioned at the start of the JSON
+     * 
+     * @return
+     */
+    public ByteBuffer getJson() {
+        GlbChunk jsonChunk = chunks.get(0);
+        return jsonChunk.getBytes(mappedByteBuffer.duplicate()).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Reads the header and the JSON chunk from the channel, the binary chunks are not read.
+     * The channel must be positioned at the start of the glb header and is not closed.
+     * 
+     * @param readChannel
+     * @return Buffer with the JSON, positioned at the start of the JSON
+     * @throws IOException
+     */
+    public static ByteBuffer readJson(ReadableByteChannel readChannel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(GlbHeader.GLB_HEADER_SIZE + 8).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(readChannel, buffer);
+        buffer.position(0);
+        new GlbHeader(buffer);
+        int chunkLength = buffer.getInt();
+        if (buffer.getInt() != CHUNKTYPE_JSON || chunkLength < 0) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "First chunk is not JSON");
+        }
+        ByteBuffer json = ByteBuffer.allocate(chunkLength);
+        readFully(readChannel, json);
+        return json.position(0);
+    }
+
+    private static void readFully(ReadableByteChannel readChannel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (readChannel.read(buffer) < 0) {
+                throw new EOFException(ErrorMessage.INVALID_VALUE.message + "Unexpected end of data");
+            }
+        }
+    }
+
     /**
      * Gets the chunk specified by chunkIndex and stores in destination buffer
      * 
@@ -99,6 +141,27 @@ public class GlbReader {
         }
     }
 
+    /**
+     * Binds the chunk specified by chunkIndex as readonly storage of the destination buffer, without copying.
+     * The storage is a slice of the mapped file, the mapping is kept for as long as the destination buffer
+     * references it - calling {@link #destroy()} does not release it.
+     * 
+     * @param destination
+     * @param chunkIndex
+     * @return False if the file is not mapped, for instance when read from a jar, or the chunk is smaller than the
+     * destination - use {@link JSONBuffer#createBuffer()} and {@link #get(JSONBuffer, int)} instead.
+     */
+    public boolean bind(JSONBuffer destination, int chunkIndex) {
+        GlbChunk chunk = chunks.get(chunkIndex);
+        if (!mappedByteBuffer.isDirect() || chunk.chunkLength < destination.getByteLength()) {
+            return false;
+        }
+        Logger.d(getClass(), "Bind chunk index " + chunkIndex + ", size " + chunk.chunkLength);
+        ByteBuffer chunkSource = chunk.getBytes(mappedByteBuffer.duplicate());
+        destination.bind(chunkSource.limit(chunkSource.position() + destination.getByteLength()));
+        return true;
+    }
+
     /**
      * Releases resources used
      */
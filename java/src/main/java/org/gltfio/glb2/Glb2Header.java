@@ -13,16 +13,19 @@ import org.gltfio.lib.Logger;
  * uint32 magic = 0x474C4232 (GLB2)
  * uint32 version
  * uint64 length is the total length, in bytes, of the binary gltf - including header and all chunks.
+ * uint64 tocOffset is the offset, in bytes from start of header, of the table of contents chunk or 0 if the file
+ * does not have a table of contents. See {@link Glb2Toc}
  * 
  */
 public class Glb2Header {
 
-    public static final int GLB_HEADER_SIZE = 16;
+    public static final int GLB_HEADER_SIZE = 24;
     public static final int GLB2_MAGIC = 0x46546C67;
 
     public final int magic;
     public final int version;
     public final long length;
+    public final long tocOffset;
 
     /**
      * Creates a header from loaded data
@@ -33,13 +36,23 @@ public class Glb2Header {
         magic = byteBuffer.getInt();
         version = byteBuffer.getInt();
         length = byteBuffer.getLong();
+        tocOffset = byteBuffer.getLong();
         if (magic != GLB2_MAGIC) {
             throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Invalid magic: " + magic);
         }
-        Logger.d(getClass(), "Found glb2 header with version " + version + ", length " + length);
+        Logger.d(getClass(), "Found glb2 header with version " + version + ", length " + length
+                + ", toc offset " + tocOffset);
     }
 
-    public static ByteBuffer createHeader(int version, long bytes) {
+    /**
+     * Creates the header
+     * 
+     * @param version
+     * @param bytes Total length including header
+     * @param tocOffset Offset to table of contents chunk, or 0 if no table of contents
+     * @return
+     */
+    public static ByteBuffer createHeader(int version, long bytes, long tocOffset) {
         ByteBuffer bb = ByteBuffer.allocateDirect(GLB_HEADER_SIZE);
         bb.order(ByteOrder.LITTLE_ENDIAN);
         IntBuffer ints = bb.asIntBuffer();
@@ -47,6 +60,7 @@ public class Glb2Header {
         ints.put(version);
         LongBuffer longs = bb.position(8).asLongBuffer();
         longs.put(bytes);
+        longs.put(tocOffset);
         bb.position(0);
         return bb;
     }
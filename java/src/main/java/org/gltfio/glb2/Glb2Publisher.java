@@ -0,0 +1,210 @@
+package org.gltfio.glb2;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.gltfio.gltf2.stream.SubStream;
+import org.gltfio.gltf2.stream.SubStreamReader;
+import org.gltfio.lib.ErrorMessage;
+import org.gltfio.lib.ThreadService;
+
+/**
+ * Publishes the decoded chunks of a glb2 file, in file order, to one subscriber.
+ * Chunks are only delivered when the subscriber has requested them, chunks are decoded ahead of demand until
+ * the decoded size of chunks not yet delivered reaches the byte budget - at least one chunk is always decoded.
+ * This means that memory used for decoding is bounded by the budget regardless of file size or how slowly the
+ * subscriber consumes chunks.
+ * Chunks are decoded and delivered using the executor, decoding of several chunks may be done in parallel.
+ * Delivered chunks are not used by the publisher and may be kept by the subscriber.
+ * Create using {@link Glb2Reader#createPublisher(long)}
+ */
+public class Glb2Publisher implements Flow.Publisher<SubStream<?>> {
+
+    /**
+     * Default max number of bytes decoded ahead of demand
+     */
+    public static final long DEFAULT_BYTE_BUDGET = 16 * 1024 * 1024;
+
+    private final Glb2Reader reader;
+    private final long byteBudget;
+    private Executor executor = command -> ThreadService.getInstance().execute(command);
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    private class Glb2Subscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super SubStream<?>> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final ArrayDeque<FutureTask<SubStream<?>>> decoded = new ArrayDeque<FutureTask<SubStream<?>>>();
+        private final ArrayDeque<Integer> decodedSizes = new ArrayDeque<Integer>();
+        private long decodedBytes = 0;
+        private boolean endOfChunks = false;
+        private volatile boolean done = false;
+        private volatile Throwable requestError;
+
+        private Glb2Subscription(Flow.Subscriber<? super SubStream<?>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // Error is signalled from drain so that subscriber is not called concurrently
+                requestError = new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Request " + n);
+                schedule();
+                return;
+            }
+            demand.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Delivers decoded chunks while there is demand, then decodes ahead within the byte budget.
+         * Only one thread at a time runs this method.
+         */
+        private void drain() {
+            int missed = 1;
+            do {
+                try {
+                    if (requestError != null) {
+                        error(requestError);
+                    }
+                    while (!done && demand.get() > 0) {
+                        readAhead();
+                        if (decoded.isEmpty()) {
+                            done = true;
+                            subscriber.onComplete();
+                            break;
+                        }
+                        SubStream<?> chunk = takeNext();
+                        demand.decrementAndGet();
+                        subscriber.onNext(chunk);
+                    }
+                    if (!done) {
+                        readAhead();
+                        if (endOfChunks && decoded.isEmpty()) {
+                            done = true;
+                            subscriber.onComplete();
+                        }
+                    }
+                } catch (Throwable t) {
+                    error(t);
+                }
+                if (done) {
+                    release();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void readAhead() throws IOException {
+            while (!endOfChunks && (decoded.isEmpty() || decodedBytes < byteBudget)) {
+                SubStreamReader chunk = reader.readNextChunk(false);
+                if (chunk == null) {
+                    endOfChunks = true;
+                } else {
+                    FutureTask<SubStream<?>> task = new FutureTask<SubStream<?>>(chunk::decode);
+                    int size = chunk.getDecodedSize();
+                    decoded.add(task);
+                    decodedSizes.add(size);
+                    decodedBytes += size;
+                    executor.execute(task);
+                }
+            }
+        }
+
+        private SubStream<?> takeNext() throws InterruptedException, ExecutionException {
+            FutureTask<SubStream<?>> task = decoded.poll();
+            decodedBytes -= decodedSizes.poll();
+            // If not yet started the task is run on this thread, otherwise this is a no-op
+            task.run();
+            return task.get();
+        }
+
+        private void error(Throwable t) {
+            if (!done) {
+                done = true;
+                subscriber.onError(t instanceof ExecutionException ? t.getCause() : t);
+            }
+        }
+
+        private void release() {
+            for (FutureTask<SubStream<?>> task : decoded) {
+                task.cancel(false);
+            }
+            decoded.clear();
+            decodedSizes.clear();
+            decodedBytes = 0;
+            if (!endOfChunks) {
+                endOfChunks = true;
+                reader.closeChannel();
+            }
+        }
+
+    }
+
+    Glb2Publisher(Glb2Reader reader, long byteBudget) {
+        if (byteBudget <= 0) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Byte budget " + byteBudget);
+        }
+        this.reader = reader;
+        this.byteBudget = byteBudget;
+    }
+
+    /**
+     * Sets the executor used to decode and deliver chunks, default is to use the threads in ThreadService.
+     * Must be called before subscribing.
+     *
+     * @param executor
+     */
+    public void setExecutor(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Null executor");
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the max number of bytes that are decoded ahead of demand
+     *
+     * @return
+     */
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super SubStream<?>> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Null subscriber");
+        }
+        Glb2Subscription subscription = new Glb2Subscription(subscriber);
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(subscription);
+            subscription.error(new IllegalStateException(ErrorMessage.INVALID_STATE.message
+                    + "Publisher only supports one subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(subscription);
+    }
+
+}
@@ -1,5 +1,6 @@
 package org.gltfio.glb2;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -7,15 +8,35 @@ import java.lang.reflect.Type;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.gltfio.gltf2.JSONPrimitive.Attributes;
 import org.gltfio.gltf2.StreamingGltf;
 import org.gltfio.gltf2.StreamingScene;
+import org.gltfio.gltf2.stream.Decompressor;
+import org.gltfio.gltf2.stream.MeshStream;
+import org.gltfio.gltf2.stream.NodeStream;
+import org.gltfio.gltf2.stream.PrimitiveStream;
+import org.gltfio.gltf2.stream.SceneStream;
 import org.gltfio.gltf2.stream.SubStream;
 import org.gltfio.gltf2.stream.SubStreamReader;
 import org.gltfio.gltf2.stream.SubStreamReader.ChunkStreamer;
+import org.gltfio.lib.Constants;
 import org.gltfio.lib.ErrorMessage;
 import org.gltfio.lib.FileUtils;
+import org.gltfio.lib.LoadHandle;
+import org.gltfio.lib.LoadHandle.Priority;
+import org.gltfio.lib.Logger;
+import org.gltfio.lib.Settings;
+import org.gltfio.lib.Settings.BooleanProperty;
 import org.gltfio.lib.ThreadService;
 
 /**
@@ -23,22 +44,82 @@ import org.gltfio.lib.ThreadService;
  * Glb2 files does not contain any JSON, instead the scenegraph is stored as binary data.
  * 
  * A glb2 file consists of a header and at least one binary chunk.
+ * If the file has a table of contents, see {@link Glb2Toc}, chunks can be read by index or by node using
+ * {@link #readChunk(int)} and {@link #readNode(int)}.
+ * Files are either mapped into memory, see {@link #mapToBuffer(String, String)}, or read incrementally from a
+ * channel, see {@link #openChannel(ReadableByteChannel)}. The same callbacks are made in both cases.
+ * Chunks are processed on a separate thread using {@link #processChunksAsync(Glb2Streamer)}, on the calling thread
+ * using {@link #processChunks(Glb2Streamer)} or a time budget at a time using {@link #process(long)}.
+ * Asynchronous processing returns a {@link LoadHandle} that is checked between chunks, the load can be cancelled
+ * and loads with lower priority wait while a load with higher priority is running.
  * 
  */
 public class Glb2Reader implements ChunkStreamer, Runnable {
 
+    public enum Glb2ReaderProperties implements BooleanProperty {
+        /**
+         * Decompress and decode chunks using the threads in ThreadService, chunks are still dispatched in file order.
+         */
+        PARALLEL_DECODE("glb2.parallel.decode", false),
+        /**
+         * Convert quantized attribute chunks to float when the chunk is decoded, for renderers that need float
+         * attributes. If false quantized attributes are kept as 16 bit data by the scene.
+         */
+        DEQUANTIZE("glb2.dequantize", true);
+
+        private final String key;
+        private final boolean defaultValue;
+
+        Glb2ReaderProperties(String key, boolean defaultValue) {
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        public String getName() {
+            return this.name();
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getDefault() {
+            return Boolean.toString(defaultValue);
+        }
+
+    }
+
     public interface Glb2Streamer<T extends StreamingScene> {
         void glb2Update(StreamingGltf<T> glTF, org.gltfio.gltf2.stream.SubStream.Type type);
 
         void glb2Loaded(StreamingGltf<T> glTF);
     }
 
+    /**
+     * Initial size of the buffer used to read chunks from a channel
+     */
+    public static final int DEFAULT_READ_BUFFER_SIZE = 1 << 20;
+
     private Glb2Header header;
+    private Glb2Toc toc;
     private ByteBuffer mappedByteBuffer;
+    private ReadableByteChannel channel;
+    private ByteBuffer readBuffer;
+    /**
+     * Reader that is reused when chunks are processed serially
+     */
+    private SubStreamReader chunkReader;
+    private boolean processed = false;
+    private long channelPosition;
+    private int readBufferSize = DEFAULT_READ_BUFFER_SIZE;
 
     private transient int lockCount = 0;
-    private transient Glb2Streamer listener;
+    private transient Glb2Streamer<StreamingScene> listener;
     private transient StreamingGltf<StreamingScene> glTF = null;
+    private transient LoadHandle<StreamingGltf<StreamingScene>> handle;
 
     /**
      * Total uncompressed size
@@ -46,11 +127,69 @@ public class Glb2Reader implements ChunkStreamer, Runnable {
     private long totalSize = 0;
 
     private final Type glTFType;
+    private boolean parallelDecode = Settings.getInstance().getBoolean(Glb2ReaderProperties.PARALLEL_DECODE);
+    private boolean dequantize = Settings.getInstance().getBoolean(Glb2ReaderProperties.DEQUANTIZE);
 
     public Glb2Reader(Type glTFType) {
         this.glTFType = glTFType;
     }
 
+    /**
+     * Enables or disables parallel decoding of chunks, default value is taken from
+     * {@link Glb2ReaderProperties#PARALLEL_DECODE}
+     * When enabled chunk headers are read on the calling thread, decompression and creation of the SubStream is
+     * done by the threads in ThreadService. Chunks are always dispatched to the listener in file order.
+     * 
+     * @param parallel
+     */
+    public void setParallelDecode(boolean parallel) {
+        this.parallelDecode = parallel;
+    }
+
+    /**
+     * Enables or disables dequantization of attribute chunks when decoded, default value is taken from
+     * {@link Glb2ReaderProperties#DEQUANTIZE}
+     * When enabled quantized attributes are converted to float as part of decoding, which is done by the
+     * threads in ThreadService when parallel decode is used. When disabled the scene stores the quantized data
+     * and dequantization parameters, see {@link StreamingScene#getQuantization(PrimitiveStream, Attributes)}
+     * 
+     * @param dequantize
+     */
+    public void setDequantize(boolean dequantize) {
+        this.dequantize = dequantize;
+    }
+
+    /**
+     * Returns a reader for the chunk at the current position of the buffer
+     * 
+     * @param buffer
+     * @param reuse True to reuse one reader, and decompression buffer, for all chunks. Only use if the decoded
+     * chunk is not used after the next chunk is read.
+     * @return
+     */
+    private SubStreamReader nextChunk(ByteBuffer buffer, boolean reuse) {
+        SubStreamReader chunk;
+        if (reuse && chunkReader != null) {
+            chunk = chunkReader;
+            chunk.reset(buffer);
+        } else {
+            chunk = SubStream.getSubStream(buffer, this);
+            if (reuse) {
+                chunk.setReusable(new Decompressor());
+                chunkReader = chunk;
+            }
+        }
+        chunk.setDequantize(dequantize);
+        return chunk;
+    }
+
+    private void releaseChunkReader() {
+        if (chunkReader != null) {
+            chunkReader.getDecompressor().end();
+            chunkReader = null;
+        }
+    }
+
     /**
      * Opens the file specified by path and fileName, file must be valid glb2 otherwise exception is thrown,
      * the file must exist on the filesystem so that FileChannel can be used to map the file into memory.
@@ -64,10 +203,7 @@ public class Glb2Reader implements ChunkStreamer, Runnable {
      */
     public void mapToBuffer(String path, String fileName) throws IOException, ClassNotFoundException,
             URISyntaxException {
-        if (mappedByteBuffer != null) {
-            throw new IllegalArgumentException(
-                    ErrorMessage.INVALID_STATE.message + "Already read from " + path.toString());
-        }
+        checkNotOpen(path + fileName);
         mappedByteBuffer = FileUtils.getInstance().mapFile(path, fileName);
         if (mappedByteBuffer == null) {
             throw new IllegalArgumentException("Inside jar");
@@ -75,23 +211,280 @@ public class Glb2Reader implements ChunkStreamer, Runnable {
         validate();
     }
 
+    /**
+     * Opens the file specified by path and fileName, if possible the file is mapped into memory - otherwise, for
+     * instance if the file is inside a jar, the file is read using an inputstream.
+     * 
+     * @param path
+     * @param fileName
+     * @throws IOException
+     * @throws ClassNotFoundException
+     * @throws URISyntaxException
+     */
+    public void open(String path, String fileName) throws IOException, ClassNotFoundException,
+            URISyntaxException {
+        checkNotOpen(path + fileName);
+        mappedByteBuffer = FileUtils.getInstance().mapFile(path, fileName);
+        if (mappedByteBuffer != null) {
+            validate();
+        } else {
+            openChannel(Channels.newChannel(FileUtils.getInstance().getInputStream(path, fileName)));
+        }
+    }
+
+    /**
+     * Opens a channel to read glb2 from, the header is read when this method is called and chunks are read
+     * incrementally when processed. Each chunk is dispatched as soon as it has been read.
+     * Chunks are read into one buffer that is reused, the buffer grows if a chunk is larger than the buffer.
+     * Chunks are decoded and dispatched on the processing thread, parallel decode is not used.
+     * The table of contents is not read.
+     * The channel is closed when all chunks have been processed.
+     * 
+     * @param readChannel
+     * @throws IOException
+     */
+    public void openChannel(ReadableByteChannel readChannel) throws IOException {
+        checkNotOpen(readChannel.toString());
+        ByteBuffer headerBuffer = ByteBuffer.allocate(Glb2Header.GLB_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (!readFully(readChannel, headerBuffer)) {
+            throw new EOFException(ErrorMessage.INVALID_VALUE.message + "No glb2 header");
+        }
+        header = readHeader(headerBuffer.position(0));
+        channel = readChannel;
+        channelPosition = Glb2Header.GLB_HEADER_SIZE;
+    }
+
+    /**
+     * Reads the header and the scene chunk from the channel, no other chunks are read. The scene chunk is always
+     * first in the file and holds the counts and bounds of the scene.
+     * The channel must be positioned at the start of the glb2 header and is not closed.
+     * 
+     * @param readChannel
+     * @return
+     * @throws IOException
+     */
+    public static SceneStream readScene(ReadableByteChannel readChannel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Glb2Header.GLB_HEADER_SIZE + SubStream.CHUNK_HEADER_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        if (!readFully(readChannel, buffer)) {
+            throw new EOFException(ErrorMessage.INVALID_VALUE.message + "No glb2 header");
+        }
+        readHeader(buffer.position(0));
+        SubStream.Type type = SubStream.Type.get(buffer.get());
+        int size = buffer.getInt();
+        if (type != SubStream.Type.SCENE || size < SubStream.CHUNK_HEADER_SIZE || size > SceneStream.MAX_SIZE) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "First chunk is not scene, "
+                    + type + ", size " + size);
+        }
+        ByteBuffer payload = ByteBuffer.allocate(size - SubStream.CHUNK_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (!readFully(readChannel, payload)) {
+            throw new EOFException(ErrorMessage.INVALID_VALUE.message + "No scene chunk");
+        }
+        return new SceneStream(payload.position(0));
+    }
+
+    /**
+     * Sets the initial size of the buffer used to read chunks from a channel, default is
+     * {@link #DEFAULT_READ_BUFFER_SIZE}
+     * 
+     * @param size
+     */
+    public void setReadBufferSize(int size) {
+        if (size < SubStream.CHUNK_HEADER_SIZE) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Read buffer size " + size);
+        }
+        this.readBufferSize = size;
+    }
+
+    private void checkNotOpen(String source) {
+        if (mappedByteBuffer != null || channel != null) {
+            throw new IllegalArgumentException(
+                    ErrorMessage.INVALID_STATE.message + "Already read from " + source);
+        }
+    }
+
+    private static Glb2Header readHeader(ByteBuffer buffer) {
+        Glb2Header glb2Header = new Glb2Header(buffer);
+        if (glb2Header.version != Glb2Writer.CURRENT_GLB2_VERSION) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Invalid glb2 version number: "
+                    + glb2Header.version + " - must be " + Glb2Writer.CURRENT_GLB2_VERSION);
+        }
+        return glb2Header;
+    }
+
     private void validate() {
         mappedByteBuffer.order(ByteOrder.LITTLE_ENDIAN);
-        header = new Glb2Header(mappedByteBuffer);
-        if (header.version != Glb2Writer.CURRENT_GLB2_VERSION) {
-            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Invalid glb2 version number: "
-                    + header.version + " - must be " + Glb2Writer.CURRENT_GLB2_VERSION);
+        header = readHeader(mappedByteBuffer);
+        if (header.tocOffset > 0) {
+            toc = new Glb2Toc(mappedByteBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN)
+                    .position((int) header.tocOffset));
+            // Table of contents is last in file, do not include when chunks are processed
+            mappedByteBuffer.limit((int) header.tocOffset);
         }
     }
 
     /**
-     * Starts a thread that processes chunks, this method will return immediately
+     * Returns the table of contents, or null if the file does not have a table of contents or is not mapped.
+     * 
+     * @return
+     */
+    public Glb2Toc getToc() {
+        return toc;
+    }
+
+    /**
+     * Reads and decodes the chunk at the table of contents index, the chunk is not dispatched to any listener.
+     * This method does not change the state of chunk processing.
+     * 
+     * @param index Index of entry in the table of contents
+     * @return The decoded chunk
+     */
+    public SubStream<?> readChunk(int index) {
+        if (toc == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_STATE.message + "No table of contents");
+        }
+        ByteBuffer buffer = mappedByteBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position((int) toc.getEntry(index).getOffset());
+        SubStreamReader chunk = SubStream.getSubStream(buffer, this);
+        chunk.setDequantize(dequantize);
+        return chunk.decode();
+    }
+
+    /**
+     * Reads and decodes the chunks needed by a node in the scene, this is the node chunk and the chunks of child
+     * nodes together with meshes, materials, indices and attributes that they reference.
+     * Chunks are returned in file order and are not dispatched to any listener.
+     * 
+     * @param node Index of the node in the scene
+     * @return
+     */
+    public List<SubStream<?>> readNode(int node) {
+        if (toc == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_STATE.message + "No table of contents");
+        }
+        TreeMap<Integer, SubStream<?>> chunks = new TreeMap<Integer, SubStream<?>>();
+        for (int index : toc.getNodeEntries(node)) {
+            if (toc.getEntry(index).getChunkType() == SubStream.Type.NODE) {
+                NodeStream nodeStream = (NodeStream) readChunk(index);
+                chunks.put(index, nodeStream);
+                int meshIndex = nodeStream.getMeshIndex() >= 0
+                        ? toc.find(SubStream.Type.MESH, 0, nodeStream.getMeshIndex())
+                        : Constants.NO_VALUE;
+                if (meshIndex != Constants.NO_VALUE && !chunks.containsKey(meshIndex)) {
+                    MeshStream mesh = (MeshStream) read(meshIndex, chunks);
+                    for (PrimitiveStream primitive : mesh.getPrimitives()) {
+                        readPrimitive(primitive, chunks);
+                    }
+                }
+            }
+        }
+        return new ArrayList<SubStream<?>>(chunks.values());
+    }
+
+    private void readPrimitive(PrimitiveStream primitive, TreeMap<Integer, SubStream<?>> chunks) {
+        if (primitive.getMaterialIndex() >= 0) {
+            read(toc.find(SubStream.Type.MATERIAL, 0, primitive.getMaterialIndex()), chunks);
+        }
+        if (primitive.getIndicesIndex() >= 0) {
+            read(toc.find(primitive.getIndexType().streamType, 0, primitive.getIndicesIndex()), chunks);
+        }
+        for (Attributes attribute : primitive.getAttributes()) {
+            int streamIndex = primitive.getAttributeIndex(attribute);
+            if (streamIndex >= 0) {
+                read(toc.find(SubStream.Type.ATTRIBUTE, attribute.value, streamIndex), chunks);
+            }
+        }
+    }
+
+    private SubStream<?> read(int index, TreeMap<Integer, SubStream<?>> chunks) {
+        if (index == Constants.NO_VALUE) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_STATE.message + "Chunk not in toc");
+        }
+        SubStream<?> chunk = chunks.get(index);
+        if (chunk == null) {
+            chunk = readChunk(index);
+            chunks.put(index, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Creates a publisher of the decoded chunks, use this instead of processing chunks when the consumer of
+     * chunks shall control the pace. Chunks are not added to a glTF and Glb2Streamer callbacks are not made.
+     * 
+     * @param byteBudget Max number of bytes decoded ahead of demand
+     * @return
+     */
+    public Glb2Publisher createPublisher(long byteBudget) {
+        if (mappedByteBuffer == null && channel == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_STATE.message + "Not opened");
+        }
+        return new Glb2Publisher(this, byteBudget);
+    }
+
+    /**
+     * Creates a publisher of the decoded chunks using {@link Glb2Publisher#DEFAULT_BYTE_BUDGET}
+     * 
+     * @return
+     */
+    public Glb2Publisher createPublisher() {
+        return createPublisher(Glb2Publisher.DEFAULT_BYTE_BUDGET);
+    }
+
+    /**
+     * Starts a thread that processes chunks, with normal priority, this method will return immediately
      * 
      * @param callback
+     * @return Handle to cancel the load or read progress
      */
-    public void processChunksAsync(@NonNull Glb2Streamer callback) {
+    public LoadHandle<StreamingGltf<StreamingScene>> processChunksAsync(@NonNull Glb2Streamer<StreamingScene> callback) {
+        return processChunksAsync(callback, Priority.NORMAL);
+    }
+
+    /**
+     * Starts a thread that processes chunks, this method will return immediately.
+     * If the load is cancelled, or fails, the reader is released - see {@link #release()}
+     * 
+     * @param callback
+     * @param priority
+     * @return Handle to cancel the load, change priority or read progress
+     */
+    public LoadHandle<StreamingGltf<StreamingScene>> processChunksAsync(@NonNull Glb2Streamer<StreamingScene> callback,
+            Priority priority) {
+        if (handle != null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_STATE.message + "Already processing");
+        }
         this.listener = callback;
+        handle = new LoadHandle<StreamingGltf<StreamingScene>>(header != null ? "glb2 " + header.length
+                + " bytes" : "glb2", priority);
+        handle.setRelease(this::release);
         ThreadService.getInstance().execute(this);
+        return handle;
+    }
+
+    /**
+     * Releases the mapped buffer, channel and buffers used by this reader - the reader cannot be used after
+     * this call. Mapped memory is unmapped when the buffer is garbage collected.
+     */
+    public void release() {
+        closeChannel();
+        releaseChunkReader();
+        channel = null;
+        mappedByteBuffer = null;
+        readBuffer = null;
+        toc = null;
+        glTF = null;
+        processed = true;
+    }
+
+    /**
+     * Called between chunks when processing using a load handle
+     */
+    private void checkpoint() {
+        if (handle != null) {
+            handle.setProgress(getProgress());
+            handle.checkpoint();
+        }
     }
 
     /**
@@ -102,26 +495,317 @@ public class Glb2Reader implements ChunkStreamer, Runnable {
      * @param callback
      * @return Number of chunks in the file.
      */
-    public int processChunks(@NonNull Glb2Streamer callback) {
+    public int processChunks(@NonNull Glb2Streamer<StreamingScene> callback) {
         this.listener = callback;
         return internalProcessChunks();
     }
 
     private int internalProcessChunks() {
         glTF = createGltf(glTFType);
+        int count;
+        if (channel != null) {
+            count = processChannelChunks();
+        } else {
+            count = parallelDecode && ThreadService.getInstance().threadCount > 1 ? processChunksParallel()
+                    : processChunksSerial();
+        }
+        releaseChunkReader();
+        glTF.finishedLoading();
+        listener.glb2Loaded(glTF);
+        return count;
+    }
+
+    /**
+     * Starts cooperative processing of chunks, call {@link #process(long)} until all chunks are processed.
+     * Use this when the application shall decide when, and for how long, chunks are processed - for instance
+     * once per frame in a render loop.
+     * 
+     * @param callback
+     */
+    public void beginProcessing(@NonNull Glb2Streamer<StreamingScene> callback) {
+        if (glTF != null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_STATE.message + "Already processing");
+        }
+        if (mappedByteBuffer == null && channel == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_STATE.message + "Not opened");
+        }
+        this.listener = callback;
+        glTF = createGltf(glTFType);
+    }
+
+    /**
+     * Decodes and dispatches chunks, on the calling thread, until the time budget is used up. At least one chunk
+     * is processed for each call, a chunk is not interrupted so the budget may be exceeded by the time to process
+     * one chunk.
+     * The chunk reader, decompressor, decompression buffer and read buffer are reused between chunks and calls.
+     * Each chunk is still decoded into a new stream object, with the values it holds, and a view of the payload -
+     * the scene also allocates the objects it creates from the chunks.
+     * When all chunks are processed the glTF is finished and {@link Glb2Streamer#glb2Loaded(StreamingGltf)} is
+     * called before this method returns.
+     * 
+     * @param nanosBudget Time, in nanoseconds, that may be used
+     * @return Progress between 0 and 1, 1 is only returned when all chunks have been processed and glb2Loaded has
+     * been called.
+     */
+    public float process(long nanosBudget) {
+        if (glTF == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_STATE.message + "Must call beginProcessing()");
+        }
+        if (processed) {
+            return 1f;
+        }
+        long start = System.nanoTime();
+        try {
+            do {
+                SubStreamReader chunk = readNextChunk(true);
+                if (chunk == null) {
+                    finishProcessing();
+                    return 1f;
+                }
+                chunk.run();
+                totalSize += chunk.getSize();
+            } while (System.nanoTime() - start < nanosBudget);
+            if (!hasMoreChunks()) {
+                // Finish now, otherwise progress is 1 before glb2Loaded is called
+                closeChannel();
+                finishProcessing();
+                return 1f;
+            }
+        } catch (IOException e) {
+            closeChannel();
+            throw new RuntimeException(e);
+        }
+        // Progress of a large file may round to 1 before the last chunk
+        return Math.min(getProgress(), Math.nextDown(1f));
+    }
+
+    private void finishProcessing() {
+        processed = true;
+        releaseChunkReader();
+        readBuffer = null;
+        glTF.finishedLoading();
+        listener.glb2Loaded(glTF);
+    }
+
+    /**
+     * Returns true if there is at least one more chunk to read, does not read from the channel
+     * 
+     * @return
+     */
+    private boolean hasMoreChunks() {
+        if (channel != null) {
+            long end = header.tocOffset > 0 ? header.tocOffset : header.length;
+            return channelPosition + SubStream.CHUNK_HEADER_SIZE < end;
+        }
+        return mappedByteBuffer.remaining() > SubStream.CHUNK_HEADER_SIZE;
+    }
+
+    /**
+     * Returns the progress of chunk processing, 0 when no chunks are processed and 1 when all chunks are
+     * processed. Progress is measured as number of bytes that have been read.
+     * 
+     * @return
+     */
+    public float getProgress() {
+        long position;
+        long end;
+        if (channel != null) {
+            position = channelPosition;
+            end = header.tocOffset > 0 ? header.tocOffset : header.length;
+        } else if (mappedByteBuffer != null) {
+            position = mappedByteBuffer.position();
+            end = mappedByteBuffer.limit();
+        } else {
+            return 0;
+        }
+        long start = Glb2Header.GLB_HEADER_SIZE;
+        return end > start ? Math.min(1f, (float) (position - start) / (end - start)) : 1f;
+    }
+
+    private int processChunksSerial() {
         int count = 0;
         while (mappedByteBuffer.remaining() > SubStream.CHUNK_HEADER_SIZE) {
-            SubStreamReader chunk = SubStream.getSubStream(mappedByteBuffer, this);
-            // ThreadService.getInstance().execute(chunk);
+            checkpoint();
+            SubStreamReader chunk = nextChunk(mappedByteBuffer, true);
             chunk.run();
             totalSize += chunk.getSize();
             count++;
         }
-        glTF.finishedLoading();
-        listener.glb2Loaded(glTF);
         return count;
     }
 
+    /**
+     * Reads chunks from the channel until end of chunks, each chunk is dispatched when it has been read.
+     * 
+     * @return Number of chunks
+     */
+    private int processChannelChunks() {
+        int count = 0;
+        try {
+            SubStreamReader chunk;
+            checkpoint();
+            while ((chunk = readChannelChunk(true)) != null) {
+                chunk.run();
+                totalSize += chunk.getSize();
+                count++;
+                checkpoint();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            readBuffer = null;
+            closeChannel();
+        }
+        return count;
+    }
+
+    /**
+     * Returns a reader for the next chunk, or null if there are no more chunks.
+     * When reading from a channel the channel is closed when there are no more chunks.
+     * 
+     * @param reuse If true the chunk reader and buffers are reused for the next chunk. Only use if the decoded
+     * chunk is not used after the next chunk is read.
+     * @return
+     * @throws IOException
+     */
+    SubStreamReader readNextChunk(boolean reuse) throws IOException {
+        if (channel != null) {
+            SubStreamReader chunk = readChannelChunk(reuse);
+            if (chunk == null) {
+                closeChannel();
+            }
+            return chunk;
+        }
+        return mappedByteBuffer.remaining() > SubStream.CHUNK_HEADER_SIZE ? nextChunk(mappedByteBuffer, reuse)
+                : null;
+    }
+
+    /**
+     * Reads the next chunk from the channel, returns null if there are no more chunks
+     * 
+     * @param reuseBuffer
+     * @return
+     * @throws IOException
+     */
+    private SubStreamReader readChannelChunk(boolean reuseBuffer) throws IOException {
+        // Table of contents is last in file and not needed when reading all chunks
+        long end = header.tocOffset > 0 ? header.tocOffset : header.length;
+        if (channelPosition + SubStream.CHUNK_HEADER_SIZE >= end) {
+            return null;
+        }
+        if (readBuffer == null) {
+            readBuffer = ByteBuffer.allocateDirect(readBufferSize).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        readBuffer.clear().limit(SubStream.CHUNK_HEADER_SIZE);
+        if (!readFully(channel, readBuffer)) {
+            return null;
+        }
+        int size = readBuffer.getInt(1);
+        if (size < SubStream.CHUNK_HEADER_SIZE) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Chunk size " + size);
+        }
+        ByteBuffer chunkBuffer = readBuffer;
+        if (!reuseBuffer || size > readBuffer.capacity()) {
+            chunkBuffer = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+            chunkBuffer.put(readBuffer.flip());
+            if (reuseBuffer) {
+                readBuffer = chunkBuffer;
+            }
+        }
+        chunkBuffer.limit(size);
+        if (!readFully(channel, chunkBuffer)) {
+            throw new EOFException(ErrorMessage.INVALID_VALUE.message + "End of data in chunk at "
+                    + channelPosition);
+        }
+        channelPosition += size;
+        return nextChunk(chunkBuffer.position(0), reuseBuffer);
+    }
+
+    /**
+     * Closes the channel if reading from a channel
+     */
+    void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            Logger.e(getClass(), "Could not close channel: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads from the channel until the buffer is full
+     * 
+     * @param readChannel
+     * @param buffer
+     * @return False if end of stream was reached before any bytes were read
+     * @throws IOException If end of stream was reached after some bytes were read
+     */
+    private static boolean readFully(ReadableByteChannel readChannel, ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (readChannel.read(buffer) < 0) {
+                if (buffer.position() == start) {
+                    return false;
+                }
+                throw new EOFException(ErrorMessage.INVALID_VALUE.message + "Unexpected end of data");
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Headers are read on the calling thread and the chunks are queued for decoding, at most twice the number
+     * of threads are kept in flight. Decoded chunks are dispatched in the order they are stored in the file.
+     * 
+     * @return Number of chunks
+     */
+    private int processChunksParallel() {
+        ThreadService service = ThreadService.getInstance();
+        int maxInFlight = service.threadCount * 2;
+        ArrayDeque<SubStreamReader> readers = new ArrayDeque<SubStreamReader>(maxInFlight);
+        ArrayDeque<FutureTask<SubStream<?>>> decoded = new ArrayDeque<FutureTask<SubStream<?>>>(maxInFlight);
+        int count = 0;
+        try {
+            while (mappedByteBuffer.remaining() > SubStream.CHUNK_HEADER_SIZE) {
+                checkpoint();
+                SubStreamReader chunk = nextChunk(mappedByteBuffer, false);
+                readers.add(chunk);
+                decoded.add(service.submit(chunk::decode));
+                count++;
+                if (decoded.size() >= maxInFlight) {
+                    dispatchNext(readers, decoded);
+                }
+            }
+            while (!decoded.isEmpty()) {
+                dispatchNext(readers, decoded);
+            }
+        } finally {
+            for (FutureTask<SubStream<?>> task : decoded) {
+                task.cancel(false);
+            }
+        }
+        return count;
+    }
+
+    private void dispatchNext(ArrayDeque<SubStreamReader> readers, ArrayDeque<FutureTask<SubStream<?>>> decoded) {
+        SubStreamReader chunk = readers.poll();
+        FutureTask<SubStream<?>> task = decoded.poll();
+        // If not yet started the task is run on this thread, otherwise this is a no-op
+        task.run();
+        try {
+            chunk.dispatch(task.get());
+            totalSize += chunk.getSize();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
     private StreamingGltf<StreamingScene> createGltf(Type type) {
         if (type instanceof Class<?>) {
             return createGltf((Class<?>) type);
@@ -152,7 +836,14 @@ public class Glb2Reader implements ChunkStreamer, Runnable {
 
     @Override
     public void run() {
-        internalProcessChunks();
+        if (handle != null) {
+            handle.run(() -> {
+                internalProcessChunks();
+                return glTF;
+            });
+        } else {
+            internalProcessChunks();
+        }
     }
 
 }
@@ -0,0 +1,319 @@
+package org.gltfio.glb2;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.gltfio.gltf2.stream.SubStream;
+import org.gltfio.gltf2.stream.SubStream.Compression;
+import org.gltfio.gltf2.stream.SubStream.Type;
+import org.gltfio.lib.Constants;
+import org.gltfio.lib.ErrorMessage;
+
+/**
+ * Table of contents for a glb2 file, makes it possible to read chunks without going through the file from
+ * start to end.
+ * The table of contents is stored as the last chunk in the file, the offset is stored in the header.
+ *
+ * TYPE ubyte - TOC, never compressed
+ * SIZE uint32 - the size in bytes of the chunk (including TYPE and SIZE)
+ * COUNT uint32 - number of entries
+ * [COUNT]
+ * CHUNKTYPE ubyte - type and compression as stored in the chunk header
+ * STREAMTYPE ubyte - type that stream index refers to, ATTRIBUTE for vertex attributes, INDICES_BYTE, SHORT or
+ * INT for indices and same as CHUNKTYPE for other chunks
+ * GROUP ubyte - the attribute for vertex attributes, otherwise 0
+ * STREAMINDEX int32 - the index that the chunk is referenced by, nodes are indexed in the order they are stored
+ * OFFSET uint64 - offset in bytes, from start of header, to the chunk
+ * SIZE uint32 - the size in bytes of the chunk as stored
+ * UNCOMPRESSED SIZE uint32 - the size in bytes of the chunk before compression, including header
+ * MESH int32 - index of the mesh the chunk was written for, or -1
+ * NODE int32 - index of the scene node the chunk was written for, or -1
+ *
+ * Chunks that are shared, for instance a mesh used by several nodes, are owned by the node that first
+ * referenced it.
+ */
+public class Glb2Toc {
+
+    public static final int ENTRY_SIZE = 3 + 4 + 8 + 4 + 4 + 4 + 4;
+    public static final int HEADER_SIZE = SubStream.CHUNK_HEADER_SIZE + 4;
+
+    /**
+     * One chunk in the table of contents
+     */
+    public static class Entry {
+
+        private byte chunkType;
+        private final Type streamType;
+        private final int group;
+        private final int streamIndex;
+        private long offset;
+        private int size;
+        private final int uncompressedSize;
+        private final int mesh;
+        private final int node;
+
+        Entry(Type streamType, int group, int streamIndex, int uncompressedSize, int mesh, int node) {
+            this.streamType = streamType;
+            this.group = group;
+            this.streamIndex = streamIndex;
+            this.uncompressedSize = uncompressedSize;
+            this.mesh = mesh;
+            this.node = node;
+        }
+
+        private Entry(ByteBuffer buffer) {
+            chunkType = buffer.get();
+            streamType = Type.get(buffer.get());
+            group = buffer.get() & 0x0ff;
+            streamIndex = buffer.getInt();
+            offset = buffer.getLong();
+            size = buffer.getInt();
+            uncompressedSize = buffer.getInt();
+            mesh = buffer.getInt();
+            node = buffer.getInt();
+        }
+
+        /**
+         * Sets the values that are known when the chunk has been written
+         *
+         * @param chunkHeaderType Type and compression as stored in the chunk
+         * @param chunkOffset
+         * @param chunkSize
+         */
+        void setWritten(byte chunkHeaderType, long chunkOffset, int chunkSize) {
+            this.chunkType = chunkHeaderType;
+            this.offset = chunkOffset;
+            this.size = chunkSize;
+        }
+
+        private void put(ByteBuffer buffer) {
+            buffer.put(chunkType);
+            buffer.put(streamType.value);
+            buffer.put((byte) group);
+            buffer.putInt(streamIndex);
+            buffer.putLong(offset);
+            buffer.putInt(size);
+            buffer.putInt(uncompressedSize);
+            buffer.putInt(mesh);
+            buffer.putInt(node);
+        }
+
+        /**
+         * Returns the type of the chunk
+         *
+         * @return
+         */
+        public Type getChunkType() {
+            return Type.get(chunkType);
+        }
+
+        /**
+         * Returns the compression of the chunk
+         *
+         * @return
+         */
+        public Compression getCompression() {
+            return Compression.get((chunkType >> SubStream.COMPRESSION_SHIFT) & SubStream.COMPRESSION_MASK);
+        }
+
+        /**
+         * Returns the type that the stream index refers to
+         *
+         * @return
+         */
+        public Type getStreamType() {
+            return streamType;
+        }
+
+        /**
+         * Returns the group, the attribute value for vertex attributes otherwise 0
+         *
+         * @return
+         */
+        public int getGroup() {
+            return group;
+        }
+
+        /**
+         * Returns the stream index
+         *
+         * @return
+         */
+        public int getStreamIndex() {
+            return streamIndex;
+        }
+
+        /**
+         * Returns the offset, in bytes from start of header, to the chunk
+         *
+         * @return
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        /**
+         * Returns the size of the chunk as stored
+         *
+         * @return
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Returns the size of the chunk before compression
+         *
+         * @return
+         */
+        public int getUncompressedSize() {
+            return uncompressedSize;
+        }
+
+        /**
+         * Returns the index of the mesh the chunk was written for, or -1
+         *
+         * @return
+         */
+        public int getMesh() {
+            return mesh;
+        }
+
+        /**
+         * Returns the index of the scene node the chunk was written for, or -1
+         *
+         * @return
+         */
+        public int getNode() {
+            return node;
+        }
+
+        @Override
+        public String toString() {
+            return getChunkType() + " " + streamType + ", index " + streamIndex + ", offset " + offset
+                    + ", size " + size;
+        }
+
+    }
+
+    private final List<Entry> entries;
+    private final HashMap<Long, Integer> streamIndexes = new HashMap<Long, Integer>();
+
+    /**
+     * Creates a table of contents with the entries
+     *
+     * @param entries
+     */
+    Glb2Toc(List<Entry> entries) {
+        this.entries = entries;
+        for (int i = 0; i < entries.size(); i++) {
+            Entry e = entries.get(i);
+            streamIndexes.put(getKey(e.streamType, e.group, e.streamIndex), i);
+        }
+    }
+
+    /**
+     * Creates the table of contents from a TOC chunk, buffer must be positioned at the chunk header
+     *
+     * @param buffer
+     */
+    Glb2Toc(ByteBuffer buffer) {
+        this(read(buffer));
+    }
+
+    private static List<Entry> read(ByteBuffer buffer) {
+        Type type = Type.get(buffer.get());
+        if (type != Type.TOC) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Not TOC chunk: " + type);
+        }
+        int size = buffer.getInt();
+        int count = buffer.getInt();
+        if (size != HEADER_SIZE + count * ENTRY_SIZE) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Invalid TOC size " + size
+                    + " for " + count + " entries");
+        }
+        ArrayList<Entry> result = new ArrayList<Entry>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new Entry(buffer));
+        }
+        return result;
+    }
+
+    private static long getKey(Type streamType, int group, int streamIndex) {
+        return ((long) streamType.value << 40) | ((long) group << 32) | (streamIndex & 0x0ffffffffL);
+    }
+
+    /**
+     * Creates the TOC chunk
+     *
+     * @return
+     */
+    ByteBuffer createChunk() {
+        int size = HEADER_SIZE + entries.size() * ENTRY_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(Type.TOC.value);
+        buffer.putInt(size);
+        buffer.putInt(entries.size());
+        for (Entry e : entries) {
+            e.put(buffer);
+        }
+        return buffer.position(0);
+    }
+
+    /**
+     * Returns the number of entries (chunks)
+     *
+     * @return
+     */
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the entry at index, entries are stored in the order chunks are stored in the file.
+     *
+     * @param index
+     * @return
+     */
+    public Entry getEntry(int index) {
+        return entries.get(index);
+    }
+
+    /**
+     * Returns the entry index of the chunk with stream index, or -1 if not present.
+     *
+     * @param streamType ATTRIBUTE for vertex attributes, INDICES_BYTE, INDICES_SHORT or INDICES_INT for indices.
+     * @param group The attribute value for vertex attributes, otherwise 0
+     * @param streamIndex
+     * @return
+     */
+    public int find(Type streamType, int group, int streamIndex) {
+        Integer index = streamIndexes.get(getKey(streamType, group, streamIndex));
+        return index != null ? index : Constants.NO_VALUE;
+    }
+
+    /**
+     * Returns the entry indexes of the chunks that were written for the scene node, in file order.
+     * Chunks that were first written for another node are not included.
+     *
+     * @param node Index of the node in the scene
+     * @return
+     */
+    public int[] getNodeEntries(int node) {
+        ArrayList<Integer> result = new ArrayList<Integer>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).node == node) {
+                result.add(i);
+            }
+        }
+        int[] indexes = new int[result.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = result.get(i);
+        }
+        return indexes;
+    }
+
+}
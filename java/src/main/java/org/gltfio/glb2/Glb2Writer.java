@@ -1,151 +1,124 @@
 package org.gltfio.glb2;
 
-import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.HashMap;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import org.gltfio.gltf2.RenderableScene;
-import org.gltfio.gltf2.stream.NamedSubStream;
-import org.gltfio.gltf2.stream.SceneStream;
-import org.gltfio.gltf2.stream.SubStream;
-import org.gltfio.lib.Constants;
-import org.gltfio.lib.Logger;
 
 /**
  * Writes a memory model of a glTF file to disk.
+ * Chunks are written to the FileChannel as they are serialized, the header and scene chunk are written last
+ * into space reserved at the start of the file. This means that the whole file is never kept in memory.
+ * Chunks are compressed using the executor in {@link Glb2WriterSettings}, the order of chunks in the file is
+ * always the order they are serialized in.
+ * The writer does not hold any state, each write is done using a {@link Glb2WriterSession} - this means that
+ * any number of scenes can be written concurrently.
  */
 public class Glb2Writer {
 
-    public static final int CURRENT_GLB2_VERSION = 0x020001;
+    public static final int CURRENT_GLB2_VERSION = 0x020006;
 
-    private static Glb2Writer writer;
-
-    private transient HashMap<Integer, HashMap<Integer, Integer>> serializedMaps = new HashMap<>();
-    private transient Deque<ByteBuffer> queue = new ArrayDeque<ByteBuffer>();
-    private transient long totalSize;
+    private static final Glb2Writer WRITER = new Glb2Writer();
 
     private Glb2Writer() {
     }
 
-    private void add(ByteBuffer buffer) {
-        totalSize += buffer.remaining();
-        queue.add(buffer);
+    /**
+     * Returns the Glb2Writer
+     *
+     * @return
+     */
+    public static Glb2Writer getInstance() {
+        return WRITER;
     }
 
-    private void addSceneAndHeader(ByteBuffer scene) {
-        totalSize += scene.remaining();
-        queue.addFirst(scene);
-        ByteBuffer header = Glb2Header.createHeader(CURRENT_GLB2_VERSION, totalSize + Glb2Header.GLB_HEADER_SIZE);
-        queue.addFirst(header);
-        Logger.d(getClass(), "Added scene and header, total size: " + totalSize + ", in " + queue.size() + " chunks.");
-
+    /**
+     * Opens a session that writes to a file with the specified filename, the file is created or truncated.
+     * The file is closed when the session is closed.
+     *
+     * @param filename
+     * @param writeSettings
+     * @return
+     * @throws IOException
+     */
+    public Glb2WriterSession openSession(String filename, Glb2WriterSettings writeSettings) throws IOException {
+        FileChannel fc = FileChannel.open(Path.of(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new Glb2WriterSession(fc, true, writeSettings);
     }
 
     /**
-     * Returns the Glb2Writer
-     * 
+     * Opens a session that writes to the channel, starting at the current position of the channel.
+     * The channel is not closed when the session is closed.
+     *
+     * @param fc
+     * @param writeSettings
      * @return
      */
-    public static Glb2Writer getInstance() {
-        if (writer == null) {
-            writer = new Glb2Writer();
-        }
-        return writer;
+    public Glb2WriterSession openSession(FileChannel fc, Glb2WriterSettings writeSettings) {
+        return new Glb2WriterSession(fc, false, writeSettings);
     }
 
     /**
-     * Writes the scene as a file with the specified filename, using the current writer configuration.
-     * 
+     * Writes the scene as a file with the specified filename, using default settings.
+     *
      * @param scene
      * @param filename
      * @throws IOException
      */
     public void write(RenderableScene scene, String filename) throws IOException {
-        FileOutputStream fos = new FileOutputStream(new File(filename));
-        write(scene, fos);
+        write(scene, filename, new Glb2WriterSettings());
     }
 
     /**
-     * Writes the glTF to the outputstream using the current writer configuration.
-     * 
-     * @param glTF
-     * @param out
+     * Writes the scene as a file with the specified filename
+     *
+     * @param scene
+     * @param filename
+     * @param writeSettings
      * @throws IOException
      */
-    public void write(RenderableScene scene, FileOutputStream out) throws IOException {
-        ByteBuffer sceneBuffer = createScene(scene);
-        addSceneAndHeader(sceneBuffer);
-
-        FileChannel fc = out.getChannel();
-        ByteBuffer buffer = null;
-        while ((buffer = queue.pollFirst()) != null) {
-            fc.write(buffer);
+    public void write(RenderableScene scene, String filename, Glb2WriterSettings writeSettings)
+            throws IOException {
+        try (Glb2WriterSession session = openSession(filename, writeSettings)) {
+            session.write(scene);
         }
-        out.flush();
-        out.close();
-    }
-
-    private ByteBuffer createScene(RenderableScene scene) throws IOException {
-        SceneStream sceneChunk = new SceneStream(this);
-        sceneChunk.serializeSceneData(scene);
-        ByteBuffer bb = sceneChunk.createBuffer(scene, -1);
-        return bb;
     }
 
     /**
-     * @param index
-     * @return
+     * Writes the glTF to the outputstream using default settings.
+     * The outputstream is closed when this method returns.
+     *
+     * @param glTF
+     * @param out
+     * @throws IOException
      */
-    public int isSerialized(SubStream<?> stream, int index) {
-        HashMap<Integer, Integer> serialized = serializedMaps.get(stream.getHash());
-        if (serialized == null) {
-            serialized = new HashMap<Integer, Integer>();
-            serializedMaps.put(stream.getHash(), serialized);
-        }
-        Integer streamIndex = serialized.get(index);
-        return streamIndex == null ? Constants.NO_VALUE : streamIndex;
-    }
-
-    private int add(int hash, int index) {
-        HashMap<Integer, Integer> serialized = serializedMaps.get(hash);
-        if (serialized == null) {
-            serialized = new HashMap<Integer, Integer>();
-            serializedMaps.put(hash, serialized);
+    public void write(RenderableScene scene, FileOutputStream out) throws IOException {
+        try {
+            write(scene, out.getChannel(), new Glb2WriterSettings());
+            out.flush();
+        } finally {
+            out.close();
         }
-        Integer streamIndex = serialized.get(index);
-        streamIndex = streamIndex == null ? serialized.size() : streamIndex;
-        serialized.put(index, streamIndex);
-        return streamIndex;
     }
 
     /**
-     * Serializes the data - buffer must be positioned at start of chunk.
-     * 
-     * @param index
-     * @param data
+     * Writes the glTF to the channel, starting at the current position of the channel.
+     * The channel is not closed.
+     *
+     * @param scene
+     * @param fc
+     * @param writeSettings
      * @throws IOException
      */
-    public int serialize(SubStream<?> stream, int index, ByteBuffer data) throws IOException {
-        int streamIndex = index;
-        if (index != Constants.NO_VALUE) {
-            streamIndex = add(stream.getHash(), index);
-        }
-        ByteBuffer copy = stream.createBuffer(data.remaining());
-        copy.put(data);
-        copy.position(0);
-        String name = stream instanceof NamedSubStream ? (((NamedSubStream) stream).getName() + " ") : "";
-        Logger.d(getClass(), "Serializing " + name + stream.toString() + ", streamed " + copy.capacity() + " bytes");
-        int sizeInBytes = copy.getInt(1);
-        if (sizeInBytes != copy.remaining()) {
-            throw new IllegalArgumentException("Invalid chunksize" + sizeInBytes);
+    public void write(RenderableScene scene, FileChannel fc, Glb2WriterSettings writeSettings)
+            throws IOException {
+        try (Glb2WriterSession session = openSession(fc, writeSettings)) {
+            session.write(scene);
         }
-        add(copy);
-        return streamIndex;
     }
 
 }
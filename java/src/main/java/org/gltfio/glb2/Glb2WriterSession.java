@@ -0,0 +1,298 @@
+package org.gltfio.glb2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.gltfio.gltf2.RenderableScene;
+import org.gltfio.gltf2.stream.IndicesStream;
+import org.gltfio.gltf2.stream.NamedSubStream;
+import org.gltfio.gltf2.stream.SceneStream;
+import org.gltfio.gltf2.stream.SubStream;
+import org.gltfio.gltf2.stream.SubStream.Compression;
+import org.gltfio.gltf2.stream.SubStream.Type;
+import org.gltfio.gltf2.stream.VertexAttributeStream;
+import org.gltfio.lib.Constants;
+import org.gltfio.lib.ErrorMessage;
+import org.gltfio.lib.Logger;
+
+/**
+ * One export of a scene to glb2, holds all state needed while the scene is written.
+ * A session is used by one thread and writes one scene, any number of sessions may be used concurrently.
+ * Create using {@link Glb2Writer#openSession(String, Glb2WriterSettings)} or
+ * {@link Glb2Writer#openSession(FileChannel, Glb2WriterSettings)}
+ */
+public class Glb2WriterSession implements Closeable {
+
+    private final HashMap<Integer, HashMap<Integer, Integer>> serializedMaps = new HashMap<>();
+    private final ArrayDeque<FutureTask<ByteBuffer>> pending = new ArrayDeque<>();
+    private final FileChannel channel;
+    private final boolean closeChannel;
+    private final Glb2WriterSettings settings;
+    private long totalSize;
+    private boolean written = false;
+    /**
+     * Table of contents entries in the order chunks are serialized, null if no table of contents is written
+     */
+    private final ArrayList<Glb2Toc.Entry> tocEntries;
+    private final EnumMap<Type, Integer> unindexedCount = new EnumMap<Type, Integer>(Type.class);
+    private int writtenEntries = 0;
+    private int ownerNode = Constants.NO_VALUE;
+    private int ownerMesh = Constants.NO_VALUE;
+
+    /**
+     * Creates a new session writing to the channel
+     *
+     * @param channel
+     * @param closeChannel True if the channel shall be closed when the session is closed
+     * @param settings
+     */
+    Glb2WriterSession(FileChannel channel, boolean closeChannel, Glb2WriterSettings settings) {
+        if (channel == null || settings == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Null channel or settings");
+        }
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.settings = settings;
+        this.tocEntries = settings.isWriteToc() ? new ArrayList<Glb2Toc.Entry>() : null;
+    }
+
+    /**
+     * Returns the settings used by this session
+     *
+     * @return
+     */
+    public Glb2WriterSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Returns the number of bytes written by this session, including header.
+     *
+     * @return
+     */
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * Sets the scene node and mesh that chunks are serialized for, this is stored in the table of contents.
+     *
+     * @param node Index of the node in the scene, or -1
+     * @param mesh Mesh stream index, or -1
+     */
+    public void setOwner(int node, int mesh) {
+        this.ownerNode = node;
+        this.ownerMesh = mesh;
+    }
+
+    /**
+     * Writes the glTF to the channel, starting at the current position of the channel.
+     * Chunks are written as they are serialized, space for header and scene chunk is reserved and written using
+     * positional writes when all chunks have been written.
+     * If enabled in settings the table of contents is written after the last chunk.
+     * A session can only write one scene.
+     *
+     * @param scene
+     * @throws IOException
+     */
+    public void write(RenderableScene scene) throws IOException {
+        if (written) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_STATE.message + "Session already written");
+        }
+        written = true;
+        try {
+            long start = channel.position();
+            long scenePosition = start + Glb2Header.GLB_HEADER_SIZE;
+            channel.position(scenePosition + SceneStream.MAX_SIZE);
+            totalSize = Glb2Header.GLB_HEADER_SIZE + SceneStream.MAX_SIZE;
+            if (tocEntries != null) {
+                Glb2Toc.Entry sceneEntry = new Glb2Toc.Entry(Type.SCENE, 0, 0, SceneStream.MAX_SIZE,
+                        Constants.NO_VALUE, Constants.NO_VALUE);
+                sceneEntry.setWritten(Type.SCENE.value, Glb2Header.GLB_HEADER_SIZE, SceneStream.MAX_SIZE);
+                tocEntries.add(sceneEntry);
+                writtenEntries++;
+            }
+            ByteBuffer sceneBuffer = createScene(scene);
+            writeCompleted(0);
+            if (sceneBuffer.remaining() != SceneStream.MAX_SIZE) {
+                throw new IllegalArgumentException(ErrorMessage.INVALID_STATE.message + "Scene chunk size "
+                        + sceneBuffer.remaining() + " does not match reserved size " + SceneStream.MAX_SIZE);
+            }
+            writeAt(sceneBuffer, scenePosition);
+            long tocOffset = 0;
+            if (tocEntries != null) {
+                tocOffset = totalSize;
+                add(new Glb2Toc(tocEntries).createChunk());
+            }
+            writeAt(Glb2Header.createHeader(Glb2Writer.CURRENT_GLB2_VERSION, totalSize, tocOffset), start);
+            Logger.d(getClass(), "Written scene and header, total size: " + totalSize);
+        } finally {
+            cancelPending();
+            serializedMaps.clear();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        cancelPending();
+        if (closeChannel) {
+            channel.close();
+        }
+    }
+
+    private void cancelPending() {
+        for (FutureTask<ByteBuffer> task : pending) {
+            task.cancel(false);
+        }
+        pending.clear();
+    }
+
+    private void add(ByteBuffer buffer) throws IOException {
+        totalSize += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Writes chunks that have been compressed, in the order they were serialized.
+     * Waits for the oldest chunk while more than maxPending chunks are not written, if the oldest chunk has not
+     * been started it is compressed on the calling thread.
+     *
+     * @param maxPending
+     * @throws IOException
+     */
+    private void writeCompleted(int maxPending) throws IOException {
+        while (!pending.isEmpty() && (pending.size() > maxPending || pending.peek().isDone())) {
+            FutureTask<ByteBuffer> task = pending.poll();
+            // Does nothing if task is already started
+            task.run();
+            try {
+                ByteBuffer chunk = task.get();
+                if (tocEntries != null) {
+                    tocEntries.get(writtenEntries++).setWritten(chunk.get(chunk.position()), totalSize,
+                            chunk.remaining());
+                }
+                add(chunk);
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private void writeAt(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private ByteBuffer createScene(RenderableScene scene) throws IOException {
+        SceneStream sceneChunk = new SceneStream(this);
+        sceneChunk.serializeSceneData(scene);
+        ByteBuffer bb = sceneChunk.createBuffer(scene, -1);
+        return bb;
+    }
+
+    /**
+     * Returns the stream index if the object at index has been serialized in this session, otherwise -1
+     *
+     * @param stream
+     * @param index
+     * @return
+     */
+    public int isSerialized(SubStream<?> stream, int index) {
+        HashMap<Integer, Integer> serialized = serializedMaps.get(stream.getHash());
+        if (serialized == null) {
+            serialized = new HashMap<Integer, Integer>();
+            serializedMaps.put(stream.getHash(), serialized);
+        }
+        Integer streamIndex = serialized.get(index);
+        return streamIndex == null ? Constants.NO_VALUE : streamIndex;
+    }
+
+    private int add(int hash, int index) {
+        HashMap<Integer, Integer> serialized = serializedMaps.get(hash);
+        if (serialized == null) {
+            serialized = new HashMap<Integer, Integer>();
+            serializedMaps.put(hash, serialized);
+        }
+        Integer streamIndex = serialized.get(index);
+        streamIndex = streamIndex == null ? serialized.size() : streamIndex;
+        serialized.put(index, streamIndex);
+        return streamIndex;
+    }
+
+    /**
+     * Serializes the data, compresses and writes it to the channel - buffer must be positioned at start of chunk.
+     * The buffer must not be modified after calling this method.
+     *
+     * @param stream
+     * @param index
+     * @param data
+     * @return
+     * @throws IOException
+     */
+    public int serialize(SubStream<?> stream, int index, ByteBuffer data) throws IOException {
+        int streamIndex = index;
+        if (index != Constants.NO_VALUE) {
+            streamIndex = add(stream.getHash(), index);
+        }
+        String name = stream instanceof NamedSubStream ? (((NamedSubStream) stream).getName() + " ") : "";
+        Logger.d(getClass(), "Serializing " + name + stream.toString() + ", streamed " + data.remaining() + " bytes");
+        int sizeInBytes = data.getInt(data.position() + 1);
+        if (sizeInBytes != data.remaining()) {
+            throw new IllegalArgumentException("Invalid chunksize" + sizeInBytes);
+        }
+        Compression compression = stream.getCompression() == Compression.NONE ? Compression.NONE
+                : settings.getCompression(stream.getType());
+        int level = settings.getCompressionLevel();
+        if (tocEntries != null) {
+            addTocEntry(stream, streamIndex, sizeInBytes);
+        }
+        ByteBuffer chunk = data.slice().order(data.order());
+        FutureTask<ByteBuffer> task = new FutureTask<ByteBuffer>(() -> {
+            SubStream.compressChunk(chunk, compression, level);
+            return chunk;
+        });
+        pending.add(task);
+        Executor executor = settings.getExecutor();
+        if (executor != null) {
+            executor.execute(task);
+        } else {
+            task.run();
+        }
+        writeCompleted(settings.getMaxInFlight());
+        return streamIndex;
+    }
+
+    private void addTocEntry(SubStream<?> stream, int streamIndex, int size) {
+        Type streamType = stream.getType();
+        int group = 0;
+        if (stream instanceof VertexAttributeStream) {
+            streamType = Type.ATTRIBUTE;
+            group = ((VertexAttributeStream) stream).getAttributeType().type.value;
+        } else if (stream instanceof IndicesStream) {
+            streamType = ((IndicesStream) stream).getIndexType().streamType;
+        }
+        if (streamIndex == Constants.NO_VALUE) {
+            // Chunks that are not indexed, such as nodes, are indexed in the order they are written
+            Integer count = unindexedCount.get(streamType);
+            streamIndex = count != null ? count : 0;
+            unindexedCount.put(streamType, streamIndex + 1);
+        }
+        tocEntries.add(new Glb2Toc.Entry(streamType, group, streamIndex, size, ownerMesh, ownerNode));
+    }
+
+}
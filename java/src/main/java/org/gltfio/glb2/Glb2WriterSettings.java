@@ -0,0 +1,269 @@
+package org.gltfio.glb2;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
+
+import org.gltfio.gltf2.JSONPrimitive.Attributes;
+import org.gltfio.gltf2.stream.AttributeQuantizer;
+import org.gltfio.gltf2.stream.SubStream.Compression;
+import org.gltfio.gltf2.stream.SubStream.Type;
+import org.gltfio.lib.ErrorMessage;
+import org.gltfio.lib.Settings;
+import org.gltfio.lib.Settings.IntProperty;
+import org.gltfio.lib.ThreadService;
+
+/**
+ * Settings used when a scene is written using the {@link Glb2Writer}, settings are used for one call to write.
+ */
+public class Glb2WriterSettings {
+
+    public enum Glb2WriterProperties implements IntProperty {
+        /**
+         * Deflate compression level, 0 - 9
+         */
+        COMPRESSION_LEVEL("glb2.compression.level", Deflater.BEST_COMPRESSION),
+        /**
+         * Max number of chunks that are compressed but not yet written, 0 means twice the number of processors.
+         */
+        MAX_IN_FLIGHT("glb2.compression.inflight", 0);
+
+        private final String key;
+        private final int defaultValue;
+
+        Glb2WriterProperties(String key, int defaultValue) {
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        public String getName() {
+            return this.name();
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getDefault() {
+            return Integer.toString(defaultValue);
+        }
+
+    }
+
+    private int compressionLevel;
+    private int maxInFlight;
+    private Executor executor;
+    private final EnumMap<Type, Compression> compression = new EnumMap<Type, Compression>(Type.class);
+    private final EnumSet<Attributes> quantized = EnumSet.noneOf(Attributes.class);
+    private boolean encodeIndices = true;
+    private boolean deduplicate = true;
+    private boolean writeToc = true;
+
+    /**
+     * Creates settings with values from {@link Glb2WriterProperties}, compression is done using the threads in
+     * {@link ThreadService}
+     * Vertex attribute and indices chunks are compressed using LZ, other chunks using ZLIB.
+     */
+    public Glb2WriterSettings() {
+        setCompressionLevel(Settings.getInstance().getInt(Glb2WriterProperties.COMPRESSION_LEVEL));
+        int inFlight = Settings.getInstance().getInt(Glb2WriterProperties.MAX_IN_FLIGHT);
+        maxInFlight = inFlight > 0 ? inFlight : Runtime.getRuntime().availableProcessors() * 2;
+        executor = command -> ThreadService.getInstance().execute(command);
+        for (Type type : Type.values()) {
+            compression.put(type, Compression.ZLIB);
+        }
+        compression.put(Type.ATTRIBUTE, Compression.LZ);
+        compression.put(Type.ATTRIBUTE_QUANTIZED, Compression.LZ);
+        compression.put(Type.INDICES_BYTE, Compression.LZ);
+        compression.put(Type.INDICES_SHORT, Compression.LZ);
+        compression.put(Type.INDICES_INT, Compression.LZ);
+        compression.put(Type.INDICES_ENCODED, Compression.LZ);
+    }
+
+    /**
+     * Returns the compression to use for chunks of the specified type
+     *
+     * @param type
+     * @return
+     */
+    public Compression getCompression(Type type) {
+        return compression.get(type);
+    }
+
+    /**
+     * Sets the compression to use for chunks of the specified type
+     *
+     * @param type
+     * @param chunkCompression NONE, ZLIB or LZ
+     */
+    public void setCompression(Type type, Compression chunkCompression) {
+        if (chunkCompression == null || chunkCompression == Compression.DECOMPRESSED) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Compression "
+                    + chunkCompression);
+        }
+        compression.put(type, chunkCompression);
+    }
+
+    /**
+     * Returns true if float data for the attribute shall be quantized
+     *
+     * @param attribute
+     * @return
+     */
+    public boolean isQuantized(Attributes attribute) {
+        return quantized.contains(attribute);
+    }
+
+    /**
+     * Enables or disables quantization of float vertex data for the attribute, quantization is lossy and
+     * disabled by default. Supported attributes are POSITION, NORMAL and TEXCOORD_0 - TEXCOORD_3, see
+     * {@link AttributeQuantizer}
+     *
+     * @param attribute
+     * @param quantize
+     */
+    public void setQuantized(Attributes attribute, boolean quantize) {
+        switch (attribute) {
+            case POSITION:
+            case NORMAL:
+            case TEXCOORD_0:
+            case TEXCOORD_1:
+            case TEXCOORD_2:
+            case TEXCOORD_3:
+                break;
+            default:
+                throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Can not quantize "
+                        + attribute);
+        }
+        if (quantize) {
+            quantized.add(attribute);
+        } else {
+            quantized.remove(attribute);
+        }
+    }
+
+    /**
+     * Returns true if indices are written as INDICES_ENCODED chunks
+     *
+     * @return
+     */
+    public boolean isEncodeIndices() {
+        return encodeIndices;
+    }
+
+    /**
+     * Enables or disables encoding of indices, see {@link org.gltfio.gltf2.stream.IndexCodec}, default is true.
+     *
+     * @param encodeIndices
+     */
+    public void setEncodeIndices(boolean encodeIndices) {
+        this.encodeIndices = encodeIndices;
+    }
+
+    /**
+     * Returns true if attribute and index data shall be deduplicated by content
+     *
+     * @return
+     */
+    public boolean isDeduplicate() {
+        return deduplicate;
+    }
+
+    /**
+     * Enables or disables deduplication of attribute and index data, default is true.
+     * When enabled accessors with identical data, from different accessor indexes, are only written once and
+     * primitives reference the same stream data.
+     *
+     * @param deduplicate
+     */
+    public void setDeduplicate(boolean deduplicate) {
+        this.deduplicate = deduplicate;
+    }
+
+    /**
+     * Returns true if a table of contents chunk shall be written
+     *
+     * @return
+     */
+    public boolean isWriteToc() {
+        return writeToc;
+    }
+
+    /**
+     * Enables or disables writing of the table of contents, see {@link Glb2Toc}, default is true.
+     * The table of contents is needed to read chunks by index or by node.
+     *
+     * @param writeToc
+     */
+    public void setWriteToc(boolean writeToc) {
+        this.writeToc = writeToc;
+    }
+
+    /**
+     * Returns the deflate compression level
+     *
+     * @return
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Sets the deflate compression level
+     *
+     * @param compressionLevel Level between {@link Deflater#NO_COMPRESSION} and {@link Deflater#BEST_COMPRESSION}
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Compression level "
+                    + compressionLevel);
+        }
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Returns the max number of chunks that are being compressed before the writer waits for the oldest chunk.
+     *
+     * @return
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Sets the max number of chunks that are being compressed before the writer waits for the oldest chunk,
+     * this limits the amount of memory that is used by chunks waiting to be written.
+     *
+     * @param maxInFlight
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Max in flight " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Returns the executor used to compress chunks, or null if chunks are compressed on the calling thread.
+     *
+     * @return
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the executor used to compress chunks, set to null to compress on the calling thread.
+     * Chunks are always written in the order they are serialized regardless of executor.
+     *
+     * @param executor
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+}
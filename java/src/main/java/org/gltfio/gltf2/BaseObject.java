@@ -1,6 +1,8 @@
 
 package org.gltfio.gltf2;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.gltfio.gltf2.extensions.GltfExtensions.ExtensionTypes;
 import org.gltfio.gltf2.extensions.JSONExtension;
 
@@ -16,9 +18,12 @@ public abstract class BaseObject {
     private static final String EXTENSIONS = "extensions";
     private static final String EXTRAS = "extras";
 
-    private static int idCounter = 1;
+    /**
+     * Assets may be deserialized by several threads at the same time, ids must be unique
+     */
+    private static final AtomicInteger ID_COUNTER = new AtomicInteger(1);
 
-    private final transient int baseObjectId = idCounter++;
+    private final transient int baseObjectId = ID_COUNTER.getAndIncrement();
 
     @SerializedName(EXTENSIONS)
     private ExtensionObject extensions;
@@ -56,6 +61,24 @@ public abstract class BaseObject {
         return extras;
     }
 
+    /**
+     * Sets the deserialized extensions, used by {@link JSONTypeAdapter}
+     * 
+     * @param extensions
+     */
+    void setExtensions(ExtensionObject extensions) {
+        this.extensions = extensions;
+    }
+
+    /**
+     * Sets the deserialized extras, used by {@link JSONTypeAdapter}
+     * 
+     * @param extras
+     */
+    void setExtras(Extras extras) {
+        this.extras = extras;
+    }
+
     /**
      * Returns the id of this object
      * 
@@ -0,0 +1,171 @@
+package org.gltfio.gltf2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.gltfio.lib.Logger;
+import org.gltfio.lib.Settings;
+import org.gltfio.lib.Settings.IntProperty;
+
+/**
+ * Keeps track of the buffers that are loaded on demand, see {@link JSONBuffer#setLazy(String, boolean)}.
+ * When the size of resident on demand buffers goes above the budget the least recently used buffers are released,
+ * a released buffer is loaded again the next time it is used. Buffers that have been written to are not released.
+ * Buffers are weakly referenced, the residency does not keep an asset from being garbage collected.
+ */
+public class BufferResidency {
+
+    public enum ResidencyProperties implements IntProperty {
+        /**
+         * Max size, in MB, of resident on demand buffers before least recently used buffers are released.
+         * 0 means no limit.
+         */
+        BUDGET_MB("gltf.residency.budget", 0);
+
+        private final String key;
+        private final int defaultValue;
+
+        ResidencyProperties(String key, int defaultValue) {
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        public String getName() {
+            return this.name();
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getDefault() {
+            return Integer.toString(defaultValue);
+        }
+
+    }
+
+    private static volatile BufferResidency residency;
+    private static final AtomicLong USE_COUNTER = new AtomicLong();
+
+    private final Set<JSONBuffer> resident = Collections.newSetFromMap(new WeakHashMap<JSONBuffer, Boolean>());
+
+    private BufferResidency() {
+    }
+
+    public static BufferResidency getInstance() {
+        if (residency == null) {
+            synchronized (BufferResidency.class) {
+                if (residency == null) {
+                    residency = new BufferResidency();
+                }
+            }
+        }
+        return residency;
+    }
+
+    /**
+     * Returns a value that increases each time it is called, used to find the least recently used buffer
+     *
+     * @return
+     */
+    static long nextUse() {
+        return USE_COUNTER.incrementAndGet();
+    }
+
+    /**
+     * Called when an on demand buffer has been loaded, releases least recently used buffers if the budget is
+     * exceeded. Must not be called while holding the lock of a buffer.
+     *
+     * @param buffer
+     */
+    void loaded(JSONBuffer buffer) {
+        synchronized (resident) {
+            resident.add(buffer);
+        }
+        int budget = Settings.getInstance().getInt(ResidencyProperties.BUDGET_MB);
+        if (budget > 0) {
+            trim((long) budget * 1024 * 1024, buffer);
+        }
+    }
+
+    /**
+     * Called when an on demand buffer has been released or destroyed
+     *
+     * @param buffer
+     */
+    void released(JSONBuffer buffer) {
+        synchronized (resident) {
+            resident.remove(buffer);
+        }
+    }
+
+    /**
+     * Releases least recently used on demand buffers until the resident size is at most maxBytes, use this
+     * when memory is low. Buffers that have been written to are not released.
+     *
+     * @param maxBytes
+     * @return Number of bytes released
+     */
+    public long trim(long maxBytes) {
+        return trim(maxBytes, null);
+    }
+
+    private long trim(long maxBytes, JSONBuffer keep) {
+        ArrayList<JSONBuffer> candidates;
+        synchronized (resident) {
+            candidates = new ArrayList<JSONBuffer>(resident);
+        }
+        long residentBytes = 0;
+        for (JSONBuffer b : candidates) {
+            residentBytes += b.getByteLength();
+        }
+        if (residentBytes <= maxBytes) {
+            return 0;
+        }
+        Collections.sort(candidates, Comparator.comparingLong(JSONBuffer::getLastUse));
+        long released = 0;
+        for (int i = 0; i < candidates.size() && residentBytes - released > maxBytes; i++) {
+            JSONBuffer b = candidates.get(i);
+            // Buffer locks are taken without holding the residency lock
+            if (b != keep && b.release()) {
+                released += b.getByteLength();
+            }
+        }
+        Logger.d(getClass(), "Released " + released + " bytes, resident " + (residentBytes - released));
+        return released;
+    }
+
+    /**
+     * Returns the size, in bytes, of resident on demand buffers
+     *
+     * @return
+     */
+    public long getResidentBytes() {
+        long bytes = 0;
+        synchronized (resident) {
+            for (JSONBuffer b : resident) {
+                bytes += b.getByteLength();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the number of resident on demand buffers
+     *
+     * @return
+     */
+    public int getResidentCount() {
+        synchronized (resident) {
+            return resident.size();
+        }
+    }
+
+}
@@ -6,6 +6,7 @@ import java.nio.ShortBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.gltfio.VanillaGltfCreator;
 import org.gltfio.gltf2.JSONAccessor.ComponentType;
@@ -22,10 +23,27 @@ public class J2SEModelPreparation
         ModelPreparation.CreateTangents, ModelPreparation.CreateNormals {
 
     public final float[] oneBuffer = new float[] { 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 };
-    private final HashMap<Integer, J2SEMeshBuffers> meshBuffersMap = new HashMap<Integer, J2SEMeshBuffers>();
+    /**
+     * Mesh buffers of the assets being prepared, keyed by glTF id
+     */
+    private final ConcurrentHashMap<Integer, J2SEMeshBuffers> meshBuffersMap =
+            new ConcurrentHashMap<Integer, J2SEMeshBuffers>();
 
+    /**
+     * Prepares the model, the same instance may be used to prepare different assets at the same time.
+     * The same asset must not be prepared concurrently.
+     */
     @Override
-    public void prepareModel(JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene> glTF, GltfSettings settings) {
+    public void prepareModel(JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene> glTF,
+            GltfSettings settings) {
+        try {
+            prepare(glTF, settings);
+        } finally {
+            meshBuffersMap.remove(glTF.getId());
+        }
+    }
+
+    private void prepare(JSONGltf<JSONPrimitive, JSONMesh<JSONPrimitive>, JSONScene> glTF, GltfSettings settings) {
         int bufferIndex = glTF.createBuffer("ModelPrep", 500000);
         VanillaGltfCreator creator = new VanillaGltfCreator(glTF, bufferIndex, 0);
         setTargetAndByteStride(glTF.getAccessors());
@@ -47,7 +65,6 @@ public class J2SEModelPreparation
         if (settings.getCreateTangents() != null) {
             settings.getCreateTangents().createTangents(glTF);
         }
-        meshBuffersMap.clear();
     }
 
     /**
@@ -169,8 +186,9 @@ public class J2SEModelPreparation
                 }
                 int bufferIndex = convertIndexes.get(accessor.getBufferView().getBufferIndex());
                 JSONBuffer convert = glTF.getBuffer(bufferIndex);
-                convert.buffer.position(destOffset);
-                ShortBuffer destination = convert.buffer.asShortBuffer();
+                ByteBuffer convertBuffer = convert.getWritableBuffer();
+                convertBuffer.position(destOffset);
+                ShortBuffer destination = convertBuffer.asShortBuffer();
                 destination.put(shortData, 0, size);
                 accessor.setBuffer(glTF, ComponentType.UNSIGNED_SHORT, bufferIndex, size * 2, destOffset, 2);
                 destOffset += size * 2;
@@ -201,12 +219,7 @@ public class J2SEModelPreparation
     }
 
     private J2SEMeshBuffers getMeshBuffers(JSONGltf glTF) {
-        J2SEMeshBuffers meshBuffers = meshBuffersMap.get(glTF.getId());
-        if (meshBuffers == null) {
-            meshBuffers = new J2SEMeshBuffers(glTF.getMeshes());
-            meshBuffersMap.put(glTF.getId(), meshBuffers);
-        }
-        return meshBuffers;
+        return meshBuffersMap.computeIfAbsent(glTF.getId(), id -> new J2SEMeshBuffers(glTF.getMeshes()));
     }
 
     @Override
@@ -1,6 +1,7 @@
 
 package org.gltfio.gltf2;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
@@ -11,6 +12,7 @@ import org.gltfio.lib.ErrorMessage;
 import org.gltfio.lib.Logger;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 
 /**
  * The Accessor as it is loaded using the glTF format.
@@ -320,7 +322,20 @@ public class JSONAccessor extends BaseObject implements RuntimeObject {
      * @return
      */
     public ByteBuffer getBuffer() {
-        ByteBuffer buffer = bufferViewRef.getBuffer().buffer;
+        return position(bufferViewRef.getBuffer().getBuffer());
+    }
+
+    /**
+     * Returns the ByteBuffer to be written to, positioned according to this accessor and bufferview.
+     * If the buffer is mapped the contents is first copied, see {@link JSONBuffer#getWritableBuffer()}
+     * 
+     * @return
+     */
+    protected ByteBuffer getWritableBuffer() {
+        return position(bufferViewRef.getBuffer().getWritableBuffer());
+    }
+
+    private ByteBuffer position(ByteBuffer buffer) {
         switch (bufferViewRef.getTarget()) {
             case ELEMENT_ARRAY_BUFFER:
                 // According to spec:
@@ -394,7 +409,7 @@ public class JSONAccessor extends BaseObject implements RuntimeObject {
             throw new IllegalArgumentException(
                     ErrorMessage.INVALID_VALUE.message + "Overflow - count > size of accessor/bufferview");
         }
-        FloatBuffer floatBuffer = getBuffer().asFloatBuffer();
+        FloatBuffer floatBuffer = getWritableBuffer().asFloatBuffer();
         if (bv.getByteStride() <= (type.size * componentType.size)) {
             // Straight copy of all data
             floatBuffer.put(sourceData, offset, length);
@@ -523,4 +538,60 @@ public class JSONAccessor extends BaseObject implements RuntimeObject {
         }
         return true;
     }
+
+    /**
+     * Reads accessors without reflection, registered by {@link JSONTypeAdapter.Factory}
+     */
+    public static class AccessorTypeAdapter extends JSONTypeAdapter<JSONAccessor> {
+
+        @Override
+        protected JSONAccessor create() {
+            return new JSONAccessor();
+        }
+
+        @Override
+        protected boolean read(JSONAccessor value, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case BUFFERVIEW:
+                    value.bufferViewIndex = in.nextInt();
+                    return true;
+                case BYTEOFFSET:
+                    value.byteOffset = in.nextInt();
+                    return true;
+                case COMPONENTTYPE:
+                    value.componentTypeValue = in.nextInt();
+                    return true;
+                case NORMALIZED:
+                    value.normalized = in.nextBoolean();
+                    return true;
+                case COUNT:
+                    value.count = in.nextInt();
+                    return true;
+                case TYPE:
+                    value.type = getType(in.nextString());
+                    return true;
+                case MAX:
+                    value.max = readFloatArray(in);
+                    return true;
+                case MIN:
+                    value.min = readFloatArray(in);
+                    return true;
+                case NAME:
+                    value.name = in.nextString();
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private Type getType(String name) {
+            for (Type t : Type.values()) {
+                if (t.name().equals(name)) {
+                    return t;
+                }
+            }
+            return null;
+        }
+    }
+
 }
@@ -4,6 +4,7 @@ package org.gltfio.gltf2;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 
 import org.gltfio.lib.Buffers;
@@ -13,6 +14,7 @@ import org.gltfio.lib.Logger;
 import org.gltfio.lib.StreamUtils;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 
 /**
  * The Buffer as it is loaded using the glTF format.
@@ -47,7 +49,25 @@ public class JSONBuffer extends NamedValue {
 
     protected transient ByteBuffer buffer;
     protected transient int bufferName;
+    /**
+     * True if the contents has been written to since it was loaded, the buffer cannot be released and loaded again
+     */
     protected transient boolean dirty;
+    /**
+     * True if buffer is readonly storage that is not owned by this buffer, for instance a mapping of the file
+     * referenced by uri
+     */
+    protected transient boolean mapped;
+    /**
+     * True if the buffer is shared, for instance by a cached asset, and must not be written to
+     */
+    protected transient volatile boolean shared;
+    /**
+     * The glTF path to load the buffer from on first use, or null if the buffer is not loaded on demand
+     */
+    private transient String lazyPath;
+    private transient boolean lazyMap;
+    private transient volatile long lastUse;
 
     /**
      * No args constructor for gson
@@ -132,6 +152,220 @@ public class JSONBuffer extends NamedValue {
         buffer = Buffers.createByteBuffer(byteLength);
     }
 
+    /**
+     * Releases the storage, the memory is freed when the buffer is garbage collected.
+     * After this call {@link #createBuffer()} may be called again.
+     */
+    public void destroyBuffer() {
+        boolean lazy = lazyPath != null;
+        synchronized (this) {
+            buffer = null;
+            mapped = false;
+            lazyPath = null;
+        }
+        if (lazy) {
+            BufferResidency.getInstance().released(this);
+        }
+    }
+
+    /**
+     * Sets the buffer to be loaded, or mapped, from the uri the first time the contents is used instead of when the
+     * asset is loaded. The buffer is tracked by {@link BufferResidency} and may be released when not used, it is
+     * then loaded again the next time it is used.
+     * 
+     * @param path The glTF path
+     * @param map True to map the file, see {@link #map(String)}
+     * @throws IllegalArgumentException If buffer has already been created or uri is null or a data uri
+     */
+    public void setLazy(String path, boolean map) {
+        if (buffer != null) {
+            throw new IllegalArgumentException("Buffer already created");
+        }
+        if (uri == null || FileUtils.getInstance().isDataURI(uri)) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Not a file uri " + uri);
+        }
+        lazyPath = path;
+        lazyMap = map;
+    }
+
+    /**
+     * Returns true if the storage is created or mapped, false if the buffer is loaded on demand and not yet used,
+     * or has been released.
+     * 
+     * @return
+     */
+    public boolean isResident() {
+        return buffer != null;
+    }
+
+    /**
+     * Releases the storage of a buffer that is loaded on demand, the buffer is loaded again the next time it is
+     * used. Buffers that are not loaded on demand, or that have been written to, are not released.
+     * 
+     * @return True if the storage was released
+     */
+    public boolean release() {
+        synchronized (this) {
+            if (lazyPath == null || dirty || buffer == null) {
+                return false;
+            }
+            buffer = null;
+            mapped = false;
+        }
+        BufferResidency.getInstance().released(this);
+        Logger.d(getClass(), "Released buffer " + uri);
+        return true;
+    }
+
+    /**
+     * Returns when the buffer was last used, only updated for buffers that are loaded on demand
+     * 
+     * @return
+     */
+    long getLastUse() {
+        return lastUse;
+    }
+
+    private ByteBuffer materialize() {
+        ByteBuffer result;
+        synchronized (this) {
+            if (buffer != null || lazyPath == null) {
+                return buffer;
+            }
+            try {
+                if (!lazyMap || !map(lazyPath)) {
+                    createBuffer();
+                    load(lazyPath);
+                }
+            } catch (IOException | URISyntaxException e) {
+                buffer = null;
+                mapped = false;
+                throw new IllegalArgumentException(ErrorMessage.INVALID_STATE.message + "Could not load buffer "
+                        + uri + ", " + e.getMessage(), e);
+            }
+            if (shared && !mapped) {
+                buffer = buffer.asReadOnlyBuffer().order(buffer.order());
+                mapped = true;
+            }
+            result = buffer;
+        }
+        BufferResidency.getInstance().loaded(this);
+        return result;
+    }
+
+    /**
+     * Maps the file referenced by uri into memory as readonly storage for this buffer, instead of creating the
+     * buffer and loading data - pages are read when accessed and are shared with other mappings of the file.
+     * The data is copied to a new buffer when written to, see {@link #getWritableBuffer()}
+     * 
+     * @param path The glTF path
+     * @return True if the file was mapped, false if uri is a data uri or the file cannot be mapped, for instance
+     * when inside a jar. Use {@link #createBuffer()} and {@link #load(String)} if false is returned.
+     * @throws IllegalArgumentException If buffer has already been created or the file is smaller than byteLength
+     */
+    public boolean map(String path) throws IOException, URISyntaxException {
+        if (buffer != null) {
+            throw new IllegalArgumentException("Buffer already created");
+        }
+        if (uri == null || FileUtils.getInstance().isDataURI(uri)) {
+            return false;
+        }
+        String name = path + getUri();
+        String folder = FileUtils.getInstance().getFolder(name) + FileUtils.DIRECTORY_SEPARATOR;
+        ByteBuffer file = FileUtils.getInstance().mapFile(folder, name.substring(folder.length()));
+        if (file == null) {
+            return false;
+        }
+        if (file.capacity() < byteLength) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "File " + name + " has size "
+                    + file.capacity() + ", buffer byteLength is " + byteLength);
+        }
+        Logger.d(getClass(), "Mapped buffer with size " + byteLength + " from " + name);
+        bind(file.limit(byteLength));
+        return true;
+    }
+
+    /**
+     * Uses the remaining data as readonly storage for this buffer, without copying. Use for instance to bind the
+     * BIN chunk of a mapped glb file. The data is copied to a new buffer when written to, see
+     * {@link #getWritableBuffer()}
+     * 
+     * @param data
+     * @throws IllegalArgumentException If buffer has already been created or data remaining is not byteLength
+     */
+    public void bind(ByteBuffer data) {
+        if (buffer != null) {
+            throw new IllegalArgumentException("Buffer already created");
+        }
+        if (data.remaining() != byteLength) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Remaining " + data.remaining()
+                    + ", buffer byteLength is " + byteLength);
+        }
+        buffer = data.slice().asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+        mapped = true;
+    }
+
+    /**
+     * Makes the buffer readonly so that it can be shared, for instance by cached assets. After this call
+     * {@link #getWritableBuffer()}, and all methods that write to the buffer, throw IllegalArgumentException.
+     * Buffers that are loaded on demand are made readonly when loaded.
+     */
+    public synchronized void share() {
+        shared = true;
+        if (buffer != null && !mapped) {
+            buffer = buffer.asReadOnlyBuffer().order(buffer.order());
+            mapped = true;
+        }
+    }
+
+    /**
+     * Returns true if the buffer is shared and cannot be written to, see {@link #share()}
+     * 
+     * @return
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Returns true if the storage is readonly data that is not owned by this buffer, see {@link #map(String)}
+     * and {@link #bind(ByteBuffer)}
+     * 
+     * @return
+     */
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    /**
+     * Returns the backing bytebuffer to be written to - if the buffer is mapped the contents is first copied to
+     * a new buffer that replaces the mapping.
+     * All writes must use this method, a buffer that is loaded on demand is marked as written to and will not be
+     * released - writes through {@link #getBuffer()} are lost when the buffer is released and loaded again.
+     * Internal method - this method is NOT threadsafe.
+     * 
+     * @return
+     * @throws IllegalArgumentException If the buffer is shared, see {@link #share()}
+     */
+    public ByteBuffer getWritableBuffer() {
+        if (shared) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_STATE.message + "Buffer is shared and readonly "
+                    + uri);
+        }
+        synchronized (this) {
+            // Set before the storage is fetched so that it is not released by BufferResidency while written to
+            dirty = true;
+        }
+        ByteBuffer source = getBuffer();
+        if (mapped) {
+            ByteBuffer copy = Buffers.createByteBuffer(byteLength);
+            copy.put(source.duplicate().clear());
+            buffer = copy.clear();
+            mapped = false;
+        }
+        return buffer;
+    }
+
     /**
      * Stores the float array at position
      * 
@@ -139,6 +373,8 @@ public class JSONBuffer extends NamedValue {
      * @param position Position, in floats, where to start storing data
      */
     public void put(float[] floatData, int position) {
+        // Copies the data if mapped
+        getWritableBuffer();
         buffer.position(position * Float.BYTES);
         FloatBuffer fb = buffer.asFloatBuffer();
         fb.put(floatData);
@@ -152,6 +388,7 @@ public class JSONBuffer extends NamedValue {
      * @param source
      */
     public void put(JSONAccessor source) {
+        getWritableBuffer();
         JSONBufferView view = source.getBufferView();
         ByteBuffer sourceBuffer = source.getBuffer();
         int limit = sourceBuffer.limit();
@@ -177,18 +414,28 @@ public class JSONBuffer extends NamedValue {
     }
 
     /**
-     * Returns the backing bytebuffer.
-     * Internal method DO NOT USE - use {@link #getAsReadBuffer(int, int)}
+     * Returns the backing bytebuffer, this is readonly if the buffer is mapped. Do not write to the returned
+     * buffer, use {@link #getWritableBuffer()}
+     * Internal method DO NOT USE - use {@link #getAsReadBuffer(int, int)} or {@link #getWritableBuffer()}
+     * If the buffer is loaded on demand the contents is loaded when this method is first called, see
+     * {@link #setLazy(String, boolean)}
      * This method is NOT threadsafe.
      * 
      * @return
      */
     public ByteBuffer getBuffer() {
-        if (buffer == null) {
+        ByteBuffer result = buffer;
+        if (result == null && lazyPath != null) {
+            result = materialize();
+        }
+        if (result == null) {
             throw new IllegalArgumentException(
                     ErrorMessage.INVALID_STATE.message + "ByteBuffer is null, must create buffer and load contents");
         }
-        return buffer;
+        if (lazyPath != null) {
+            lastUse = BufferResidency.nextUse();
+        }
+        return result;
     }
 
     /**
@@ -206,12 +453,9 @@ public class JSONBuffer extends NamedValue {
      * @return
      */
     public ByteBuffer getAsReadBuffer(int byteOffset, int length) {
-        if (buffer == null) {
-            throw new IllegalArgumentException(
-                    ErrorMessage.INVALID_STATE.message + "ByteBuffer is null, must create buffer and load contents");
-        }
-        ByteBuffer bb = buffer.asReadOnlyBuffer();
-        bb.order(buffer.order());
+        ByteBuffer source = getBuffer();
+        ByteBuffer bb = source.asReadOnlyBuffer();
+        bb.order(source.order());
         if (byteOffset + length > bb.capacity()) {
             // Must create a new bytebuffer and copy contents to it
             ByteBuffer newBuffer = Buffers.createByteBuffer(length);
@@ -229,12 +473,9 @@ public class JSONBuffer extends NamedValue {
      * @return
      */
     public ByteBuffer getAsReadBuffer() {
-        if (buffer == null) {
-            throw new IllegalArgumentException(
-                    ErrorMessage.INVALID_STATE.message + "ByteBuffer is null, must create buffer and load contents");
-        }
-        ByteBuffer bb = buffer.asReadOnlyBuffer();
-        bb.order(buffer.order());
+        ByteBuffer source = getBuffer();
+        ByteBuffer bb = source.asReadOnlyBuffer();
+        bb.order(source.order());
         bb.position(0);
         return bb;
     }
@@ -247,6 +488,7 @@ public class JSONBuffer extends NamedValue {
      * @throws BufferOverFlowException if source.remaining() > remaining in this buffer
      */
     public void put(ByteBuffer source, int position) {
+        getWritableBuffer();
         buffer.position(position);
         int limit = source.limit();
         source.limit(source.position() + byteLength);
@@ -296,4 +538,32 @@ public class JSONBuffer extends NamedValue {
         return result;
     }
 
+    /**
+     * Reads buffers without reflection, registered by {@link JSONTypeAdapter.Factory}
+     */
+    public static class BufferTypeAdapter extends JSONTypeAdapter<JSONBuffer> {
+
+        @Override
+        protected JSONBuffer create() {
+            return new JSONBuffer();
+        }
+
+        @Override
+        protected boolean read(JSONBuffer value, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case URI:
+                    value.uri = in.nextString();
+                    return true;
+                case BYTE_LENGTH:
+                    value.byteLength = in.nextInt();
+                    return true;
+                case NAME:
+                    value.name = in.nextString();
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
 }
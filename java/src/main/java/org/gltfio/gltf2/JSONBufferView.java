@@ -1,6 +1,7 @@
 
 package org.gltfio.gltf2;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 
 import org.gltfio.gltf2.JSONAccessor.ComponentType;
@@ -10,6 +11,7 @@ import org.gltfio.lib.Constants;
 import org.gltfio.lib.ErrorMessage;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 
 /**
  * 
@@ -247,7 +249,7 @@ public class JSONBufferView extends BaseObject {
      * @return
      */
     private ByteBuffer getByteBuffer() {
-        ByteBuffer byteBuffer = buffer.getBuffer();
+        ByteBuffer byteBuffer = buffer.getWritableBuffer();
         byteBuffer.limit(byteLength + byteOffset);
         byteBuffer.position(byteOffset);
         return byteBuffer;
@@ -383,19 +385,58 @@ public class JSONBufferView extends BaseObject {
      * @return number of elements copied
      */
     public void copy(int elementCount, int byteSize, ByteBuffer destination) {
-        if (byteStride > byteSize) {
+        // Use a view of the buffer so that copy can be done concurrently from the same buffer
+        ByteBuffer source = buffer.getBuffer().duplicate();
+        if (getByteStride() > byteSize) {
             // Interleaved frickin data
             int offset = byteOffset;
             for (int i = 0; i < elementCount; i++) {
-                buffer.buffer.limit(offset + byteSize);
-                buffer.buffer.position(offset);
-                destination.put(buffer.buffer);
-                offset += byteStride;
+                source.limit(offset + byteSize);
+                source.position(offset);
+                destination.put(source);
+                offset += getByteStride();
             }
         } else {
-            buffer.buffer.limit(byteOffset + elementCount * byteSize);
-            buffer.buffer.position(byteOffset);
-            destination.put(buffer.buffer);
+            source.limit(byteOffset + elementCount * byteSize);
+            source.position(byteOffset);
+            destination.put(source);
+        }
+    }
+
+    /**
+     * Reads bufferviews without reflection, registered by {@link JSONTypeAdapter.Factory}
+     */
+    public static class BufferViewTypeAdapter extends JSONTypeAdapter<JSONBufferView> {
+
+        @Override
+        protected JSONBufferView create() {
+            return new JSONBufferView();
+        }
+
+        @Override
+        protected boolean read(JSONBufferView value, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case BUFFER:
+                    value.bufferIndex = in.nextInt();
+                    return true;
+                case BYTE_OFFSET:
+                    value.byteOffset = in.nextInt();
+                    return true;
+                case BYTE_LENGTH:
+                    value.byteLength = in.nextInt();
+                    return true;
+                case BYTE_STRIDE:
+                    value.byteStride = in.nextInt();
+                    return true;
+                case TARGET:
+                    value.targetValue = in.nextInt();
+                    return true;
+                case NAME:
+                    value.name = in.nextString();
+                    return true;
+                default:
+                    return false;
+            }
         }
     }
 
@@ -1,11 +1,13 @@
 
 package org.gltfio.gltf2;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.gltfio.gltf2.JSONTexture.Channel;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import org.gltfio.lib.BitFlags;
 import org.gltfio.lib.Constants;
 import org.gltfio.lib.ErrorMessage;
@@ -129,4 +131,35 @@ public class JSONImage extends NamedValue {
         return img;
     }
 
+    /**
+     * Reads images without reflection, registered by {@link JSONTypeAdapter.Factory}
+     */
+    public static class ImageTypeAdapter extends JSONTypeAdapter<JSONImage> {
+
+        @Override
+        protected JSONImage create() {
+            return new JSONImage();
+        }
+
+        @Override
+        protected boolean read(JSONImage value, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case URI:
+                    value.uri = in.nextString();
+                    return true;
+                case MIME_TYPE:
+                    value.mimeType = in.nextString();
+                    return true;
+                case BUFFER_VIEW:
+                    value.bufferView = in.nextInt();
+                    return true;
+                case NAME:
+                    value.name = in.nextString();
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
 }
@@ -1,6 +1,7 @@
 
 package org.gltfio.gltf2;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -19,6 +20,7 @@ import org.gltfio.lib.MatrixUtils;
 import org.gltfio.lib.Transform;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 
 /**
  * The Node as it is loaded using the glTF format.
@@ -665,4 +667,48 @@ public class JSONNode<M extends JSONMesh<?>> extends NamedValue implements Runti
         return bounds;
     }
 
+    /**
+     * Reads nodes without reflection, registered by {@link JSONTypeAdapter.Factory}
+     */
+    @SuppressWarnings("rawtypes")
+    public static class NodeTypeAdapter extends JSONTypeAdapter<JSONNode> {
+
+        @Override
+        protected JSONNode create() {
+            return new JSONNode();
+        }
+
+        @Override
+        protected boolean read(JSONNode value, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case MESH:
+                    value.mesh = in.nextInt();
+                    return true;
+                case CHILDREN:
+                    value.children = readIntArray(in);
+                    return true;
+                case CAMERA:
+                    value.camera = in.nextInt();
+                    return true;
+                case ROTATION:
+                    value.rotation = readFloatArray(in);
+                    return true;
+                case SCALE:
+                    value.scale = readFloatArray(in);
+                    return true;
+                case TRANSLATION:
+                    value.translation = readFloatArray(in);
+                    return true;
+                case MATRIX:
+                    value.matrix = readFloatArray(in);
+                    return true;
+                case NAME:
+                    value.name = in.nextString();
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
 }
@@ -1,6 +1,7 @@
 
 package org.gltfio.gltf2;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
@@ -22,6 +23,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 
 /**
  * The Primitive as it is loaded using the glTF format.
@@ -519,4 +521,50 @@ public class JSONPrimitive extends BaseObject implements RuntimeObject {
         return (HashMap<Attributes, Integer>) attributes.clone();
     }
 
+    /**
+     * Reads primitives without reflection, registered by {@link JSONTypeAdapter.Factory}
+     * Attributes that are not known are ignored, as in {@link HashMapTypeAdapter}
+     */
+    public static class PrimitiveTypeAdapter extends JSONTypeAdapter<JSONPrimitive> {
+
+        @Override
+        protected JSONPrimitive create() {
+            return new JSONPrimitive();
+        }
+
+        @Override
+        protected boolean read(JSONPrimitive value, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case ATTRIBUTES:
+                    value.attributes = readAttributes(in);
+                    return true;
+                case INDICES:
+                    value.indicesIndex = in.nextInt();
+                    return true;
+                case MATERIAL:
+                    value.material = in.nextInt();
+                    return true;
+                case MODE:
+                    value.modeValue = in.nextInt();
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private HashMap<Attributes, Integer> readAttributes(JsonReader in) throws IOException {
+            HashMap<Attributes, Integer> result = new HashMap<Attributes, Integer>();
+            in.beginObject();
+            while (in.hasNext()) {
+                Attributes a = Attributes.get(in.nextName());
+                int number = in.nextInt();
+                if (a != null) {
+                    result.put(a, number);
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    }
+
 }
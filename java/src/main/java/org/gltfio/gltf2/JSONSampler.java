@@ -1,7 +1,10 @@
 
 package org.gltfio.gltf2;
 
+import java.io.IOException;
+
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 
 /**
  * sampler
@@ -163,4 +166,39 @@ public class JSONSampler extends NamedValue {
     public String toString() {
         return "Min " + minFilter + ", Mag " + magFilter + ", WrapS " + wrapS + ", WrapT " + wrapT;
     }
+
+    /**
+     * Reads samplers without reflection, registered by {@link JSONTypeAdapter.Factory}
+     */
+    public static class SamplerTypeAdapter extends JSONTypeAdapter<JSONSampler> {
+
+        @Override
+        protected JSONSampler create() {
+            return new JSONSampler();
+        }
+
+        @Override
+        protected boolean read(JSONSampler value, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case MAG_FILTER:
+                    value.magFilter = in.nextInt();
+                    return true;
+                case MIN_FILTER:
+                    value.minFilter = in.nextInt();
+                    return true;
+                case WRAP_S:
+                    value.wrapS = in.nextInt();
+                    return true;
+                case WRAP_T:
+                    value.wrapT = in.nextInt();
+                    return true;
+                case NAME:
+                    value.name = in.nextString();
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
 }
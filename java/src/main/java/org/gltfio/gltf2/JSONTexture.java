@@ -1,6 +1,7 @@
 
 package org.gltfio.gltf2;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.gltfio.gltf2.extensions.EXTTextureWebp;
@@ -11,6 +12,7 @@ import org.gltfio.lib.Constants;
 import org.gltfio.lib.ErrorMessage;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 
 /**
  * 
@@ -422,4 +424,32 @@ public class JSONTexture extends NamedValue {
         return Math.max(1, (int) (Math.log(Math.min(width, height)) / Math.log(2)));
     }
 
+    /**
+     * Reads textures without reflection, registered by {@link JSONTypeAdapter.Factory}
+     */
+    public static class TextureTypeAdapter extends JSONTypeAdapter<JSONTexture> {
+
+        @Override
+        protected JSONTexture create() {
+            return new JSONTexture();
+        }
+
+        @Override
+        protected boolean read(JSONTexture value, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case SAMPLER:
+                    value.sampler = in.nextInt();
+                    return true;
+                case SOURCE:
+                    value.source = in.nextInt();
+                    return true;
+                case NAME:
+                    value.name = in.nextString();
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
 }
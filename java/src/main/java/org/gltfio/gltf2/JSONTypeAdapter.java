@@ -0,0 +1,167 @@
+package org.gltfio.gltf2;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Base for the type adapters that read the glTF model classes without reflection, numbers are read into the
+ * primitive fields without boxing. Writing is delegated to the reflective adapter.
+ * Properties that are not known by the adapter are skipped and properties with JSON null value keeps the default
+ * value, this is the same as the reflective adapter.
+ *
+ * @param <T> The model class
+ */
+public abstract class JSONTypeAdapter<T extends BaseObject> extends TypeAdapter<T> {
+
+    /**
+     * Creates the type adapters for the model classes, only the exact class is matched so that subclasses with
+     * additional fields are deserialized using reflection.
+     */
+    public static class Factory implements TypeAdapterFactory {
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            Class<?> raw = type.getRawType();
+            JSONTypeAdapter<?> adapter = null;
+            if (raw == JSONNode.class) {
+                adapter = new JSONNode.NodeTypeAdapter();
+            } else if (raw == JSONAccessor.class) {
+                adapter = new JSONAccessor.AccessorTypeAdapter();
+            } else if (raw == JSONBufferView.class) {
+                adapter = new JSONBufferView.BufferViewTypeAdapter();
+            } else if (raw == JSONBuffer.class) {
+                adapter = new JSONBuffer.BufferTypeAdapter();
+            } else if (raw == JSONPrimitive.class) {
+                adapter = new JSONPrimitive.PrimitiveTypeAdapter();
+            } else if (raw == JSONTexture.class) {
+                adapter = new JSONTexture.TextureTypeAdapter();
+            } else if (raw == JSONSampler.class) {
+                adapter = new JSONSampler.SamplerTypeAdapter();
+            } else if (raw == JSONImage.class) {
+                adapter = new JSONImage.ImageTypeAdapter();
+            }
+            if (adapter == null) {
+                return null;
+            }
+            adapter.gson = gson;
+            adapter.delegate = gson.getDelegateAdapter(this, type);
+            return (TypeAdapter<T>) adapter;
+        }
+    }
+
+    private static final String EXTENSIONS = "extensions";
+    private static final String EXTRAS = "extras";
+
+    private Gson gson;
+    private TypeAdapter<?> delegate;
+
+    /**
+     * Creates a new instance of the model class, with default values
+     *
+     * @return
+     */
+    protected abstract T create();
+
+    /**
+     * Reads the value of the named property into value, returns false if the property is not known by the adapter.
+     * Called when the JSON value is not null.
+     *
+     * @param value
+     * @param name
+     * @param in
+     * @return
+     * @throws IOException
+     */
+    protected abstract boolean read(T value, String name, JsonReader in) throws IOException;
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        T value = create();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+            } else if (!read(value, name, in) && !readBaseObject(value, name, in)) {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return value;
+    }
+
+    private boolean readBaseObject(T value, String name, JsonReader in) throws IOException {
+        switch (name) {
+            case EXTENSIONS:
+                value.setExtensions(gson.getAdapter(ExtensionObject.class).read(in));
+                return true;
+            case EXTRAS:
+                value.setExtras(gson.getAdapter(Extras.class).read(in));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+        ((TypeAdapter<T>) delegate).write(out, value);
+    }
+
+    /**
+     * Reads an array of numbers as float values
+     *
+     * @param in
+     * @return
+     * @throws IOException
+     */
+    protected static float[] readFloatArray(JsonReader in) throws IOException {
+        float[] result = new float[16];
+        int count = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (count == result.length) {
+                result = Arrays.copyOf(result, count * 2);
+            }
+            result[count++] = (float) in.nextDouble();
+        }
+        in.endArray();
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Reads an array of numbers as int values
+     *
+     * @param in
+     * @return
+     * @throws IOException
+     */
+    protected static int[] readIntArray(JsonReader in) throws IOException {
+        int[] result = new int[16];
+        int count = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (count == result.length) {
+                result = Arrays.copyOf(result, count * 2);
+            }
+            result[count++] = in.nextInt();
+        }
+        in.endArray();
+        return Arrays.copyOf(result, count);
+    }
+
+}
@@ -66,11 +66,13 @@ public abstract class StreamingGltf<T extends StreamingScene> extends AssetBaseO
                 internalChunkUpdate((MaterialStream) chunk);
                 break;
             case ATTRIBUTE:
+            case ATTRIBUTE_QUANTIZED:
                 internalChunkUpdate((VertexAttributeStream) chunk);
                 break;
             case INDICES_BYTE:
             case INDICES_SHORT:
             case INDICES_INT:
+            case INDICES_ENCODED:
                 internalChunkUpdate((IndicesStream) chunk);
             default:
         }
@@ -8,6 +8,7 @@ import org.gltfio.gltf2.extensions.GltfExtensions.ExtensionTypes;
 import org.gltfio.gltf2.extensions.JSONExtension;
 import org.gltfio.gltf2.extensions.KHREnvironmentMap.KHREnvironmentMapReference;
 import org.gltfio.gltf2.extensions.KHRLightsPunctual;
+import org.gltfio.gltf2.stream.AttributeQuantizer;
 import org.gltfio.gltf2.stream.IndicesStream;
 import org.gltfio.gltf2.stream.MaterialStream;
 import org.gltfio.gltf2.stream.MeshStream;
@@ -32,9 +33,12 @@ public abstract class StreamingScene extends BaseObject implements RenderableSce
     protected int primitiveCount;
 
     protected ArrayList<Integer>[] indexOffsets;
-    protected ArrayList<Integer>[] primitiveAttributeIndexes;
-    // Count up total number of attributes
-    protected int[] currentAttributeCount;
+    // Byte offset of each added attribute stream
+    protected ArrayList<Integer>[] primitiveAttributeOffsets;
+    // Dequantization parameters of each added attribute stream, null if the attributes are float
+    protected ArrayList<ArrayList<float[]>> attributeQuantization;
+    // Count up total number of attribute bytes
+    protected int[] currentAttributeOffset;
     // Count up total number of indices
     protected int[] currentIndicesCount;
     protected MinMax bounds;
@@ -189,13 +193,18 @@ public abstract class StreamingScene extends BaseObject implements RenderableSce
         materials = new JSONMaterial[stream.getMaterialCount()];
         meshes = new JSONMesh[stream.getMeshCount()];
         primitives = new PrimitiveStream[stream.getPrimitiveCount()];
-        currentAttributeCount = new int[Attributes.values().length];
+        currentAttributeOffset = new int[Attributes.values().length];
         currentIndicesCount = new int[IndexType.values().length];
         Attributes[] attributes = stream.getAttributeTypes();
         vertexBuffers = createVertexBuffers(attributes, stream.getAttributeCount(), AttributeSorter.getInstance()
                 .getSortOrder());
         indexBuffers = createIndexBuffers(indexCount);
-        primitiveAttributeIndexes = new ArrayList[AttributeSorter.getInstance().getSortOrder().length];
+        primitiveAttributeOffsets = new ArrayList[AttributeSorter.getInstance().getSortOrder().length];
+        int locations = AttributeSorter.getInstance().getSortOrder().length;
+        attributeQuantization = new ArrayList<ArrayList<float[]>>(locations);
+        for (int i = 0; i < locations; i++) {
+            attributeQuantization.add(null);
+        }
         indexOffsets = new ArrayList[IndexType.values().length];
     }
 
@@ -207,6 +216,7 @@ public abstract class StreamingScene extends BaseObject implements RenderableSce
                 if (sort[i] == attributes[index]) {
                     int count = attributeCount[index];
                     if (count > 0) {
+                        // Sized for float attributes, quantized attributes use less of the buffer
                         buffers[i] = new JSONBuffer(attributes[index].name(), count * VertexAttributeStream
                                 .getAttributeSizeInBytes(attributes[index]).size);
                     }
@@ -231,7 +241,7 @@ public abstract class StreamingScene extends BaseObject implements RenderableSce
 
     private ByteBuffer getDestinationBuffer(IndexType indexType) {
         int byteOffset = currentIndicesCount[indexType.index] * indexType.dataType.size;
-        ByteBuffer bb = indexBuffers[indexType.index].getBuffer();
+        ByteBuffer bb = indexBuffers[indexType.index].getWritableBuffer();
         bb.clear();
         return bb.position(byteOffset);
     }
@@ -259,6 +269,7 @@ public abstract class StreamingScene extends BaseObject implements RenderableSce
             case INDICES_BYTE:
             case INDICES_SHORT:
             case INDICES_INT:
+            case INDICES_ENCODED:
                 destination = getDestinationBuffer(indexType);
                 break;
             default:
@@ -266,14 +277,13 @@ public abstract class StreamingScene extends BaseObject implements RenderableSce
                         .getChunkType());
         }
         int currentPos = destination.position();
-        ByteBuffer payload = stream.getPayload();
         Logger.d(getClass(), "Adding " + count + " to " + stream.getChunkType() + " of " + indexCount[indexType.index]
                 + ", indexes at position " + currentPos + ", capacity=" + destination.capacity());
-        if (payload.remaining() != count * indexType.dataType.size) {
+        if (!stream.isEncoded() && stream.getPayload().remaining() != count * indexType.dataType.size) {
             throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + ", invalid size of payload "
-                    + payload.remaining());
+                    + stream.getPayload().remaining());
         }
-        destination.put(payload);
+        stream.getIndices(destination);
         if (destination.position() != currentPos + count * indexType.dataType.size) {
             throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + ", invalid payload for " + stream
                     .getType());
@@ -288,7 +298,10 @@ public abstract class StreamingScene extends BaseObject implements RenderableSce
     }
 
     /**
-     * Adds vertex attributes from the stream
+     * Adds vertex attributes from the stream.
+     * Quantized attributes are stored as they are, 16 bit data, with the dequantization parameters - see
+     * {@link #getQuantization(PrimitiveStream, Attributes)}. To get float attributes the stream must be dequantized
+     * when read, see {@link org.gltfio.glb2.Glb2Reader#setDequantize(boolean)}
      * 
      * @param stream
      */
@@ -299,13 +312,20 @@ public abstract class StreamingScene extends BaseObject implements RenderableSce
         if (index < 0) {
             throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Unknown attribute: " + va.type);
         }
-        ByteBuffer destination = getDestinationBuffer(va, index);
+        ByteBuffer destination = getDestinationBuffer(index);
         int currentPos = destination.position();
         ByteBuffer payload = stream.getPayload();
-        Logger.d(getClass(), "Adding " + count + " to " + currentAttributeCount[index]
-                + " of " + getAttributeCount(va) + ", elements at position " + currentPos + ", capacity=" + destination
-                        .capacity());
-        int sizeInBytes = stream.getAttributeType().dataType.size;
+        Logger.d(getClass(), "Adding " + count + " " + va.type + " of " + getAttributeCount(va)
+                + ", elements at position " + currentPos + ", capacity=" + destination.capacity());
+        int sizeInBytes = va.dataType.size;
+        float[] quantization = null;
+        if (stream.isQuantized()) {
+            quantization = new float[AttributeQuantizer.getParameterSize(va.type) / Float.BYTES];
+            for (int i = 0; i < quantization.length; i++) {
+                quantization[i] = payload.getFloat();
+            }
+            sizeInBytes = AttributeQuantizer.getComponentCount(va.type) * Short.BYTES;
+        }
         if (payload.remaining() != count * sizeInBytes) {
             throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + ", invalid size of payload "
                     + payload.remaining());
@@ -316,11 +336,13 @@ public abstract class StreamingScene extends BaseObject implements RenderableSce
                     + stream.getAttributeType());
         }
         destination.flip();
-        if (primitiveAttributeIndexes[index] == null) {
-            primitiveAttributeIndexes[index] = new ArrayList<Integer>();
+        if (primitiveAttributeOffsets[index] == null) {
+            primitiveAttributeOffsets[index] = new ArrayList<Integer>();
+            attributeQuantization.set(index, new ArrayList<float[]>());
         }
-        primitiveAttributeIndexes[index].add(currentAttributeCount[index]);
-        currentAttributeCount[index] += count;
+        primitiveAttributeOffsets[index].add(currentPos);
+        attributeQuantization.get(index).add(quantization);
+        currentAttributeOffset[index] += count * sizeInBytes;
     }
 
     private void addPrimitives(PrimitiveStream... primitiveStreams) {
@@ -342,12 +364,10 @@ public abstract class StreamingScene extends BaseObject implements RenderableSce
         addPrimitives(stream.getPrimitives());
     }
 
-    private ByteBuffer getDestinationBuffer(VertexAttribute va, int index) {
-        int sizeInBytes = va.dataType.size;
-        int byteOffset = currentAttributeCount[index] * sizeInBytes;
-        ByteBuffer bb = vertexBuffers[index].getBuffer();
+    private ByteBuffer getDestinationBuffer(int index) {
+        ByteBuffer bb = vertexBuffers[index].getWritableBuffer();
         bb.clear();
-        return bb.position(byteOffset);
+        return bb.position(currentAttributeOffset[index]);
     }
 
     private int getAttributeCount(VertexAttribute va) {
@@ -430,7 +450,8 @@ public abstract class StreamingScene extends BaseObject implements RenderableSce
     }
 
     /**
-     * Returns the bytebuffer for attribute
+     * Returns the bytebuffer for attribute, if the attribute is quantized this is the 16 bit data - see
+     * {@link #getQuantization(PrimitiveStream, Attributes)}
      * 
      * @param p
      * @param attribute
@@ -446,9 +467,29 @@ public abstract class StreamingScene extends BaseObject implements RenderableSce
             return null;
         }
         int location = AttributeSorter.getInstance().getLocation(attribute);
-        int size = VertexAttributeStream.getAttributeSizeInBytes(attribute).size;
-        int attribIndex = primitiveAttributeIndexes[location].get(index);
-        return b.getAsReadBuffer(attribIndex * size, p.getVertexCount() * size);
+        int size = attributeQuantization.get(location).get(index) != null
+                ? AttributeQuantizer.getComponentCount(attribute) * Short.BYTES
+                : VertexAttributeStream.getAttributeSizeInBytes(attribute).size;
+        return b.getAsReadBuffer(primitiveAttributeOffsets[location].get(index), p.getVertexCount() * size);
+    }
+
+    /**
+     * Returns the dequantization parameters for the attribute, or null if the attribute is float.
+     * For POSITION and TEXCOORD this is the offset followed by the scale, one value for each component, where
+     * value = offset + q * scale. For NORMAL the array is empty, the data is octahedral encoded.
+     * See {@link AttributeQuantizer}
+     * 
+     * @param p
+     * @param attribute
+     * @return
+     */
+    public float[] getQuantization(PrimitiveStream p, Attributes attribute) {
+        int index = p.getAttributeIndex(attribute);
+        int location = AttributeSorter.getInstance().getLocation(attribute);
+        if (index == -1 || location < 0 || attributeQuantization.get(location) == null) {
+            return null;
+        }
+        return attributeQuantization.get(location).get(index);
     }
 
 }
@@ -131,7 +131,8 @@ public class VanillaStreamingGltf extends StreamingGltf<VanillaStreamingScene> {
             this.name = stream.getName();
             this.setRoot(scene);
             setMesh(stream.getMeshIndex());
-            this.nodeMesh = super.getMesh();
+            int meshIndex = stream.getMeshIndex();
+            this.nodeMesh = meshIndex >= 0 ? (VanillaStreamingMesh) meshes[meshIndex] : null;
             this.transform = new Transform();
             transform.set(stream.getTRS());
             children = new int[stream.getChildCount()];
@@ -0,0 +1,249 @@
+package org.gltfio.gltf2.stream;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import org.gltfio.gltf2.JSONAccessor;
+import org.gltfio.gltf2.JSONAccessor.ComponentType;
+import org.gltfio.gltf2.JSONPrimitive.Attributes;
+import org.gltfio.lib.ErrorMessage;
+
+/**
+ * Quantization of float vertex attributes to 16 bit values, used by the ATTRIBUTE_QUANTIZED chunk.
+ * The parameters for dequantization are stored before the quantized data:
+ * POSITION - VEC3 offset, VEC3 scale, data is int16 XYZ, value = offset + q * scale
+ * TEXCOORD - VEC2 offset, VEC2 scale, data is uint16 UV, value = offset + q * scale
+ * NORMAL - no parameters, data is octahedral encoded int16 XY normalized to -1 - 1
+ * Offset and scale are calculated from the bounds of the data in the chunk.
+ */
+public class AttributeQuantizer {
+
+    private static final float SNORM16 = 32767f;
+    private static final float UNORM16 = 65535f;
+
+    private AttributeQuantizer() {
+    }
+
+    /**
+     * Returns true if the accessor data for the attribute can be quantized
+     *
+     * @param attribute
+     * @param accessor
+     * @return
+     */
+    public static boolean isSupported(Attributes attribute, JSONAccessor accessor) {
+        if (accessor == null || accessor.getComponentType() != ComponentType.FLOAT) {
+            return false;
+        }
+        switch (attribute) {
+            case POSITION:
+                return accessor.getType() == JSONAccessor.POSITION_TYPE;
+            case NORMAL:
+                return accessor.getType() == JSONAccessor.NORMAL_TYPE;
+            case TEXCOORD_0:
+            case TEXCOORD_1:
+            case TEXCOORD_2:
+            case TEXCOORD_3:
+                return accessor.getType() == JSONAccessor.TEXCOORD_TYPE;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns the number of 16 bit components for one quantized attribute
+     *
+     * @param attribute
+     * @return
+     */
+    public static int getComponentCount(Attributes attribute) {
+        return attribute == Attributes.POSITION ? 3 : 2;
+    }
+
+    /**
+     * Returns the number of float components for one dequantized attribute
+     *
+     * @param attribute
+     * @return
+     */
+    public static int getFloatCount(Attributes attribute) {
+        return attribute == Attributes.TEXCOORD_0 || attribute == Attributes.TEXCOORD_1
+                || attribute == Attributes.TEXCOORD_2 || attribute == Attributes.TEXCOORD_3 ? 2 : 3;
+    }
+
+    /**
+     * Returns the size in bytes of the dequantization parameters
+     *
+     * @param attribute
+     * @return
+     */
+    public static int getParameterSize(Attributes attribute) {
+        return attribute == Attributes.NORMAL ? 0 : 2 * getFloatCount(attribute) * Float.BYTES;
+    }
+
+    /**
+     * Returns the size in bytes of count quantized attributes, including parameters
+     *
+     * @param attribute
+     * @param count
+     * @return
+     */
+    public static int getByteSize(Attributes attribute, int count) {
+        return getParameterSize(attribute) + count * getComponentCount(attribute) * Short.BYTES;
+    }
+
+    /**
+     * Quantizes count float attributes from source and stores parameters and quantized data in destination
+     *
+     * @param attribute
+     * @param source
+     * @param count
+     * @param destination
+     */
+    public static void quantize(Attributes attribute, FloatBuffer source, int count, ByteBuffer destination) {
+        switch (attribute) {
+            case POSITION:
+                quantizeRange(source, count, 3, SNORM16, destination);
+                break;
+            case TEXCOORD_0:
+            case TEXCOORD_1:
+            case TEXCOORD_2:
+            case TEXCOORD_3:
+                quantizeRange(source, count, 2, UNORM16, destination);
+                break;
+            case NORMAL:
+                quantizeNormals(source, count, destination);
+                break;
+            default:
+                throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Can not quantize "
+                        + attribute);
+        }
+    }
+
+    /**
+     * Reads parameters and quantized data from source and stores count dequantized float attributes in
+     * destination.
+     *
+     * @param attribute
+     * @param source Positioned at parameters
+     * @param count
+     * @param destination
+     */
+    public static void dequantize(Attributes attribute, ByteBuffer source, int count, FloatBuffer destination) {
+        switch (attribute) {
+            case POSITION:
+                dequantizeRange(source, count, 3, true, destination);
+                break;
+            case TEXCOORD_0:
+            case TEXCOORD_1:
+            case TEXCOORD_2:
+            case TEXCOORD_3:
+                dequantizeRange(source, count, 2, false, destination);
+                break;
+            case NORMAL:
+                dequantizeNormals(source, count, destination);
+                break;
+            default:
+                throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Can not dequantize "
+                        + attribute);
+        }
+    }
+
+    private static void quantizeRange(FloatBuffer source, int count, int components, float range,
+            ByteBuffer destination) {
+        float[] min = new float[components];
+        float[] max = new float[components];
+        Arrays.fill(min, Float.MAX_VALUE);
+        Arrays.fill(max, -Float.MAX_VALUE);
+        int start = source.position();
+        for (int i = 0; i < count * components; i++) {
+            float v = source.get(start + i);
+            int c = i % components;
+            min[c] = Math.min(min[c], v);
+            max[c] = Math.max(max[c], v);
+        }
+        boolean signed = range == SNORM16;
+        float[] offset = new float[components];
+        float[] scale = new float[components];
+        for (int c = 0; c < components; c++) {
+            if (count == 0) {
+                min[c] = 0;
+                max[c] = 0;
+            }
+            offset[c] = signed ? (min[c] + max[c]) / 2 : min[c];
+            float extent = signed ? (max[c] - min[c]) / 2 : max[c] - min[c];
+            scale[c] = extent / range;
+        }
+        for (int c = 0; c < components; c++) {
+            destination.putFloat(offset[c]);
+        }
+        for (int c = 0; c < components; c++) {
+            destination.putFloat(scale[c]);
+        }
+        for (int i = 0; i < count * components; i++) {
+            int c = i % components;
+            float q = scale[c] != 0 ? (source.get(start + i) - offset[c]) / scale[c] : 0;
+            int value = Math.round(q);
+            value = signed ? Math.max(-32767, Math.min(32767, value)) : Math.max(0, Math.min(65535, value));
+            destination.putShort((short) value);
+        }
+    }
+
+    private static void dequantizeRange(ByteBuffer source, int count, int components, boolean signed,
+            FloatBuffer destination) {
+        float[] offset = new float[components];
+        float[] scale = new float[components];
+        for (int c = 0; c < components; c++) {
+            offset[c] = source.getFloat();
+        }
+        for (int c = 0; c < components; c++) {
+            scale[c] = source.getFloat();
+        }
+        for (int i = 0; i < count * components; i++) {
+            int c = i % components;
+            short q = source.getShort();
+            destination.put(offset[c] + (signed ? q : (q & 0x0ffff)) * scale[c]);
+        }
+    }
+
+    private static void quantizeNormals(FloatBuffer source, int count, ByteBuffer destination) {
+        int start = source.position();
+        for (int i = 0; i < count; i++) {
+            float x = source.get(start + i * 3);
+            float y = source.get(start + i * 3 + 1);
+            float z = source.get(start + i * 3 + 2);
+            float length = Math.abs(x) + Math.abs(y) + Math.abs(z);
+            if (length > 0) {
+                x /= length;
+                y /= length;
+                z /= length;
+            } else {
+                z = 1;
+            }
+            if (z < 0) {
+                float ox = (1 - Math.abs(y)) * (x >= 0 ? 1 : -1);
+                y = (1 - Math.abs(x)) * (y >= 0 ? 1 : -1);
+                x = ox;
+            }
+            destination.putShort((short) Math.round(Math.max(-1f, Math.min(1f, x)) * SNORM16));
+            destination.putShort((short) Math.round(Math.max(-1f, Math.min(1f, y)) * SNORM16));
+        }
+    }
+
+    private static void dequantizeNormals(ByteBuffer source, int count, FloatBuffer destination) {
+        for (int i = 0; i < count; i++) {
+            float x = source.getShort() / SNORM16;
+            float y = source.getShort() / SNORM16;
+            float z = 1 - Math.abs(x) - Math.abs(y);
+            float t = Math.max(-z, 0);
+            x += x >= 0 ? -t : t;
+            y += y >= 0 ? -t : t;
+            float length = (float) Math.sqrt(x * x + y * y + z * z);
+            destination.put(x / length);
+            destination.put(y / length);
+            destination.put(z / length);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.gltfio.gltf2.stream;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.gltfio.gltf2.stream.SubStream.Compression;
+import org.gltfio.lib.ErrorMessage;
+import org.gltfio.lib.LZCodec;
+
+/**
+ * Decompresses chunk payloads, the Inflater is kept between calls so that decompressing many chunks does not
+ * allocate. LZ is decoded directly from the data into the destination buffer.
+ * Not threadsafe - use one instance per thread and call {@link #end()} when done.
+ */
+public class Decompressor {
+
+    private final Inflater inflater = new Inflater();
+
+    /**
+     * Decompress the remaining data into destination, destination must have the exact remaining size of the
+     * uncompressed data.
+     *
+     * @param data
+     * @param destination
+     * @param compression The compression used for data, ZLIB or LZ
+     * @return Number of bytes decompressed
+     * @throws DataFormatException If the data is invalid or the uncompressed size does not match remaining
+     * in destination
+     */
+    public int decompress(ByteBuffer data, ByteBuffer destination, Compression compression)
+            throws DataFormatException {
+        switch (compression) {
+            case ZLIB:
+                return inflate(data, destination);
+            case LZ:
+                int length = destination.remaining();
+                int decompressed = LZCodec.decompress(data, destination);
+                if (decompressed != length) {
+                    throw new DataFormatException(ErrorMessage.INVALID_VALUE.message
+                            + "Uncompressed size does not match, " + decompressed + " bytes decompressed");
+                }
+                return length;
+            default:
+                throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Compression "
+                        + compression);
+        }
+    }
+
+    private int inflate(ByteBuffer data, ByteBuffer destination) throws DataFormatException {
+        inflater.reset();
+        inflater.setInput(data);
+        int total = 0;
+        while (!inflater.finished() && destination.hasRemaining()) {
+            int inflated = inflater.inflate(destination);
+            if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                break;
+            }
+            total += inflated;
+        }
+        if (!inflater.finished() || destination.hasRemaining()) {
+            throw new DataFormatException(ErrorMessage.INVALID_VALUE.message + "Uncompressed size does not match, "
+                    + total + " bytes inflated");
+        }
+        return total;
+    }
+
+    /**
+     * Releases the resources used, the decompressor must not be used after calling this method.
+     */
+    public void end() {
+        inflater.end();
+    }
+
+}
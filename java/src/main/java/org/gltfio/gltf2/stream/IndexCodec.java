@@ -0,0 +1,138 @@
+package org.gltfio.gltf2.stream;
+
+import java.nio.ByteBuffer;
+
+import org.gltfio.gltf2.stream.PrimitiveStream.IndexType;
+import org.gltfio.lib.ErrorMessage;
+
+/**
+ * Encoding of index data used by the INDICES_ENCODED chunk.
+ * Each index is stored as the difference to the previous index (starting at 0), zig-zag encoded so that
+ * small negative values are small positive values, and written as a varint - 7 bits per byte with the
+ * high bit set if more bytes follows.
+ * Triangle lists usually reference vertices close to each other, most indices are stored in one or two bytes
+ * regardless of index type.
+ */
+public class IndexCodec {
+
+    private static final int MAX_VARINT_BYTES = 5;
+
+    private IndexCodec() {
+    }
+
+    /**
+     * Returns the number of bytes needed to encode count indices from source, source position is not changed.
+     *
+     * @param source
+     * @param type
+     * @param count
+     * @return
+     */
+    public static int getEncodedSize(ByteBuffer source, IndexType type, int count) {
+        int pos = source.position();
+        int size = 0;
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            int index = getIndex(source, type, pos, i);
+            size += getVarintSize(zigzag(index - previous));
+            previous = index;
+        }
+        return size;
+    }
+
+    /**
+     * Encodes count indices from source into destination, source position is not changed.
+     *
+     * @param source
+     * @param type
+     * @param count
+     * @param destination
+     */
+    public static void encode(ByteBuffer source, IndexType type, int count, ByteBuffer destination) {
+        int pos = source.position();
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            int index = getIndex(source, type, pos, i);
+            int value = zigzag(index - previous);
+            while ((value & ~0x07f) != 0) {
+                destination.put((byte) ((value & 0x07f) | 0x080));
+                value >>>= 7;
+            }
+            destination.put((byte) value);
+            previous = index;
+        }
+    }
+
+    /**
+     * Decodes count indices from source and stores as type in destination
+     *
+     * @param source
+     * @param type
+     * @param count
+     * @param destination
+     */
+    public static void decode(ByteBuffer source, IndexType type, int count, ByteBuffer destination) {
+        int previous = 0;
+        switch (type) {
+            case BYTE:
+                for (int i = 0; i < count; i++) {
+                    previous += readDelta(source);
+                    destination.put((byte) previous);
+                }
+                break;
+            case SHORT:
+                for (int i = 0; i < count; i++) {
+                    previous += readDelta(source);
+                    destination.putShort((short) previous);
+                }
+                break;
+            case INT:
+                for (int i = 0; i < count; i++) {
+                    previous += readDelta(source);
+                    destination.putInt(previous);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + type);
+        }
+    }
+
+    private static int readDelta(ByteBuffer source) {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = source.get();
+            value |= (b & 0x07f) << shift;
+            shift += 7;
+        } while ((b & 0x080) != 0 && shift < MAX_VARINT_BYTES * 7);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int getIndex(ByteBuffer source, IndexType type, int pos, int i) {
+        switch (type) {
+            case BYTE:
+                return source.get(pos + i) & 0x0ff;
+            case SHORT:
+                return source.getShort(pos + i * 2) & 0x0ffff;
+            case INT:
+                return source.getInt(pos + i * 4);
+            default:
+                throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + type);
+        }
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int getVarintSize(int value) {
+        int size = 1;
+        while ((value & ~0x07f) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+}
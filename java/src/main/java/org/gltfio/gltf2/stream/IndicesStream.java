@@ -1,6 +1,7 @@
 package org.gltfio.gltf2.stream;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.HashMap;
 
 import org.gltfio.gltf2.JSONAccessor;
@@ -19,6 +20,10 @@ import org.gltfio.lib.Logger;
  * SIZE uint32 - the size in bytes of the chunk (including TYPE and SIZE)
  * COUNT uint32
  * INDICES[count]
+ * 
+ * If TYPE is INDICES_ENCODED the indices are stored as:
+ * INDEXTYPE ubyte - the index of the decoded IndexType
+ * ENCODED INDICES - count indices encoded as specified in {@link IndexCodec}
  */
 public class IndicesStream extends SubStream<JSONBufferView> {
 
@@ -35,8 +40,20 @@ public class IndicesStream extends SubStream<JSONBufferView> {
         setPayload(payload);
     }
 
+    /**
+     * Creates an encoded indices stream from payload - the indextype is read from payload
+     * 
+     * @param payload
+     */
+    public IndicesStream(ByteBuffer payload) {
+        super(Type.INDICES_ENCODED);
+        sizeInBytes = Constants.NO_VALUE; // NOT USED
+        setPayload(payload);
+    }
+
     public static final int INDICES_PAYLOAD_OFFSET = 4;
     public static final int HEADER_SIZE = INDICES_PAYLOAD_OFFSET + CHUNK_HEADER_SIZE;
+    public static final int ENCODED_PAYLOAD_OFFSET = INDICES_PAYLOAD_OFFSET + 1;
 
     private IndexType indexType;
     private JSONAccessor indices;
@@ -51,6 +68,20 @@ public class IndicesStream extends SubStream<JSONBufferView> {
      * Number of stream indexes, this is increased as data is sent
      */
     private int streamIndexCount = 0;
+    /**
+     * If true indices are encoded when serialized
+     */
+    private boolean encode = false;
+    /**
+     * Encoded indices of the current primitive, set by {@link #prepare(JSONBufferView)} and reused between
+     * primitives - only used when serializing
+     */
+    private transient ByteBuffer encoded;
+    /**
+     * True when the indices of the current primitive have been prepared
+     */
+    private transient boolean prepared = false;
+    private PayloadDeduplicator deduplicator;
 
     @Override
     public Type getType() {
@@ -64,6 +95,8 @@ public class IndicesStream extends SubStream<JSONBufferView> {
      */
     public IndexType getIndexType() {
         switch (chunkType) {
+            case INDICES_ENCODED:
+                return indexType;
             case INDICES_BYTE:
                 return IndexType.BYTE;
             case INDICES_SHORT:
@@ -81,11 +114,21 @@ public class IndicesStream extends SubStream<JSONBufferView> {
         count = payload.getInt();
         this.payload = payload;
         switch (chunkType) {
+            case INDICES_ENCODED:
+                indexType = IndexType.get(payload.get());
+                if (indexType == null) {
+                    throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Invalid index type");
+                }
+                break;
             case INDICES_SHORT:
                 Logger.d(getClass(), "INDEXES: " + Buffers.toString(payload.asShortBuffer(), 0, 100, -1));
                 break;
+            case INDICES_BYTE:
+            case INDICES_INT:
+                break;
             default:
-                throw new IllegalArgumentException();
+                throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Invalid stream type "
+                        + chunkType);
         }
 
     }
@@ -98,9 +141,95 @@ public class IndicesStream extends SubStream<JSONBufferView> {
         if (indices == null) {
             throw new IllegalArgumentException("Indices is null, must call 'setPrimitive()'");
         }
+        if (isEncoded()) {
+            checkPrepared();
+            return encoded.remaining() + HEADER_SIZE + 1;
+        }
         return count * indexType.dataType.size + HEADER_SIZE;
     }
 
+    /**
+     * Prepares the indices of the current primitive to be serialized, call after
+     * {@link #setPrimitive(JSONPrimitive)} and before {@link #getByteSize(JSONBufferView)} or
+     * {@link #createBuffer(Object, int)}.
+     * If the stream is encoded the indices are encoded, reading the indices where they are stored.
+     * 
+     * @param data The bufferview of the indices
+     */
+    public void prepare(JSONBufferView data) {
+        if (isEncoded()) {
+            // Indices are tightly packed in the bufferview, read as little endian from a view of the buffer
+            ByteBuffer source = data.getBuffer().getBuffer().duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            source.position(data.getByteOffset());
+            int size = IndexCodec.getEncodedSize(source, indexType, count);
+            if (encoded == null || encoded.capacity() < size) {
+                encoded = ByteBuffer.allocate(size);
+            }
+            encoded.clear();
+            IndexCodec.encode(source, indexType, count, encoded);
+            encoded.flip();
+        }
+        prepared = true;
+    }
+
+    private void checkPrepared() {
+        if (!prepared) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_STATE.message
+                    + "Must call prepare() after setPrimitive()");
+        }
+    }
+
+    /**
+     * Enables or disables encoding of indices when serialized, only used when writing.
+     * 
+     * @param encode
+     */
+    public void setEncode(boolean encode) {
+        this.encode = encode;
+    }
+
+    /**
+     * Sets the deduplicator used to find indices with identical data, when a duplicate is found the stream
+     * index of the already serialized indices is used. Only used when writing, set to null to disable.
+     * 
+     * @param deduplicator
+     */
+    public void setDeduplicator(PayloadDeduplicator deduplicator) {
+        this.deduplicator = deduplicator;
+    }
+
+    /**
+     * Returns the stream index of the current primitive indices
+     * 
+     * @return
+     */
+    public int getStreamIndex() {
+        return streamIndex;
+    }
+
+    /**
+     * Returns true if the indices are encoded
+     * 
+     * @return
+     */
+    public boolean isEncoded() {
+        return chunkType == Type.INDICES_ENCODED;
+    }
+
+    /**
+     * Stores the indices in destination as the indextype, starting at current position in destination.
+     * If the stream is encoded the indices are decoded.
+     * 
+     * @param destination
+     */
+    public void getIndices(ByteBuffer destination) {
+        if (isEncoded()) {
+            IndexCodec.decode(payload.position(ENCODED_PAYLOAD_OFFSET), indexType, count, destination);
+        } else {
+            destination.put(getPayload());
+        }
+    }
+
     /**
      * Sets the primitive to the stream
      * 
@@ -111,9 +240,16 @@ public class IndicesStream extends SubStream<JSONBufferView> {
         indices = primitive.getIndices();
         indicesBufferIndex = primitive.getIndicesIndex();
         count = indices.getCount();
+        chunkType = encode ? Type.INDICES_ENCODED : indexType.streamType;
+        prepared = false;
         streamIndex = getStreamIndex(indicesBufferIndex);
         if (streamIndex == Constants.NO_VALUE) {
-            streamIndex = addBufferIndex(indicesBufferIndex);
+            if (deduplicator != null) {
+                streamIndex = deduplicator.getStreamIndex(this, indices, () -> streamIndexCount++);
+                indexMap.put(indicesBufferIndex, streamIndex);
+            } else {
+                streamIndex = addBufferIndex(indicesBufferIndex);
+            }
         }
         return true;
     }
@@ -121,6 +257,13 @@ public class IndicesStream extends SubStream<JSONBufferView> {
     @Override
     public void storeData(ByteBuffer buffer, JSONBufferView data, int index) {
         buffer.putInt(count);
+        if (isEncoded()) {
+            checkPrepared();
+            buffer.put((byte) indexType.index);
+            buffer.put(encoded);
+            encoded.rewind();
+            return;
+        }
         if (count > 0) {
             buffer.position(HEADER_SIZE);
             data.copy(count, indexType.dataType.size, buffer);
@@ -130,12 +273,12 @@ public class IndicesStream extends SubStream<JSONBufferView> {
     }
 
     /**
-     * Returns payload as buffer
+     * Returns payload as buffer, if the stream is encoded the payload contains the encoded indices.
      * 
      * @return
      */
     public ByteBuffer getPayload() {
-        return payload.position(INDICES_PAYLOAD_OFFSET);
+        return payload.position(isEncoded() ? ENCODED_PAYLOAD_OFFSET : INDICES_PAYLOAD_OFFSET);
     }
 
     @Override
@@ -147,7 +290,8 @@ public class IndicesStream extends SubStream<JSONBufferView> {
     public int getHash() {
         final int prime = 31;
         int result = 1;
-        result = prime * result + getChunkType().hashCode();
+        // Use the type for decoded indices so that encoding does not change stream indexes
+        result = prime * result + indexType.streamType.hashCode();
         return result;
     }
 
@@ -0,0 +1,158 @@
+package org.gltfio.gltf2.stream;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.IntSupplier;
+
+import org.gltfio.gltf2.JSONAccessor;
+import org.gltfio.lib.Buffers;
+
+/**
+ * Finds accessors with identical data so that data is only streamed once, used when a scene is serialized.
+ * Accessors are matched on a 64 bit hash of the data, count and type - data of matching accessors is
+ * compared before the stream index is reused.
+ * The deduplicator keeps references to accessors, not the data. Data is hashed and compared where it is stored,
+ * using absolute positions so that the buffers are not changed or copied.
+ */
+public class PayloadDeduplicator {
+
+    private static class Entry {
+        private final int streamHash;
+        private final JSONAccessor accessor;
+        private final int streamIndex;
+
+        private Entry(int streamHash, JSONAccessor accessor, int streamIndex) {
+            this.streamHash = streamHash;
+            this.accessor = accessor;
+            this.streamIndex = streamIndex;
+        }
+    }
+
+    private final HashMap<Long, ArrayList<Entry>> entries = new HashMap<Long, ArrayList<Entry>>();
+    private int duplicateCount = 0;
+
+    /**
+     * Returns the stream index of previously streamed data that is identical to the accessor data.
+     * If there is no match the stream index is fetched from newStreamIndex and the accessor is added.
+     *
+     * @param stream The stream that data is serialized with
+     * @param accessor
+     * @param newStreamIndex Returns the stream index to use if data is not a duplicate
+     * @return
+     */
+    public int getStreamIndex(SubStream<?> stream, JSONAccessor accessor, IntSupplier newStreamIndex) {
+        long hash = hash(accessor);
+        int streamHash = stream.getHash();
+        ArrayList<Entry> list = entries.get(hash);
+        if (list == null) {
+            list = new ArrayList<Entry>();
+            entries.put(hash, list);
+        }
+        for (Entry e : list) {
+            if (e.streamHash == streamHash && isSameLayout(e.accessor, accessor) && isSameData(e.accessor,
+                    accessor)) {
+                duplicateCount++;
+                return e.streamIndex;
+            }
+        }
+        int streamIndex = newStreamIndex.getAsInt();
+        list.add(new Entry(streamHash, accessor, streamIndex));
+        return streamIndex;
+    }
+
+    /**
+     * Returns the number of accessors that was found to be duplicates
+     *
+     * @return
+     */
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /**
+     * Returns the 64 bit hash of the accessor data as it is stored by the streams
+     *
+     * @param accessor
+     * @return
+     */
+    protected long hash(JSONAccessor accessor) {
+        return Buffers.hash64(getBuffer(accessor), accessor.getBufferView().getByteOffset(), getElementSize(accessor),
+                accessor.getCount(), getStride(accessor));
+    }
+
+    private boolean isSameLayout(JSONAccessor a1, JSONAccessor a2) {
+        return a1.getCount() == a2.getCount() && a1.getComponentType() == a2.getComponentType()
+                && a1.getType() == a2.getType();
+    }
+
+    /**
+     * Compares the accessor data as it is stored by the streams, accessors must have the same layout
+     *
+     * @param a1
+     * @param a2
+     * @return
+     */
+    private boolean isSameData(JSONAccessor a1, JSONAccessor a2) {
+        ByteBuffer b1 = getBuffer(a1);
+        ByteBuffer b2 = getBuffer(a2);
+        boolean sameOrder = b1.order() == b2.order();
+        int size = getElementSize(a1);
+        int stride1 = getStride(a1);
+        int stride2 = getStride(a2);
+        int count = a1.getCount();
+        if (stride1 == size && stride2 == size) {
+            // Tightly packed, compare as one element
+            size = size * count;
+            count = 1;
+        }
+        int offset1 = a1.getBufferView().getByteOffset();
+        int offset2 = a2.getBufferView().getByteOffset();
+        for (int i = 0; i < count; i++) {
+            int index1 = offset1 + i * stride1;
+            int index2 = offset2 + i * stride2;
+            int end = index1 + size;
+            for (; index1 + Long.BYTES <= end; index1 += Long.BYTES) {
+                long value = b2.getLong(index2);
+                if (b1.getLong(index1) != (sameOrder ? value : Long.reverseBytes(value))) {
+                    return false;
+                }
+                index2 += Long.BYTES;
+            }
+            for (; index1 < end; index1++) {
+                if (b1.get(index1) != b2.get(index2++)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the buffer that holds the accessor data, the buffer shall only be read using absolute positions
+     *
+     * @param accessor
+     * @return
+     */
+    private ByteBuffer getBuffer(JSONAccessor accessor) {
+        return accessor.getBufferView().getBuffer().getBuffer();
+    }
+
+    private int getElementSize(JSONAccessor accessor) {
+        return accessor.getType().size * accessor.getComponentType().size;
+    }
+
+    /**
+     * Returns the distance between elements, the same way as
+     * {@link org.gltfio.gltf2.JSONBufferView#copy(int, int, ByteBuffer)} copies the data that is streamed
+     *
+     * @param accessor
+     * @return
+     */
+    private int getStride(JSONAccessor accessor) {
+        int stride = accessor.getBufferView().getByteStride();
+        int elementSize = getElementSize(accessor);
+        return stride > elementSize ? stride : elementSize;
+    }
+
+}
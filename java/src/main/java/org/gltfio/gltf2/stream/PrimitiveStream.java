@@ -105,7 +105,6 @@ public class PrimitiveStream extends SubStream<JSONPrimitive> {
         // mesh stream.
         ByteBuffer bb = createBuffer(getByteSize(data));
         storeData(bb, data, index);
-        compressAndUpdateHeader(bb);
         bb.position(0);
         return bb;
     }
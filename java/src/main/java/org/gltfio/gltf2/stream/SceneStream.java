@@ -4,7 +4,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 
-import org.gltfio.glb2.Glb2Writer;
+import org.gltfio.glb2.Glb2WriterSession;
 import org.gltfio.gltf2.JSONAccessor;
 import org.gltfio.gltf2.JSONGltf;
 import org.gltfio.gltf2.JSONMesh;
@@ -42,6 +42,13 @@ public class SceneStream extends SubStream<RenderableScene> {
 
     public static final int SIZE = CHUNK_HEADER_SIZE + 1 + 4 * DataType.uint32.size + 6 * DataType.uint32.size +
             3 * DataType.uint32.size;
+    /**
+     * Size of the scene chunk when all attribute types are present, the scene chunk is always written using this
+     * size so that space for it can be reserved before the other chunks are written.
+     * Unused attribute entries are zero.
+     */
+    public static final int MAX_SIZE = SIZE + Attributes.values().length * (DataType.uint32.size
+            + DataType.ubyte.size);
 
     private int primitiveCount = 0;
     private int meshCount = 0;
@@ -60,7 +67,8 @@ public class SceneStream extends SubStream<RenderableScene> {
     NodeStream nodeStream = new NodeStream();
     MeshStream meshStream = new MeshStream();
 
-    private transient Glb2Writer writer;
+    private transient Glb2WriterSession writer;
+    private transient PayloadDeduplicator deduplicator;
 
     /**
      * Creates a scenechunk from an existing scene - the scene must be a valid glTF scene.
@@ -68,17 +76,24 @@ public class SceneStream extends SubStream<RenderableScene> {
      * 
      * @param scene
      */
-    public SceneStream(Glb2Writer writer) {
+    public SceneStream(Glb2WriterSession writer) {
         super(Type.SCENE);
         this.writer = writer;
+        // Scene chunk is written into reserved space and must not change size
+        compression = Compression.NONE;
         attributes = Attributes.values();
         attributeCount = new int[attributes.length];
         bindingStreams = new VertexAttributeStream[attributes.length];
+        deduplicator = writer.getSettings().isDeduplicate() ? new PayloadDeduplicator() : null;
         for (int i = 0; i < bindingStreams.length; i++) {
             bindingStreams[i] = new VertexAttributeStream(attributes[i]);
+            bindingStreams[i].setQuantize(writer.getSettings().isQuantized(attributes[i]));
+            bindingStreams[i].setDeduplicator(deduplicator);
         }
         for (IndexType type : IndexType.values()) {
             indicesStreams[type.index] = new IndicesStream(type);
+            indicesStreams[type.index].setEncode(writer.getSettings().isEncodeIndices());
+            indicesStreams[type.index].setDeduplicator(deduplicator);
         }
     }
 
@@ -167,18 +182,22 @@ public class SceneStream extends SubStream<RenderableScene> {
         return indicesCount;
     }
 
-    private void writeNode(JSONNode node, JSONGltf glTF) throws IOException {
+    private void writeNode(int sceneNode, JSONNode node, JSONGltf glTF) throws IOException {
         nodeCount++;
-        int meshIndex = writeMesh(node.getMeshIndex(), glTF);
+        writer.setOwner(sceneNode, Constants.NO_VALUE);
+        int meshIndex = writeMesh(sceneNode, node.getMeshIndex(), glTF);
+        writer.setOwner(sceneNode, meshIndex);
         ByteBuffer bb = nodeStream.createBuffer(node, meshIndex);
         writer.serialize(nodeStream, -1, bb.position(0));
     }
 
-    private int writeMesh(int meshIndex, JSONGltf glTF) throws IOException {
+    private int writeMesh(int sceneNode, int meshIndex, JSONGltf glTF) throws IOException {
         int streamIndex = Constants.NO_VALUE;
-        if (meshIndex < 0) {
+        if (meshIndex >= 0) {
             streamIndex = writer.isSerialized(meshStream, meshIndex);
             if (streamIndex == Constants.NO_VALUE) {
+                // Meshes are given stream indexes in the order they are serialized
+                writer.setOwner(sceneNode, meshCount);
                 JSONMesh mesh = glTF.getMeshes()[meshIndex];
                 ByteBuffer[] primitives = writePrimitives(glTF, mesh.getPrimitives());
                 MeshStreamContainer msc = new MeshStreamContainer(mesh, primitives);
@@ -221,14 +240,14 @@ public class SceneStream extends SubStream<RenderableScene> {
         if (indicesIndex >= 0) {
             JSONAccessor indices = primitive.getIndices();
             IndexType indexType = IndexType.get(indices.getComponentType());
-            indicesStreamIndex = writer.isSerialized(indicesStreams[indexType.index], indicesIndex);
-            if (indicesStreamIndex == Constants.NO_VALUE) {
-                indicesStreams[indexType.index].setPrimitive(primitive);
-                ByteBuffer iBuffer = indicesStreams[indexType.index].createBuffer(primitive.getIndices()
-                        .getBufferView(), -1);
-                indicesStreamIndex = writer.serialize(indicesStreams[indexType.index], indicesIndex, iBuffer.position(
-                        0));
-                indicesCount[indexType.index] += indicesStreams[indexType.index].getIndexCount();
+            IndicesStream indicesStream = indicesStreams[indexType.index];
+            indicesStream.setPrimitive(primitive);
+            indicesStreamIndex = indicesStream.getStreamIndex();
+            if (writer.isSerialized(indicesStream, indicesStreamIndex) == Constants.NO_VALUE) {
+                indicesStream.prepare(indices.getBufferView());
+                ByteBuffer iBuffer = indicesStream.createBuffer(indices.getBufferView(), -1);
+                writer.serialize(indicesStream, indicesStreamIndex, iBuffer.position(0));
+                indicesCount[indexType.index] += indicesStream.getIndexCount();
             }
         }
         int[] bufferIndexes = writeAttributes(glTF, primitive);
@@ -270,7 +289,7 @@ public class SceneStream extends SubStream<RenderableScene> {
 
     @Override
     public int getByteSize(RenderableScene data) {
-        return SIZE + getAttributeTypes().length * (DataType.uint32.size + DataType.ubyte.size);
+        return MAX_SIZE;
     }
 
     /**
@@ -286,10 +305,10 @@ public class SceneStream extends SubStream<RenderableScene> {
             for (int i = 0; i < nodes.length; i++) {
                 JSONNode n = nodes[i];
                 if (n != null) {
-                    writeNode(n, glTF);
+                    writeNode(i, n, glTF);
                     for (JSONNode child : n.getChildNodes()) {
                         if (child != null) {
-                            writeNode(child, glTF);
+                            writeNode(i, child, glTF);
                         }
                     }
                 }
@@ -297,7 +316,8 @@ public class SceneStream extends SubStream<RenderableScene> {
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-        Logger.d(getClass(), "Serialized " + nodeCount + " nodes.");
+        Logger.d(getClass(), "Serialized " + nodeCount + " nodes." + (deduplicator != null ? " Found "
+                + deduplicator.getDuplicateCount() + " duplicated accessors." : ""));
     }
 
     @Override
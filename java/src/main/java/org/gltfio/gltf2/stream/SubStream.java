@@ -1,21 +1,19 @@
 package org.gltfio.gltf2.stream;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
-import java.util.zip.DeflaterOutputStream;
-import java.util.zip.Inflater;
 
 import org.gltfio.gltf2.JSONAccessor.ComponentType;
 import org.gltfio.gltf2.stream.SubStreamReader.ChunkStreamer;
 import org.gltfio.lib.ErrorMessage;
+import org.gltfio.lib.LZCodec;
 
 /**
  * Subchunk, holds data for a specific binary chunk.
@@ -37,7 +35,10 @@ import org.gltfio.lib.ErrorMessage;
  * be decompressed before used.
  * 0 = no compression
  * 1 = zlib
+ * 2 = LZ, byte oriented LZ77 as specified in {@link LZCodec}
  * SIZE uint32 - the size in bytes of the chunk (including TYPE and SIZE)
+ * UNCOMPRESSED SIZE uint32 - only present if COMPRESSION is not 0, the size in bytes of the payload after it
+ * has been decompressed.
  *
  */
 public abstract class SubStream<T> {
@@ -45,6 +46,7 @@ public abstract class SubStream<T> {
     public enum Compression {
         NONE(0),
         ZLIB(1),
+        LZ(2),
         DECOMPRESSED(255);
 
         public final int value;
@@ -53,13 +55,20 @@ public abstract class SubStream<T> {
             this.value = value;
         }
 
+        /**
+         * Returns the compression for the value
+         * 
+         * @param value
+         * @return
+         * @throws IllegalArgumentException If value is not a known compression, for instance 3 which is unused
+         */
         public static Compression get(int value) {
             for (Compression c : Compression.values()) {
                 if (value == c.value) {
                     return c;
                 }
             }
-            return null;
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Unknown compression " + value);
         }
 
     }
@@ -295,7 +304,10 @@ public abstract class SubStream<T> {
         INDICES_INT((byte) 6),
         ATTRIBUTE((byte) 7),
         SCENE((byte) 8),
-        MESH((byte) 9);
+        MESH((byte) 9),
+        ATTRIBUTE_QUANTIZED((byte) 10),
+        INDICES_ENCODED((byte) 11),
+        TOC((byte) 12);
 
         public final byte value;
 
@@ -322,9 +334,18 @@ public abstract class SubStream<T> {
     }
 
     public static final int COMPRESSION_SHIFT = 6;
+    public static final int COMPRESSION_MASK = 0x03;
     public static final int TYPE_MASK = 0x02f;
     public static final int CHUNK_HEADER_SIZE = 5;
+    /**
+     * Size of the uncompressed size field that follows the chunk header in compressed chunks
+     */
+    public static final int UNCOMPRESSED_SIZE_BYTES = 4;
     public static final int COMPRESS_CHUNK_MIN_SIZE = 100;
+    /**
+     * Compressed size, in relation to uncompressed, must be less than this for compression to be used.
+     */
+    public static final float MAX_COMPRESSION_RATIO = 0.9f;
 
     protected int sizeInBytes;
     protected Type chunkType;
@@ -393,6 +414,8 @@ public abstract class SubStream<T> {
 
     /**
      * Creates buffer for the object data to be serialized and stores the data.
+     * The data is not compressed, compression is done by the writer using {@link #compressChunk(ByteBuffer,
+     * Compression, int)}
      * 
      * @param data
      * @param index
@@ -402,20 +425,19 @@ public abstract class SubStream<T> {
     public ByteBuffer createBuffer(T data, int index) throws IOException {
         ByteBuffer bb = allocate(getByteSize(data), getType());
         storeData(bb, data, index);
-        compressAndUpdateHeader(bb);
         bb.position(0);
         return bb;
     }
 
     /**
-     * Store header data
+     * Store header data at position 0 in the buffer
      * 
      * @param buffer
      * @param type
      * @param compress
      * @param size
      */
-    protected void putHeader(ByteBuffer buffer, Type type, Compression compress, int size) {
+    protected static void putHeader(ByteBuffer buffer, Type type, Compression compress, int size) {
         buffer.position(0);
         buffer.put((byte) (type.value | (compress.value << COMPRESSION_SHIFT)));
         buffer.putInt(size);
@@ -432,44 +454,66 @@ public abstract class SubStream<T> {
         if (chunkType == null) {
             throw new IllegalArgumentException("Invalid data, no stream type: " + val);
         }
-        compression = Compression.get(val >> COMPRESSION_SHIFT);
+        compression = Compression.get((val >> COMPRESSION_SHIFT) & COMPRESSION_MASK);
         sizeInBytes = buffer.getInt();
     }
 
     /**
-     * Checks if compression = ZLIB, if so compress(buffer) is called and if the content is compressed then
-     * the header is update to reflect new size.
+     * Returns the compression that is used when this stream is serialized
      * 
-     * @param buffer
-     * @throws IOException
+     * @return
      */
-    protected void compressAndUpdateHeader(ByteBuffer buffer) throws IOException {
-        if (compression == Compression.ZLIB) {
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Compresses a serialized chunk, if size of data and compression ratio meets the criteria the chunk is
+     * compressed and the header updated to reflect the new size.
+     * The chunk must start at position 0 in the buffer, when this method returns the buffer is positioned at 0
+     * with limit set to the end of the chunk.
+     * This method does not use any stream state and may be called from any thread, as long as the buffer is not
+     * shared.
+     * 
+     * @param chunk
+     * @param compression Compression to use, if NONE the chunk is not compressed
+     * @param level The compression level, 0 - 9, only used for ZLIB
+     * @return True if the chunk was compressed
+     */
+    public static boolean compressChunk(ByteBuffer chunk, Compression compression, int level) {
+        boolean compressed = false;
+        if (compression == Compression.ZLIB || compression == Compression.LZ) {
             // Do not compress chunk header
-            buffer.position(CHUNK_HEADER_SIZE);
-            if (compress(buffer)) {
-                putHeader(buffer, Type.get(buffer.get(0)), compression, buffer.remaining() + CHUNK_HEADER_SIZE);
-            } else {
-                compression = Compression.NONE;
+            chunk.position(CHUNK_HEADER_SIZE);
+            if (compress(chunk, compression, level)) {
+                putHeader(chunk, Type.get(chunk.get(0)), compression, chunk.limit());
+                compressed = true;
             }
         }
+        chunk.position(0);
+        return compressed;
     }
 
     /**
      * Compresses the bytebuffer if size of data and compression ratio meets the criteria.
-     * Does not update the header
+     * If compressed the uncompressed size is stored as uint32 at the current position followed by the
+     * compressed data, limit is set to the end of compressed data. Does not update the header
      * 
      * @param data
+     * @param compression
+     * @param level
      * @return
-     * @throws IOException
      */
-    protected boolean compress(ByteBuffer data) throws IOException {
-        if (data.remaining() > COMPRESS_CHUNK_MIN_SIZE) {
+    protected static boolean compress(ByteBuffer data, Compression compression, int level) {
+        int size = data.remaining();
+        if (size > COMPRESS_CHUNK_MIN_SIZE) {
             int pos = data.position();
-            byte[] zippedCopy = compressData(data);
-            float ratio = (float) zippedCopy.length / data.capacity();
-            if (ratio < 0.9) {
-                data.position(pos);
+            int maxSize = (int) (size * MAX_COMPRESSION_RATIO) - UNCOMPRESSED_SIZE_BYTES;
+            byte[] zippedCopy = compression == Compression.LZ ? compressLZ(data, maxSize)
+                    : compressData(data, level, maxSize);
+            data.position(pos);
+            if (zippedCopy != null) {
+                data.putInt(size);
                 data.put(zippedCopy);
                 data.limit(data.position());
                 data.position(pos);
@@ -479,40 +523,106 @@ public abstract class SubStream<T> {
         return false;
     }
 
-    private byte[] compressData(ByteBuffer data) throws IOException {
-        byte[] array = new byte[data.remaining()];
-        data.get(array);
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Deflater deflater = new Deflater();
-        deflater.setLevel(Deflater.BEST_COMPRESSION);
-        DeflaterOutputStream zip = new DeflaterOutputStream(baos, deflater);
-        zip.write(array);
-        zip.flush();
-        zip.close();
-        return baos.toByteArray();
+    /**
+     * Compresses the remaining data using {@link LZCodec}, returns null if the compressed size is larger
+     * than maxSize
+     * 
+     * @param data
+     * @param maxSize
+     * @return
+     */
+    private static byte[] compressLZ(ByteBuffer data, int maxSize) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        byte[] source = new byte[data.remaining()];
+        data.get(source);
+        byte[] compressed = new byte[maxSize];
+        int length = LZCodec.compress(source, 0, source.length, compressed, 0, maxSize);
+        return length < 0 ? null : Arrays.copyOf(compressed, length);
     }
 
     /**
-     * Decompress the data and return result
+     * Deflates the remaining data, returns null if the compressed size is larger than maxSize
      * 
      * @param data
+     * @param level
+     * @param maxSize
      * @return
-     * @throws DataFormatException
      */
-    protected int decompressData(ByteBuffer data, ArrayList<ByteBuffer> result) throws DataFormatException {
-        Inflater inflater = new Inflater();
-        inflater.setInput(data);
-        int total = 0;
-        ByteBuffer inflated = null;
-        while (inflated == null || inflated.remaining() == 0) {
-            inflated = ByteBuffer.allocateDirect(1000).order(ByteOrder.LITTLE_ENDIAN);
-            result.add(inflated);
-            total += inflater.inflate(inflated);
+    private static byte[] compressData(ByteBuffer data, int level, int maxSize) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] zipped = new byte[maxSize];
+            int length = 0;
+            while (!deflater.finished() && length < zipped.length) {
+                length += deflater.deflate(zipped, length, zipped.length - length);
+            }
+            return deflater.finished() ? Arrays.copyOf(zipped, length) : null;
+        } finally {
+            deflater.end();
         }
+    }
+
+    /**
+     * Decompress the remaining data into destination, destination must have exactly the number of
+     * uncompressed bytes remaining.
+     * 
+     * @param data
+     * @param destination
+     * @return Number of bytes decompressed
+     * @throws DataFormatException If the data is not valid or does not match the size of destination
+     */
+    protected int decompressData(ByteBuffer data, ByteBuffer destination) throws DataFormatException {
+        int total = decompress(data, destination, compression);
         sizeInBytes = total + CHUNK_HEADER_SIZE;
         return total;
     }
 
+    /**
+     * Decompress the remaining data into destination using the decompressor, destination must have exactly the
+     * number of uncompressed bytes remaining.
+     * 
+     * @param data
+     * @param destination
+     * @param decompressor
+     * @return Number of bytes decompressed
+     * @throws DataFormatException If the data is not valid or does not match the size of destination
+     */
+    protected int decompressData(ByteBuffer data, ByteBuffer destination, Decompressor decompressor)
+            throws DataFormatException {
+        int total = decompressor.decompress(data, destination, compression);
+        sizeInBytes = total + CHUNK_HEADER_SIZE;
+        return total;
+    }
+
+    /**
+     * Decompress the remaining data into destination, destination must have the exact remaining size of the
+     * uncompressed data.
+     * Use a {@link Decompressor} when decompressing many chunks.
+     * 
+     * @param data
+     * @param destination
+     * @param compression The compression used for data, ZLIB or LZ
+     * @return Number of bytes decompressed
+     * @throws DataFormatException If the data is invalid or the uncompressed size does not match remaining
+     * in destination
+     */
+    public static int decompress(ByteBuffer data, ByteBuffer destination, Compression compression)
+            throws DataFormatException {
+        Decompressor decompressor = new Decompressor();
+        try {
+            return decompressor.decompress(data, destination, compression);
+        } finally {
+            decompressor.end();
+        }
+    }
+
     /**
      * Returns the size of storage, in bytes
      * 
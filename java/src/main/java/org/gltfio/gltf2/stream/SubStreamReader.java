@@ -1,7 +1,6 @@
 package org.gltfio.gltf2.stream;
 
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.zip.DataFormatException;
 
 import org.eclipse.jdt.annotation.NonNull;
@@ -23,6 +22,19 @@ public class SubStreamReader extends SubStream<Object> implements Runnable {
      */
     private ByteBuffer dataBuffer;
     private ChunkStreamer[] listeners;
+    /**
+     * Size of the payload after decompression, only used if compressed
+     */
+    private int uncompressedSize = Constants.NO_VALUE;
+    /**
+     * If true quantized attribute chunks are dequantized when decoded
+     */
+    private boolean dequantize = true;
+    /**
+     * If set the reader is reusable, decompressed data is stored in decompressBuffer
+     */
+    private Decompressor decompressor;
+    private ByteBuffer decompressBuffer;
 
     SubStreamReader(@NonNull ByteBuffer buffer, @NonNull ChunkStreamer... listeners) {
         super(null);
@@ -30,32 +42,92 @@ public class SubStreamReader extends SubStream<Object> implements Runnable {
             throw new IllegalArgumentException("Null listener");
         }
         this.listeners = listeners;
+        reset(buffer);
+    }
+
+    /**
+     * Reads the chunk header at the current position of the buffer and sets the payload, the position of the
+     * buffer is moved to the end of the chunk.
+     * Use this to read the next chunk with the same reader, see {@link #setReusable(Decompressor)}
+     * 
+     * @param buffer
+     */
+    public void reset(@NonNull ByteBuffer buffer) {
+        compression = Compression.NONE;
+        uncompressedSize = Constants.NO_VALUE;
+        int start = buffer.position();
         getHeader(buffer);
-        int pos = buffer.position();
+        if (compression != Compression.NONE) {
+            uncompressedSize = buffer.getInt();
+        }
+        int end = start + sizeInBytes;
         int limit = buffer.limit();
-        buffer.limit(pos + sizeInBytes - CHUNK_HEADER_SIZE);
+        buffer.limit(end);
         dataBuffer = buffer.slice().order(buffer.order());
         buffer.limit(limit);
-        buffer.position(pos + sizeInBytes - CHUNK_HEADER_SIZE);
+        buffer.position(end);
         // When de-serializing, do not use sizeInBytes - use remaining in the payload.
         sizeInBytes = Constants.NO_VALUE;
     }
 
     /**
+     * Sets if quantized attribute chunks shall be converted to float when decoded, default is true.
+     * If false the quantized data is delivered to the listeners as is.
      * 
+     * @param dequantize
+     */
+    public void setDequantize(boolean dequantize) {
+        this.dequantize = dequantize;
+    }
+
+    /**
+     * Makes the reader reusable, chunks are decompressed using the decompressor into a buffer that is kept and
+     * reused for the next chunk. This means that the decoded stream is only valid until the next chunk is read,
+     * use when chunks are dispatched on the thread that reads them.
+     * 
+     * @param reuseDecompressor
+     */
+    public void setReusable(Decompressor reuseDecompressor) {
+        this.decompressor = reuseDecompressor;
+    }
+
+    /**
+     * Returns the decompressor if the reader is reusable, otherwise null
+     * 
+     * @return
+     */
+    public Decompressor getDecompressor() {
+        return decompressor;
+    }
+
+    /**
+     * Returns the size in bytes of the payload when decompressed
+     * 
+     * @return
+     */
+    public int getDecodedSize() {
+        return compression == Compression.NONE || compression == Compression.DECOMPRESSED ? dataBuffer.remaining()
+                : uncompressedSize;
+    }
+
+    /**
+     * Decompresses the payload into one buffer with the size of the uncompressed data.
      */
     public void decompress() {
         if (compression != Compression.NONE) {
             try {
-                ArrayList<ByteBuffer> result = new ArrayList<ByteBuffer>();
-                int size = decompressData(dataBuffer, result);
-                ByteBuffer decompressed = createBuffer(size);
-                int position = 0;
-                for (ByteBuffer bb : result) {
-                    int remaining = bb.position();
-                    decompressed.limit(position + remaining);
-                    decompressed.put(bb.flip());
-                    position += remaining;
+                ByteBuffer decompressed;
+                int size;
+                if (decompressor != null) {
+                    if (decompressBuffer == null || decompressBuffer.capacity() < uncompressedSize) {
+                        decompressBuffer = createBuffer(uncompressedSize);
+                    }
+                    decompressed = decompressBuffer.clear().limit(uncompressedSize).slice()
+                            .order(decompressBuffer.order());
+                    size = decompressData(dataBuffer, decompressed, decompressor);
+                } else {
+                    decompressed = createBuffer(uncompressedSize);
+                    size = decompressData(dataBuffer, decompressed);
                 }
                 dataBuffer = decompressed.position(0);
                 this.sizeInBytes = size;
@@ -78,7 +150,17 @@ public class SubStreamReader extends SubStream<Object> implements Runnable {
 
     @Override
     public void run() {
-        // Turn the payload into a de-stream object.
+        dispatch(decode());
+    }
+
+    /**
+     * Decompresses the payload, if needed, and turns it into a de-stream object.
+     * This method does not call the listeners and may be called from any thread, use
+     * {@link #dispatch(SubStream)} to deliver the decoded stream.
+     * 
+     * @return The decoded stream
+     */
+    public SubStream<?> decode() {
         if (compression != Compression.NONE) {
             decompress();
         }
@@ -99,6 +181,13 @@ public class SubStreamReader extends SubStream<Object> implements Runnable {
             case ATTRIBUTE:
                 chunk = new VertexAttributeStream(dataBuffer);
                 break;
+            case ATTRIBUTE_QUANTIZED:
+                VertexAttributeStream attributes = new VertexAttributeStream(dataBuffer, chunkType);
+                if (dequantize) {
+                    attributes.dequantize();
+                }
+                chunk = attributes;
+                break;
             case INDICES_BYTE:
                 chunk = new IndicesStream(dataBuffer, IndexType.BYTE);
                 break;
@@ -108,13 +197,21 @@ public class SubStreamReader extends SubStream<Object> implements Runnable {
             case INDICES_INT:
                 chunk = new IndicesStream(dataBuffer, IndexType.INT);
                 break;
+            case INDICES_ENCODED:
+                chunk = new IndicesStream(dataBuffer);
+                break;
             default:
                 throw new IllegalArgumentException("Not implemented " + chunkType);
         }
-        dispatch(chunk);
+        return chunk;
     }
 
-    private void dispatch(SubStream chunk) {
+    /**
+     * Calls the listeners with the decoded stream
+     * 
+     * @param chunk
+     */
+    public void dispatch(SubStream<?> chunk) {
         for (ChunkStreamer listener : listeners) {
             listener.chunkUpdate(chunk);
         }
@@ -1,6 +1,7 @@
 package org.gltfio.gltf2.stream;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.HashMap;
 
 import org.gltfio.gltf2.JSONAccessor;
@@ -11,7 +12,9 @@ import org.gltfio.lib.Constants;
 
 /**
  * Attribute stream for the VertexBindings
- *
+ * If quantization is enabled, and the attribute data can be quantized, the stream is serialized as
+ * ATTRIBUTE_QUANTIZED with dequantization parameters and 16 bit data after VERTEXATTRIBUTE - see
+ * {@link AttributeQuantizer}
  */
 public class VertexAttributeStream extends AttributeStream {
 
@@ -31,8 +34,14 @@ public class VertexAttributeStream extends AttributeStream {
     private HashMap<Integer, Integer> indexMap = new HashMap<Integer, Integer>();
 
     private VertexAttribute type;
+    private int payloadOffset = ATTRIBUTE_PAYLOAD_OFFSET;
     protected int count = 0;
     protected int streamIndex;
+    /**
+     * If true float data is quantized when serialized, if supported by the attribute
+     */
+    private boolean quantize = false;
+    private PayloadDeduplicator deduplicator;
 
     protected VertexAttributeStream() {
         super(Type.ATTRIBUTE);
@@ -45,17 +54,71 @@ public class VertexAttributeStream extends AttributeStream {
     }
 
     public VertexAttributeStream(ByteBuffer payload) {
-        super(Type.ATTRIBUTE);
+        this(payload, Type.ATTRIBUTE);
+    }
+
+    /**
+     * Creates a vertex attribute stream from payload, chunk type is ATTRIBUTE or ATTRIBUTE_QUANTIZED
+     * 
+     * @param payload
+     * @param chunkType
+     */
+    public VertexAttributeStream(ByteBuffer payload, Type chunkType) {
+        super(chunkType);
         sizeInBytes = Constants.NO_VALUE; // NOT USED
         setPayload(payload);
     }
 
+    /**
+     * Enables or disables quantization of attribute data when serialized, only used when writing.
+     * 
+     * @param quantize
+     */
+    public void setQuantize(boolean quantize) {
+        this.quantize = quantize;
+    }
+
+    /**
+     * Sets the deduplicator used to find accessors with identical data, when a duplicate is found the stream
+     * index of the already serialized data is used. Only used when writing, set to null to disable.
+     * 
+     * @param deduplicator
+     */
+    public void setDeduplicator(PayloadDeduplicator deduplicator) {
+        this.deduplicator = deduplicator;
+    }
+
+    /**
+     * Returns true if the stream contains quantized data
+     * 
+     * @return
+     */
+    public boolean isQuantized() {
+        return chunkType == Type.ATTRIBUTE_QUANTIZED;
+    }
+
+    /**
+     * If the stream is quantized the data is converted to float and the stream type is changed to ATTRIBUTE.
+     * Does nothing if the stream is not quantized.
+     */
+    public void dequantize() {
+        if (isQuantized()) {
+            ByteBuffer floats = createBuffer(count * type.dataType.size);
+            payload.position(ATTRIBUTE_PAYLOAD_OFFSET);
+            AttributeQuantizer.dequantize(type.type, payload, count, floats.asFloatBuffer());
+            payload = floats.order(ByteOrder.LITTLE_ENDIAN);
+            payloadOffset = 0;
+            chunkType = Type.ATTRIBUTE;
+        }
+    }
+
     @Override
     protected void setPayload(ByteBuffer payload) {
         count = payload.getInt();
         Attributes attribute = Attributes.get(payload.get());
         this.type = new VertexAttribute(attribute, getAttributeSizeInBytes(attribute));
         this.payload = payload;
+        payloadOffset = ATTRIBUTE_PAYLOAD_OFFSET;
     }
 
     /**
@@ -69,10 +132,17 @@ public class VertexAttributeStream extends AttributeStream {
         accessor = primitive.getAccessor(type.type);
         accessorBufferIndex = primitive.getAccessorIndex(type.type);
         if (accessor != null) {
+            chunkType = quantize && AttributeQuantizer.isSupported(type.type, accessor) ? Type.ATTRIBUTE_QUANTIZED
+                    : Type.ATTRIBUTE;
             count = accessor.getCount();
             streamIndex = getStreamIndex(accessorBufferIndex);
             if (streamIndex == Constants.NO_VALUE) {
-                streamIndex = addBufferIndex(accessorBufferIndex);
+                if (deduplicator != null) {
+                    streamIndex = deduplicator.getStreamIndex(this, accessor, () -> streamIndexCount++);
+                    indexMap.put(accessorBufferIndex, streamIndex);
+                } else {
+                    streamIndex = addBufferIndex(accessorBufferIndex);
+                }
             }
             return true;
         } else {
@@ -131,9 +201,16 @@ public class VertexAttributeStream extends AttributeStream {
     public void storeData(ByteBuffer buffer, JSONBufferView data, int index) {
         buffer.putInt(count);
         buffer.put(type.type.value);
-        if (count > 0) {
+        int elementSize = accessor.getType().size * accessor.getComponentType().size;
+        if (isQuantized()) {
+            ByteBuffer floats = ByteBuffer.allocate(count * elementSize).order(ByteOrder.LITTLE_ENDIAN);
+            if (count > 0) {
+                data.copy(count, elementSize, floats);
+            }
+            AttributeQuantizer.quantize(type.type, floats.position(0).asFloatBuffer(), count, buffer);
+        } else if (count > 0) {
             buffer.position(AttributeStream.HEADER_SIZE);
-            data.copy(count, accessor.getType().size * accessor.getComponentType().size, buffer);
+            data.copy(count, elementSize, buffer);
         }
     }
 
@@ -145,16 +222,20 @@ public class VertexAttributeStream extends AttributeStream {
         if (accessor == null) {
             throw new IllegalArgumentException("Accessor is null, must call 'setPrimitive()'");
         }
+        if (isQuantized()) {
+            return AttributeQuantizer.getByteSize(type.type, count) + AttributeStream.HEADER_SIZE;
+        }
         return count * accessor.getType().size * accessor.getComponentType().size + AttributeStream.HEADER_SIZE;
     }
 
     /**
-     * Returns the payload buffer positioned at start of attribute data
+     * Returns the payload buffer positioned at start of attribute data, if the stream is quantized this is
+     * the dequantization parameters.
      * 
      * @return
      */
     public ByteBuffer getPayload() {
-        return payload.position(ATTRIBUTE_PAYLOAD_OFFSET);
+        return payload.position(payloadOffset);
     }
 
     /**
@@ -181,6 +262,8 @@ public class VertexAttributeStream extends AttributeStream {
                 return DataType.vec3;
             case TEXCOORD_0:
             case TEXCOORD_1:
+            case TEXCOORD_2:
+            case TEXCOORD_3:
                 return DataType.vec2;
             default:
                 throw new IllegalArgumentException();
@@ -196,7 +279,8 @@ public class VertexAttributeStream extends AttributeStream {
     public int getHash() {
         final int prime = 31;
         int result = 1;
-        result = prime * result + getChunkType().hashCode();
+        // Same hash for quantized and float data so that stream indexes are shared
+        result = prime * result + Type.ATTRIBUTE.hashCode();
         result = prime * result + type.hashCode();
         return result;
     }
@@ -86,6 +86,19 @@ public class Glxf extends AssetBaseObject implements RuntimeObject {
         glTFAssets[index] = glTF;
     }
 
+    /**
+     * Returns the scene of the glTF asset at the index, or null if not set
+     * 
+     * @param index
+     * @return
+     */
+    public RenderableScene getAssetScene(int index) {
+        if (index < 0 || glTFAssets == null || index >= glTFAssets.length) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + ", invalid index " + index);
+        }
+        return glTFAssets[index];
+    }
+
     @Override
     public void resolveTransientValues() {
         if (assets != null) {
@@ -16,6 +16,9 @@ import java.util.StringTokenizer;
  */
 public class Buffers {
 
+    private static final long HASH_PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long HASH_PRIME2 = 0xC2B2AE3D27D4EB4FL;
+
     private Buffers() {
     }
 
@@ -417,4 +420,71 @@ public class Buffers {
         throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + array);
     }
 
+    /**
+     * Calculates a 64 bit hash of the remaining bytes in the buffer, position of buffer is not changed.
+     * This is not a cryptographic hash, equal hash values must be checked by comparing the content.
+     * 
+     * @param buffer
+     * @return
+     */
+    public static long hash64(ByteBuffer buffer) {
+        return hash64(buffer, buffer.position(), buffer.remaining(), 1, 0);
+    }
+
+    /**
+     * Calculates a 64 bit hash of count elements of size bytes, starting at offset and stride bytes apart, using
+     * absolute positions so the buffer is not changed.
+     * The hash is the same as for {@link #hash64(ByteBuffer)} of the elements tightly packed.
+     * 
+     * @param buffer
+     * @param offset Offset in bytes of the first element
+     * @param size Size in bytes of each element
+     * @param count Number of elements
+     * @param stride Distance in bytes between elements, ignored when count is 1
+     * @return
+     */
+    public static long hash64(ByteBuffer buffer, int offset, int size, int count, int stride) {
+        final boolean littleEndian = buffer.order() == ByteOrder.LITTLE_ENDIAN;
+        if (stride == size) {
+            // Tightly packed, hash as one element
+            size = size * count;
+            count = 1;
+        }
+        long hash = HASH_PRIME1 ^ ((long) size * count);
+        // Bytes that did not fill a long at the end of an element continue in the next element
+        long word = 0;
+        int wordBytes = 0;
+        for (int i = 0; i < count; i++) {
+            int index = offset + i * stride;
+            int end = index + size;
+            if (wordBytes == 0) {
+                for (; index + Long.BYTES <= end; index += Long.BYTES) {
+                    long value = buffer.getLong(index);
+                    hash = hash64(hash, littleEndian ? value : Long.reverseBytes(value));
+                }
+            }
+            for (; index < end; index++) {
+                word |= (buffer.get(index) & 0x0ffL) << (wordBytes * Byte.SIZE);
+                if (++wordBytes == Long.BYTES) {
+                    hash = hash64(hash, word);
+                    word = 0;
+                    wordBytes = 0;
+                }
+            }
+        }
+        for (int i = 0; i < wordBytes; i++) {
+            hash ^= ((word >>> (i * Byte.SIZE)) & 0x0ffL) * HASH_PRIME1;
+            hash = Long.rotateLeft(hash, 11) * HASH_PRIME2;
+        }
+        hash ^= hash >>> 33;
+        hash *= HASH_PRIME2;
+        hash ^= hash >>> 29;
+        return hash;
+    }
+
+    private static long hash64(long hash, long value) {
+        hash ^= Long.rotateLeft(value * HASH_PRIME2, 31) * HASH_PRIME1;
+        return Long.rotateLeft(hash, 27) * HASH_PRIME1 + HASH_PRIME2;
+    }
+
 }
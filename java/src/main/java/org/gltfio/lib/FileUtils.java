@@ -624,8 +624,11 @@ public class FileUtils {
         }
         Path filePath = Path.of(pathStr + path + fileName);
         Logger.d(getClass(), "URL: " + filePath.toUri().toURL());
-        FileChannel fileChannel = (FileChannel) Files.newByteChannel(filePath, EnumSet.of(StandardOpenOption.READ));
-        return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+        // The mapping stays valid when the channel is closed
+        try (FileChannel fileChannel = (FileChannel) Files.newByteChannel(filePath,
+                EnumSet.of(StandardOpenOption.READ))) {
+            return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+        }
     }
 
 }
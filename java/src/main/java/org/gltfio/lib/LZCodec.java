@@ -0,0 +1,337 @@
+package org.gltfio.lib;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.DataFormatException;
+
+/**
+ * Byte oriented LZ77 codec, using the same sequence layout as the LZ4 block format.
+ * The data is a number of sequences, each sequence is:
+ * TOKEN ubyte - high 4 bits literal length, low 4 bits match length - 4. A value of 15 means that the length
+ * continues in the following bytes, each byte is added to the length until a byte that is not 255.
+ * LITERALS - literal length bytes that are copied as is.
+ * OFFSET uint16 little endian - distance back from current output position where the match is copied from.
+ * The last sequence only has TOKEN and LITERALS, this is detected when input ends after the literals.
+ * Decoding is a sequence of copies and does not need any state apart from the output.
+ */
+public class LZCodec {
+
+    /**
+     * Min length of a match
+     */
+    public static final int MIN_MATCH = 4;
+    /**
+     * Max distance to a match
+     */
+    public static final int MAX_OFFSET = 0x0ffff;
+    /**
+     * The last bytes of the input are always stored as literals
+     */
+    private static final int LAST_LITERALS = 5;
+    /**
+     * A match may not start closer than this to the end of input
+     */
+    private static final int MATCH_FIND_LIMIT = 12;
+    private static final int HASH_LOG = 14;
+    private static final int RUN_MASK = 15;
+    private static final int SKIP_SHIFT = 6;
+
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class,
+            ByteOrder.LITTLE_ENDIAN);
+
+    private LZCodec() {
+    }
+
+    /**
+     * Returns the max size of compressed data for the given input size
+     *
+     * @param length
+     * @return
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses the source data into destination.
+     *
+     * @param src
+     * @param srcOffset
+     * @param srcLength
+     * @param dst
+     * @param dstOffset
+     * @param maxLength Max number of bytes to write to destination
+     * @return Number of bytes written to destination, or -1 if compressed data does not fit in maxLength bytes.
+     */
+    public static int compress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset,
+            int maxLength) {
+        final int end = srcOffset + srcLength;
+        final int matchLimit = end - LAST_LITERALS;
+        final int findLimit = end - MATCH_FIND_LIMIT;
+        final int dstEnd = Math.min(dst.length, dstOffset + maxLength);
+        int anchor = srcOffset;
+        int ip = srcOffset;
+        int op = dstOffset;
+        if (srcLength > MATCH_FIND_LIMIT) {
+            int[] table = new int[1 << HASH_LOG];
+            ip++;
+            while (ip < findLimit) {
+                int sequence = readInt(src, ip);
+                int h = hash(sequence);
+                int ref = srcOffset + table[h];
+                table[h] = ip - srcOffset;
+                if (ref >= ip || ip - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+                    // Step faster through data that does not compress
+                    ip += 1 + ((ip - anchor) >>> SKIP_SHIFT);
+                    continue;
+                }
+                while (ip > anchor && ref > srcOffset && src[ip - 1] == src[ref - 1]) {
+                    ip--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchLimit && src[ip + matchLength] == src[ref + matchLength]) {
+                    matchLength++;
+                }
+                op = writeSequence(src, anchor, ip - anchor, ip - ref, matchLength, dst, op, dstEnd);
+                if (op < 0) {
+                    return Constants.NO_VALUE;
+                }
+                ip += matchLength;
+                anchor = ip;
+                if (ip < findLimit) {
+                    table[hash(readInt(src, ip - 2))] = ip - 2 - srcOffset;
+                }
+            }
+        }
+        op = writeSequence(src, anchor, end - anchor, 0, 0, dst, op, dstEnd);
+        return op < 0 ? Constants.NO_VALUE : op - dstOffset;
+    }
+
+    /**
+     * Decompresses the source data into destination
+     *
+     * @param src
+     * @param srcOffset
+     * @param srcLength
+     * @param dst
+     * @param dstOffset
+     * @param dstLength Size of the destination
+     * @return Number of bytes written to destination
+     * @throws DataFormatException If the data is not valid or does not fit in destination
+     */
+    public static int decompress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset,
+            int dstLength) throws DataFormatException {
+        final int srcEnd = srcOffset + srcLength;
+        final int dstEnd = dstOffset + dstLength;
+        int ip = srcOffset;
+        int op = dstOffset;
+        try {
+            while (ip < srcEnd) {
+                int token = src[ip++] & 0x0ff;
+                int literalLength = token >>> 4;
+                if (literalLength == RUN_MASK) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0x0ff;
+                        literalLength += b;
+                    } while (b == 255);
+                }
+                if (ip + literalLength > srcEnd || op + literalLength > dstEnd) {
+                    throw new DataFormatException(ErrorMessage.INVALID_VALUE.message + "Literals outside of data");
+                }
+                System.arraycopy(src, ip, dst, op, literalLength);
+                ip += literalLength;
+                op += literalLength;
+                if (ip == srcEnd) {
+                    break;
+                }
+                int offset = (src[ip] & 0x0ff) | ((src[ip + 1] & 0x0ff) << 8);
+                ip += 2;
+                int matchLength = token & RUN_MASK;
+                if (matchLength == RUN_MASK) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0x0ff;
+                        matchLength += b;
+                    } while (b == 255);
+                }
+                matchLength += MIN_MATCH;
+                int ref = op - offset;
+                if (offset == 0 || ref < dstOffset || op + matchLength > dstEnd) {
+                    throw new DataFormatException(ErrorMessage.INVALID_VALUE.message + "Match outside of data");
+                }
+                if (offset >= matchLength) {
+                    System.arraycopy(dst, ref, dst, op, matchLength);
+                    op += matchLength;
+                } else {
+                    // Overlapping match, copy the repeated pattern with growing copies
+                    int copied = 0;
+                    while (copied < matchLength) {
+                        int length = Math.min(op + copied - ref, matchLength - copied);
+                        System.arraycopy(dst, ref, dst, op + copied, length);
+                        copied += length;
+                    }
+                    op += matchLength;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new DataFormatException(ErrorMessage.INVALID_VALUE.message + "Truncated data");
+        }
+        return op - dstOffset;
+    }
+
+    /**
+     * Decompresses the remaining source data into the remaining destination, without copying to or from arrays.
+     * If both buffers are backed by arrays the arrays are decompressed directly. The position of source is moved
+     * to limit and the position of destination is moved by the number of bytes decompressed.
+     *
+     * @param src
+     * @param dst
+     * @return Number of bytes written to destination
+     * @throws DataFormatException If the data is not valid or does not fit in destination
+     */
+    public static int decompress(ByteBuffer src, ByteBuffer dst) throws DataFormatException {
+        int length;
+        if (src.hasArray() && dst.hasArray()) {
+            length = decompress(src.array(), src.arrayOffset() + src.position(), src.remaining(), dst.array(),
+                    dst.arrayOffset() + dst.position(), dst.remaining());
+        } else {
+            length = decompressBuffer(src, dst);
+        }
+        src.position(src.limit());
+        dst.position(dst.position() + length);
+        return length;
+    }
+
+    private static int decompressBuffer(ByteBuffer src, ByteBuffer dst) throws DataFormatException {
+        final int srcEnd = src.limit();
+        final int dstStart = dst.position();
+        final int dstEnd = dst.limit();
+        final boolean sameOrder = src.order() == dst.order();
+        int ip = src.position();
+        int op = dstStart;
+        try {
+            while (ip < srcEnd) {
+                int token = src.get(ip++) & 0x0ff;
+                int literalLength = token >>> 4;
+                if (literalLength == RUN_MASK) {
+                    int b;
+                    do {
+                        b = src.get(ip++) & 0x0ff;
+                        literalLength += b;
+                    } while (b == 255);
+                }
+                if (ip + literalLength > srcEnd || op + literalLength > dstEnd) {
+                    throw new DataFormatException(ErrorMessage.INVALID_VALUE.message + "Literals outside of data");
+                }
+                copy(src, ip, dst, op, literalLength, sameOrder);
+                ip += literalLength;
+                op += literalLength;
+                if (ip == srcEnd) {
+                    break;
+                }
+                int offset = (src.get(ip) & 0x0ff) | ((src.get(ip + 1) & 0x0ff) << 8);
+                ip += 2;
+                int matchLength = token & RUN_MASK;
+                if (matchLength == RUN_MASK) {
+                    int b;
+                    do {
+                        b = src.get(ip++) & 0x0ff;
+                        matchLength += b;
+                    } while (b == 255);
+                }
+                matchLength += MIN_MATCH;
+                int ref = op - offset;
+                if (offset == 0 || ref < dstStart || op + matchLength > dstEnd) {
+                    throw new DataFormatException(ErrorMessage.INVALID_VALUE.message + "Match outside of data");
+                }
+                // Overlapping matches repeat offset bytes, copy until the repeated distance is at least a long
+                int distance = offset;
+                while (distance < Long.BYTES && matchLength > 0) {
+                    int step = Math.min(distance, matchLength);
+                    copy(dst, op - distance, dst, op, step, true);
+                    op += step;
+                    matchLength -= step;
+                    distance += step;
+                }
+                copy(dst, op - distance, dst, op, matchLength, true);
+                op += matchLength;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new DataFormatException(ErrorMessage.INVALID_VALUE.message + "Truncated data");
+        }
+        return op - dstStart;
+    }
+
+    /**
+     * Copies using absolute positions, 8 bytes at a time. Source and destination may overlap if the
+     * destination index is at least 8 bytes after the source index.
+     */
+    private static void copy(ByteBuffer src, int srcIndex, ByteBuffer dst, int dstIndex, int length,
+            boolean sameOrder) {
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            long value = src.getLong(srcIndex + i);
+            dst.putLong(dstIndex + i, sameOrder ? value : Long.reverseBytes(value));
+        }
+        if (i + Integer.BYTES <= length) {
+            int value = src.getInt(srcIndex + i);
+            dst.putInt(dstIndex + i, sameOrder ? value : Integer.reverseBytes(value));
+            i += Integer.BYTES;
+        }
+        for (; i < length; i++) {
+            dst.put(dstIndex + i, src.get(srcIndex + i));
+        }
+    }
+
+    private static int writeSequence(byte[] src, int literalOffset, int literalLength, int offset,
+            int matchLength, byte[] dst, int op, int dstEnd) {
+        if (op + 1 + literalLength + literalLength / 255 + 1 + 2 + matchLength / 255 + 1 > dstEnd) {
+            return Constants.NO_VALUE;
+        }
+        int tokenPos = op++;
+        int token;
+        if (literalLength >= RUN_MASK) {
+            token = RUN_MASK << 4;
+            op = writeLength(dst, op, literalLength - RUN_MASK);
+        } else {
+            token = literalLength << 4;
+        }
+        System.arraycopy(src, literalOffset, dst, op, literalLength);
+        op += literalLength;
+        if (matchLength > 0) {
+            dst[op++] = (byte) offset;
+            dst[op++] = (byte) (offset >>> 8);
+            int length = matchLength - MIN_MATCH;
+            if (length >= RUN_MASK) {
+                token |= RUN_MASK;
+                op = writeLength(dst, op, length - RUN_MASK);
+            } else {
+                token |= length;
+            }
+        }
+        dst[tokenPos] = (byte) token;
+        return op;
+    }
+
+    private static int writeLength(byte[] dst, int op, int length) {
+        while (length >= 255) {
+            dst[op++] = (byte) 255;
+            length -= 255;
+        }
+        dst[op++] = (byte) length;
+        return op;
+    }
+
+    private static int readInt(byte[] src, int index) {
+        return (int) INT_LE.get(src, index);
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+}
@@ -0,0 +1,310 @@
+package org.gltfio.lib;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Handle to an asset load that is running on another thread, used to cancel the load, read progress and set
+ * priority.
+ * The loader calls {@link #checkpoint()} at chunk or buffer boundaries, this is where cancellation takes effect
+ * and where a load waits while a load with higher priority is running. Loads that are queued but not started do
+ * not preempt running loads.
+ * When a load is cancelled or fails the release action is called, so that mapped buffers and direct memory
+ * held by the load are released without waiting for the handle to be discarded.
+ * A load that is part of another load, for instance an asset referenced by a glXF, uses a handle with a parent.
+ *
+ * @param <T> The loaded asset
+ */
+public class LoadHandle<T> {
+
+    public enum Priority {
+        BACKGROUND(0),
+        NORMAL(1),
+        HIGH(2);
+
+        public final int value;
+
+        Priority(int value) {
+            this.value = value;
+        }
+    }
+
+    public enum State {
+        QUEUED(),
+        LOADING(),
+        COMPLETED(),
+        CANCELLED(),
+        FAILED();
+    }
+
+    /**
+     * Loads that are running, used to find loads with higher priority
+     */
+    private static final ArrayList<LoadHandle<?>> RUNNING = new ArrayList<LoadHandle<?>>();
+
+    private final String name;
+    private final LoadHandle<?> parent;
+    private volatile Priority priority;
+    private volatile State state = State.QUEUED;
+    private volatile float progress = 0;
+    private volatile boolean cancelRequested = false;
+    private Runnable release;
+    private T result;
+    private Throwable error;
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    /**
+     * Creates a new handle for a load that has not yet started
+     *
+     * @param name Name of the load, for instance the filename
+     * @param priority
+     */
+    public LoadHandle(String name, Priority priority) {
+        if (priority == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Null priority");
+        }
+        this.name = name;
+        this.parent = null;
+        this.priority = priority;
+    }
+
+    /**
+     * Creates a new handle for a load that is part of the load of parent, the load is cancelled when parent is
+     * cancelled and has the priority of parent.
+     *
+     * @param name Name of the load, for instance the filename
+     * @param parent
+     */
+    public LoadHandle(String name, LoadHandle<?> parent) {
+        if (parent == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Null parent");
+        }
+        this.name = name;
+        this.parent = parent;
+        this.priority = parent.priority;
+    }
+
+    /**
+     * Requests the load to be cancelled, the load stops at the next checkpoint.
+     * A cancel that arrives after the last checkpoint is ignored and the load completes, the loaded asset may
+     * already be shared - for instance by a cache.
+     *
+     * @return False if the load has already completed or failed
+     */
+    public boolean cancel() {
+        if (state == State.COMPLETED || state == State.FAILED) {
+            return false;
+        }
+        cancelRequested = true;
+        synchronized (RUNNING) {
+            RUNNING.notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if cancel has been requested, for this load or the parent load
+     *
+     * @return
+     */
+    public boolean isCancelled() {
+        return cancelRequested || (parent != null && parent.isCancelled());
+    }
+
+    /**
+     * Returns true if the load has completed, failed or been cancelled
+     *
+     * @return
+     */
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    /**
+     * Returns the state of the load
+     *
+     * @return
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Returns the name of the load
+     *
+     * @return
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the progress of the load, 0 - 1
+     *
+     * @return
+     */
+    public float getProgress() {
+        return progress;
+    }
+
+    /**
+     * Sets the progress, called by the loader
+     *
+     * @param progress 0 - 1
+     */
+    public void setProgress(float progress) {
+        this.progress = Math.max(0, Math.min(1, progress));
+    }
+
+    /**
+     * Returns the priority, this is the priority of the parent if the handle has a parent
+     *
+     * @return
+     */
+    public Priority getPriority() {
+        return parent != null ? parent.getPriority() : priority;
+    }
+
+    /**
+     * Sets the priority of the load, takes effect at the next checkpoint of running loads.
+     * Has no effect if the handle has a parent, set the priority of the parent.
+     *
+     * @param priority
+     */
+    public void setPriority(Priority priority) {
+        if (priority == null) {
+            throw new IllegalArgumentException(ErrorMessage.INVALID_VALUE.message + "Null priority");
+        }
+        this.priority = priority;
+        synchronized (RUNNING) {
+            RUNNING.notifyAll();
+        }
+    }
+
+    /**
+     * Sets the action that releases resources held by the load, called on the loading thread if the load is
+     * cancelled, also when cancelled before it has started, or fails.
+     *
+     * @param release
+     */
+    public void setRelease(Runnable release) {
+        this.release = release;
+    }
+
+    /**
+     * Called by the loader at chunk or buffer boundaries.
+     * Waits while a load with higher priority is running.
+     *
+     * @throws CancellationException If the load has been cancelled
+     */
+    public void checkpoint() {
+        synchronized (RUNNING) {
+            while (!isCancelled() && isPreempted()) {
+                try {
+                    RUNNING.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancelRequested = true;
+                }
+            }
+        }
+        if (isCancelled()) {
+            throw new CancellationException(ErrorMessage.INVALID_STATE.message + "Cancelled load of " + name);
+        }
+    }
+
+    private boolean isPreempted() {
+        int value = getPriority().value;
+        for (LoadHandle<?> running : RUNNING) {
+            if (running != this && running.getPriority().value > value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the load on the calling thread, the handle is updated with the result when the load returns.
+     * If the load throws {@link CancellationException} the load is cancelled, other exceptions fail the load.
+     * If the load returns the load is completed, also if cancel has been requested after the last checkpoint.
+     *
+     * @param load
+     */
+    public void run(Callable<T> load) {
+        boolean cancelled;
+        synchronized (RUNNING) {
+            cancelled = isCancelled();
+            if (!cancelled) {
+                state = State.LOADING;
+                RUNNING.add(this);
+            }
+        }
+        if (cancelled) {
+            // Resources, such as an open channel, may have been acquired before the load was queued
+            release();
+            finish(State.CANCELLED, null, null);
+            return;
+        }
+        try {
+            T loaded = load.call();
+            progress = 1;
+            finish(State.COMPLETED, loaded, null);
+        } catch (CancellationException e) {
+            release();
+            finish(State.CANCELLED, null, null);
+        } catch (Throwable t) {
+            release();
+            finish(State.FAILED, null, t);
+        }
+    }
+
+    private void release() {
+        if (release != null) {
+            try {
+                release.run();
+            } catch (RuntimeException e) {
+                Logger.e(getClass(), "Failed to release " + name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void finish(State finalState, T loaded, Throwable t) {
+        this.result = loaded;
+        this.error = t;
+        synchronized (RUNNING) {
+            state = finalState;
+            RUNNING.remove(this);
+            RUNNING.notifyAll();
+        }
+        done.countDown();
+    }
+
+    /**
+     * Waits for the load to finish and returns the loaded asset
+     *
+     * @return
+     * @throws InterruptedException
+     * @throws ExecutionException If the load failed
+     * @throws CancellationException If the load was cancelled
+     */
+    public T await() throws InterruptedException, ExecutionException {
+        done.await();
+        switch (state) {
+            case CANCELLED:
+                throw new CancellationException(ErrorMessage.INVALID_STATE.message + "Cancelled load of " + name);
+            case FAILED:
+                throw new ExecutionException(error);
+            default:
+                return result;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + ", " + state + ", priority " + getPriority() + ", progress " + progress;
+    }
+
+}
@@ -1,8 +1,10 @@
 
 package org.gltfio.lib;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 
 /**
  * Singleton to keep track of thread and executor usage.
@@ -10,27 +12,56 @@ import java.util.concurrent.Executors;
  */
 public class ThreadService {
 
-    private static ThreadService threadService;
+    private static volatile ThreadService threadService;
 
     private final ExecutorService executorService;
     public final int threadCount;
 
     private ThreadService() {
         int processors = Runtime.getRuntime().availableProcessors();
-        executorService = Executors.newFixedThreadPool(processors);
+        // Daemon threads so that the service does not keep the VM alive once the application is done
+        executorService = Executors.newFixedThreadPool(processors, runnable -> {
+            Thread thread = new Thread(runnable, "gltfio-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
         threadCount = processors;
         Logger.d(getClass(), "Created executorservice with " + processors + " threads");
     }
 
-    public static synchronized ThreadService getInstance() {
+    public static ThreadService getInstance() {
         if (threadService == null) {
-            threadService = new ThreadService();
+            synchronized (ThreadService.class) {
+                if (threadService == null) {
+                    threadService = new ThreadService();
+                }
+            }
         }
         return threadService;
     }
 
-    public synchronized void execute(Runnable command) {
+    /**
+     * Queues the command for execution, the executor is threadsafe so this method does not lock.
+     * 
+     * @param command
+     */
+    public void execute(Runnable command) {
         executorService.execute(command);
     }
 
+    /**
+     * Queues the task for execution and returns the FutureTask.
+     * The returned task may be run by the caller, if it has not yet been started, by calling
+     * {@link FutureTask#run()} - this makes it possible to wait for a result from within a thread that belongs
+     * to this service without risking starvation.
+     * 
+     * @param task
+     * @return
+     */
+    public <T> FutureTask<T> submit(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<T>(task);
+        executorService.execute(future);
+        return future;
+    }
+
 }
@@ -1,5 +1,7 @@
 package org.gltfio.prepare;
 
+import java.util.Objects;
+
 public class GltfSettings {
 
     public enum Alignment {
@@ -129,4 +131,34 @@ public class GltfSettings {
         this.createNormals = createNormals;
     }
 
+    /**
+     * Settings are equal if the camera alignment is the same and the same classes of handlers are set, used as
+     * key when assets are cached.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof GltfSettings)) {
+            return false;
+        }
+        GltfSettings other = (GltfSettings) obj;
+        return cameraAlignment == other.cameraAlignment
+                && getHandlerClass(defaultVertexBuffers) == getHandlerClass(other.defaultVertexBuffers)
+                && getHandlerClass(indexedToShort) == getHandlerClass(other.indexedToShort)
+                && getHandlerClass(createNormals) == getHandlerClass(other.createNormals)
+                && getHandlerClass(createTangents) == getHandlerClass(other.createTangents);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cameraAlignment, getHandlerClass(defaultVertexBuffers), getHandlerClass(indexedToShort),
+                getHandlerClass(createNormals), getHandlerClass(createTangents));
+    }
+
+    private static Class<?> getHandlerClass(Object handler) {
+        return handler != null ? handler.getClass() : null;
+    }
+
 }
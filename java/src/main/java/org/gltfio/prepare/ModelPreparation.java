@@ -65,6 +65,8 @@ public interface ModelPreparation {
      * {@link CreateTangents}
      * interfaces if needed
      * and updating the data in glTF to suit target API (for instance Vulkan)
+     * Implementations must support calls for different assets at the same time, the same instance is used by
+     * concurrent loads - for instance when the asset references of a glXF are loaded in parallel.
      * 
      * @param glTF
      * @param settings
@@ -0,0 +1,107 @@
+package org.gltfio.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.gltfio.deserialize.AssetCache;
+import org.gltfio.deserialize.AssetCache.CacheProperties;
+import org.gltfio.deserialize.Ladda;
+import org.gltfio.deserialize.Ladda.LaddaBooleanProperties;
+import org.gltfio.gltf2.JSONAccessor;
+import org.gltfio.gltf2.JSONBuffer;
+import org.gltfio.gltf2.JSONGltf;
+import org.gltfio.gltf2.JSONPrimitive.Attributes;
+import org.gltfio.gltf2.VanillaGltf;
+import org.gltfio.lib.Settings;
+import org.gltfio.prepare.GltfSettings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AssetCacheTest {
+
+    private static final float[] POSITIONS = new float[] { 0, 0, 0, 1, 0, 0, 0, 1, 0 };
+
+    @Test
+    void writeToCachedAsset() throws IOException, ClassNotFoundException, URISyntaxException {
+        Path folder = createFolder();
+        Ladda ladda = Ladda.getInstance(VanillaGltf.class);
+        AssetCache cache = ladda.getAssetCache();
+        Settings.getInstance().setProperty(CacheProperties.BUDGET_MB, 1);
+        try {
+            // Loaded buffer, mapped buffer and buffer loaded on demand
+            for (int mode = 0; mode < 3; mode++) {
+                Settings.getInstance().setProperty(LaddaBooleanProperties.MAP_BUFFERS, mode == 1);
+                Settings.getInstance().setProperty(LaddaBooleanProperties.LAZY_BUFFERS, mode == 2);
+                cache.clear();
+                load(ladda, folder);
+                long hits = cache.getHits();
+                long retained = cache.getRetainedBytes();
+                JSONGltf first = load(ladda, folder);
+                JSONGltf second = load(ladda, folder);
+                Assertions.assertEquals(hits + 2, cache.getHits(), "Mode " + mode);
+                JSONBuffer buffer = first.getBuffer(0);
+                Assertions.assertTrue(buffer.isShared());
+                Assertions.assertThrows(IllegalArgumentException.class, () -> buffer.put(new float[] { 2f }, 3));
+                Assertions.assertThrows(IllegalArgumentException.class, () -> buffer.put(ByteBuffer.allocate(
+                        buffer.getByteLength()), 0));
+                Assertions.assertThrows(IllegalArgumentException.class, () -> second.getBuffer(0)
+                        .getWritableBuffer());
+                Assertions.assertArrayEquals(POSITIONS, getPositions(second), "Mode " + mode);
+                Assertions.assertArrayEquals(POSITIONS, getPositions(first), "Mode " + mode);
+                Assertions.assertEquals(retained, cache.getRetainedBytes());
+            }
+        } finally {
+            Settings.getInstance().setProperty(CacheProperties.BUDGET_MB, 0);
+            Settings.getInstance().setProperty(LaddaBooleanProperties.MAP_BUFFERS, false);
+            Settings.getInstance().setProperty(LaddaBooleanProperties.LAZY_BUFFERS, false);
+            cache.clear();
+            delete(folder);
+        }
+    }
+
+    private JSONGltf load(Ladda ladda, Path folder) throws IOException, ClassNotFoundException,
+            URISyntaxException {
+        return (JSONGltf) ladda.loadGltf(folder.toString() + File.separator, "triangle.gltf", null,
+                new GltfSettings(null));
+    }
+
+    private float[] getPositions(JSONGltf glTF) {
+        JSONAccessor positions = glTF.getMeshes()[0].getPrimitives()[0].getAccessor(Attributes.POSITION);
+        float[] result = new float[POSITIONS.length];
+        positions.copy(result, 0);
+        return result;
+    }
+
+    private Path createFolder() throws IOException {
+        Path folder = Files.createTempDirectory("assetcache");
+        int size = POSITIONS.length * Float.BYTES;
+        ByteBuffer data = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        for (float f : POSITIONS) {
+            data.putFloat(f);
+        }
+        Files.write(folder.resolve("triangle.bin"), data.array());
+        String json = "{\"asset\":{\"version\":\"2.0\"},\"scene\":0,\"scenes\":[{\"nodes\":[0]}],"
+                + "\"nodes\":[{\"mesh\":0}],\"meshes\":[{\"primitives\":[{\"attributes\":{\"POSITION\":0},"
+                + "\"material\":0}]}],\"materials\":[{\"name\":\"material\"}],"
+                + "\"buffers\":[{\"uri\":\"triangle.bin\",\"byteLength\":" + size + "}],"
+                + "\"bufferViews\":[{\"buffer\":0,\"byteLength\":" + size + ",\"target\":34962}],"
+                + "\"accessors\":[{\"bufferView\":0,\"componentType\":5126,\"count\":3,\"type\":\"VEC3\","
+                + "\"min\":[0,0,0],\"max\":[1,1,0]}]}";
+        Files.write(folder.resolve("triangle.gltf"), json.getBytes(StandardCharsets.UTF_8));
+        return folder;
+    }
+
+    private void delete(Path folder) {
+        for (File f : folder.toFile().listFiles()) {
+            f.delete();
+        }
+        folder.toFile().delete();
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.gltfio.test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.gltfio.deserialize.AssetProbe;
+import org.gltfio.deserialize.Ladda;
+import org.gltfio.gltf2.AssetBaseObject.FileType;
+import org.gltfio.gltf2.VanillaGltf;
+import org.gltfio.lib.Logger;
+
+/**
+ * Measures how many files per second can be probed using {@link Ladda#probeAsync(String, String)}, with the
+ * number of threads going from 1 to twice the number of processors.
+ * Usage: AssetProbeBenchmark [folder with gltf, glb or glb2 files] [probes per run]
+ */
+public class AssetProbeBenchmark {
+
+    String folder = "C:/assets/test-assets/gltf/";
+    int probes = 2000;
+    int warmup = 2;
+
+    public static void main(String[] args) {
+        AssetProbeBenchmark benchmark = new AssetProbeBenchmark();
+        if (args.length > 0) {
+            benchmark.folder = args[0];
+        }
+        if (args.length > 1) {
+            benchmark.probes = Integer.parseInt(args[1]);
+        }
+        benchmark.run();
+        System.exit(0);
+    }
+
+    public void run() {
+        List<String> files = new ArrayList<String>();
+        for (File f : new File(folder).listFiles()) {
+            FileType ft = FileType.get(f.getName());
+            if (ft == FileType.GLTF || ft == FileType.GLB || ft == FileType.GLB2) {
+                files.add(f.getName());
+            }
+        }
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("No gltf, glb or glb2 files in " + folder);
+        }
+        Ladda ladda = Ladda.getInstance(VanillaGltf.class);
+        for (int i = 0; i < warmup; i++) {
+            probe(ladda, files, 1);
+        }
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors * 2; threads *= 2) {
+            long start = System.nanoTime();
+            probe(ladda, files, threads);
+            double seconds = (System.nanoTime() - start) / 1000000000.0;
+            String result = String.format("threads %2d: %8.2f files/s", threads, probes / seconds);
+            Logger.d(getClass(), result);
+            System.out.println(result);
+        }
+    }
+
+    private void probe(Ladda ladda, List<String> files, int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            ladda.setExecutor(executor);
+            List<CompletableFuture<AssetProbe>> results = new ArrayList<CompletableFuture<AssetProbe>>();
+            for (int i = 0; i < probes; i++) {
+                results.add(ladda.probeAsync(folder, files.get(i % files.size())));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.gltfio.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import org.gltfio.gltf2.JSONPrimitive.Attributes;
+import org.gltfio.gltf2.stream.AttributeQuantizer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AttributeQuantizerTest {
+
+    private static final int COUNT = 10000;
+    /**
+     * Max error of an octahedral encoded 16 bit normal component
+     */
+    private static final float NORMAL_ERROR = 1e-4f;
+
+    @Test
+    void positionErrorBound() {
+        Random random = new Random(1);
+        float[] positions = new float[COUNT * 3];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = (random.nextFloat() - 0.3f) * (i % 3 + 1) * 100;
+        }
+        float[] result = roundTrip(Attributes.POSITION, positions);
+        assertRangeError(positions, result, 3, 32767f * 2);
+    }
+
+    @Test
+    void texcoordErrorBound() {
+        Random random = new Random(2);
+        float[] texcoords = new float[COUNT * 2];
+        for (int i = 0; i < texcoords.length; i++) {
+            texcoords[i] = random.nextFloat() * 4 - 1;
+        }
+        float[] result = roundTrip(Attributes.TEXCOORD_0, texcoords);
+        assertRangeError(texcoords, result, 2, 65535f);
+    }
+
+    @Test
+    void normalErrorBound() {
+        Random random = new Random(3);
+        float[] normals = new float[COUNT * 3];
+        for (int i = 0; i < COUNT; i++) {
+            float x = (float) random.nextGaussian();
+            float y = (float) random.nextGaussian();
+            float z = (float) random.nextGaussian();
+            float length = (float) Math.sqrt(x * x + y * y + z * z);
+            normals[i * 3] = x / length;
+            normals[i * 3 + 1] = y / length;
+            normals[i * 3 + 2] = z / length;
+        }
+        float[] result = roundTrip(Attributes.NORMAL, normals);
+        for (int i = 0; i < normals.length; i++) {
+            Assertions.assertEquals(normals[i], result[i], NORMAL_ERROR, "Normal component " + i);
+        }
+    }
+
+    @Test
+    void constantValues() {
+        float[] positions = new float[] { 1.5f, -2f, 3f, 1.5f, -2f, 3f };
+        Assertions.assertArrayEquals(positions, roundTrip(Attributes.POSITION, positions));
+        float[] texcoords = new float[] { 0.25f, 0.75f };
+        Assertions.assertArrayEquals(texcoords, roundTrip(Attributes.TEXCOORD_1, texcoords));
+    }
+
+    /**
+     * Quantizes and dequantizes the data, checks that the quantized size is the size returned by
+     * {@link AttributeQuantizer#getByteSize(Attributes, int)}
+     *
+     * @param attribute
+     * @param data
+     * @return
+     */
+    private float[] roundTrip(Attributes attribute, float[] data) {
+        int count = data.length / AttributeQuantizer.getFloatCount(attribute);
+        ByteBuffer quantized = ByteBuffer.allocate(AttributeQuantizer.getByteSize(attribute, count))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        AttributeQuantizer.quantize(attribute, FloatBuffer.wrap(data), count, quantized);
+        Assertions.assertEquals(0, quantized.remaining());
+        FloatBuffer result = FloatBuffer.allocate(data.length);
+        AttributeQuantizer.dequantize(attribute, quantized.flip(), count, result);
+        Assertions.assertEquals(0, quantized.remaining());
+        Assertions.assertEquals(0, result.remaining());
+        return result.array();
+    }
+
+    /**
+     * Asserts that the error of each component is at most half a quantization step of the range of the component
+     *
+     * @param source
+     * @param result
+     * @param components
+     * @param steps Number of quantization steps
+     */
+    private void assertRangeError(float[] source, float[] result, int components, float steps) {
+        for (int c = 0; c < components; c++) {
+            float min = Float.MAX_VALUE;
+            float max = -Float.MAX_VALUE;
+            for (int i = c; i < source.length; i += components) {
+                min = Math.min(min, source[i]);
+                max = Math.max(max, source[i]);
+            }
+            float bound = (max - min) / steps / 2 + Math.ulp(Math.max(Math.abs(min), Math.abs(max))) * 2;
+            for (int i = c; i < source.length; i += components) {
+                Assertions.assertEquals(source[i], result[i], bound, "Component " + c + " at " + i);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package org.gltfio.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.gltfio.deserialize.Ladda;
+import org.gltfio.deserialize.Ladda.LaddaBooleanProperties;
+import org.gltfio.gltf2.BufferResidency;
+import org.gltfio.gltf2.J2SEModelPreparation;
+import org.gltfio.gltf2.JSONAccessor;
+import org.gltfio.gltf2.JSONBuffer;
+import org.gltfio.gltf2.JSONGltf;
+import org.gltfio.gltf2.JSONPrimitive.Attributes;
+import org.gltfio.gltf2.VanillaGltf;
+import org.gltfio.lib.Settings;
+import org.gltfio.prepare.GltfProperties;
+import org.gltfio.prepare.GltfSettings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BufferResidencyTest {
+
+    private static final float[] POSITIONS = new float[] { 0, 0, 0, 1, 0, 0, 0, 1, 0 };
+    private static final float[] NORMALS = new float[] { 0, 0, 1, 0, 0, 1, 0, 0, 1 };
+
+    @Test
+    void evictThenReload() throws IOException {
+        Path folder = createFolder();
+        try {
+            for (boolean map : new boolean[] { false, true }) {
+                JSONBuffer buffer = createLazyBuffer(folder, map);
+                Assertions.assertFalse(buffer.isResident());
+                Assertions.assertEquals(1f, buffer.getAsReadBuffer().getFloat(3 * Float.BYTES));
+                Assertions.assertTrue(buffer.isResident());
+                BufferResidency.getInstance().trim(0);
+                Assertions.assertFalse(buffer.isResident(), "Buffer not released");
+                Assertions.assertEquals(1f, buffer.getAsReadBuffer().getFloat(3 * Float.BYTES));
+            }
+        } finally {
+            delete(folder);
+        }
+    }
+
+    @Test
+    void writtenBufferIsNotReleased() throws IOException {
+        Path folder = createFolder();
+        try {
+            for (boolean map : new boolean[] { false, true }) {
+                JSONBuffer buffer = createLazyBuffer(folder, map);
+                buffer.put(new float[] { 2f }, 3);
+                BufferResidency.getInstance().trim(0);
+                Assertions.assertTrue(buffer.isResident(), "Written buffer released");
+                Assertions.assertEquals(2f, buffer.getAsReadBuffer().getFloat(3 * Float.BYTES));
+            }
+        } finally {
+            delete(folder);
+        }
+    }
+
+    @Test
+    void recalculatedNormalsAreNotReleased() throws IOException, ClassNotFoundException, URISyntaxException {
+        Path folder = createFolder();
+        Settings.getInstance().setProperty(LaddaBooleanProperties.LAZY_BUFFERS, true);
+        Settings.getInstance().setProperty(GltfProperties.RECALCULATE_NORMALS, true);
+        try {
+            J2SEModelPreparation modelPrep = new J2SEModelPreparation();
+            GltfSettings settings = new GltfSettings(null);
+            settings.setCreateNormals(modelPrep);
+            JSONGltf glTF = (JSONGltf) Ladda.getInstance(VanillaGltf.class).loadGltf(folder.toString()
+                    + File.separator, "triangle.gltf", modelPrep, settings);
+            BufferResidency.getInstance().trim(0);
+            JSONAccessor normals = glTF.getMeshes()[0].getPrimitives()[0].getAccessor(Attributes.NORMAL);
+            float[] result = new float[NORMALS.length];
+            normals.copy(result, 0);
+            Assertions.assertArrayEquals(NORMALS, result);
+        } finally {
+            Settings.getInstance().setProperty(LaddaBooleanProperties.LAZY_BUFFERS, false);
+            Settings.getInstance().setProperty(GltfProperties.RECALCULATE_NORMALS, false);
+            delete(folder);
+        }
+    }
+
+    private JSONBuffer createLazyBuffer(Path folder, boolean map) {
+        JSONBuffer buffer = new JSONBuffer("lazy", POSITIONS.length * 2 * Float.BYTES);
+        buffer.destroyBuffer();
+        buffer.setUri("triangle.bin");
+        buffer.setLazy(folder.toString() + File.separator, map);
+        return buffer;
+    }
+
+    /**
+     * Creates a triangle with normals that are zero, the normals must be recalculated
+     *
+     * @return
+     * @throws IOException
+     */
+    private Path createFolder() throws IOException {
+        Path folder = Files.createTempDirectory("residency");
+        int size = POSITIONS.length * Float.BYTES;
+        ByteBuffer data = ByteBuffer.allocate(size * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (float f : POSITIONS) {
+            data.putFloat(f);
+        }
+        Files.write(folder.resolve("triangle.bin"), data.array());
+        String json = "{\"asset\":{\"version\":\"2.0\"},\"scene\":0,\"scenes\":[{\"nodes\":[0]}],"
+                + "\"nodes\":[{\"mesh\":0}],\"meshes\":[{\"primitives\":[{\"attributes\":{\"POSITION\":0,"
+                + "\"NORMAL\":1},\"material\":0}]}],\"materials\":[{\"name\":\"material\"}],"
+                + "\"buffers\":[{\"uri\":\"triangle.bin\",\"byteLength\":" + size * 2 + "}],"
+                + "\"bufferViews\":[{\"buffer\":0,\"byteLength\":" + size + ",\"target\":34962},"
+                + "{\"buffer\":0,\"byteOffset\":" + size + ",\"byteLength\":" + size + ",\"target\":34962}],"
+                + "\"accessors\":[{\"bufferView\":0,\"componentType\":5126,\"count\":3,\"type\":\"VEC3\","
+                + "\"min\":[0,0,0],\"max\":[1,1,0]},{\"bufferView\":1,\"componentType\":5126,\"count\":3,"
+                + "\"type\":\"VEC3\"}]}";
+        Files.write(folder.resolve("triangle.gltf"), json.getBytes(StandardCharsets.UTF_8));
+        return folder;
+    }
+
+    private void delete(Path folder) {
+        for (File f : folder.toFile().listFiles()) {
+            f.delete();
+        }
+        folder.toFile().delete();
+    }
+
+}
@@ -0,0 +1,177 @@
+package org.gltfio.test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.gltfio.deserialize.ByteJsonReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+class ByteJsonReaderTest {
+
+    private static final String JSON = "{\"asset\":{\"version\":\"2.0\",\"generator\":\"gltf-io\"},\"scene\":0,"
+            + "\"nodes\":[{\"name\":\"n\\u00e4me\",\"mesh\":0,\"translation\":[0.5,-1e3,2.5E-2],\"children\":[]},"
+            + "{\"name\":\"r\u00e4w \u4e2d \ud83d\ude00\",\"extras\":{}}],"
+            + "\"meshes\":[{\"primitives\":[{\"attributes\":{\"POSITION\":0,\"NORMAL\":1},\"mode\":4}],"
+            + "\"weights\":[0,1,-0.0,0.0]}],\"extensionsUsed\":null,\"flags\":[true,false],"
+            + "\"big\":12345678901234567890,\"long\":-9223372036854775808,\"n\\\"ame\":\"\\t\\\\\"}";
+
+    @Test
+    void gsonParity() throws IOException {
+        ArrayList<String> expected = readTokens(new JsonReader(new StringReader(JSON)));
+        for (ByteBuffer buffer : createBuffers(JSON)) {
+            Assertions.assertEquals(expected, readTokens(new ByteJsonReader(buffer)));
+            // Position of the buffer is not changed
+            Assertions.assertEquals(expected, readTokens(new ByteJsonReader(buffer)));
+        }
+        Gson gson = new Gson();
+        Object object = gson.fromJson(new JsonReader(new StringReader(JSON)), Object.class);
+        for (ByteBuffer buffer : createBuffers(JSON)) {
+            Assertions.assertEquals(object, gson.fromJson(new ByteJsonReader(buffer), Object.class));
+        }
+    }
+
+    @Test
+    void escapes() throws IOException {
+        String json = "[\"\\t\\b\\n\\r\\f\\\"\\\\\\/\",\"\\u00e9\\u4E2D\",\"\\ud83d\\ude00\",\"a\\u0041b\\\\\","
+                + "\"\u00e9\\n\u4e2d\\t\ud83d\ude00\",\"\"]";
+        String[] expected = new String[] { "\t\b\n\r\f\"\\/", "\u00e9\u4e2d", "\ud83d\ude00", "aAb\\",
+                "\u00e9\n\u4e2d\t\ud83d\ude00", "" };
+        for (ByteBuffer buffer : createBuffers(json)) {
+            ByteJsonReader reader = new ByteJsonReader(buffer);
+            reader.beginArray();
+            for (String value : expected) {
+                Assertions.assertEquals(value, reader.nextString());
+            }
+            reader.endArray();
+        }
+        Assertions.assertEquals(readTokens(new JsonReader(new StringReader(json))), readTokens(new ByteJsonReader(
+                createBuffers(json)[0])));
+    }
+
+    @Test
+    void invalidEscape() {
+        for (String json : new String[] { "[\"\\x\"]", "[\"a\\'\"]", "[\"\\u12\"]", "{\"\\a\":0}" }) {
+            for (ByteBuffer buffer : createBuffers(json)) {
+                Assertions.assertThrows(MalformedJsonException.class, () -> readTokens(new ByteJsonReader(buffer)),
+                        json);
+            }
+        }
+    }
+
+    @Test
+    void exactDoubles() throws IOException {
+        ArrayList<String> numbers = new ArrayList<String>();
+        for (String number : new String[] { "0", "-0", "0.0", "1", "0.1", "0.3", "1e22", "1e23", "1E-22", "1e-23",
+                "9007199254740991", "9007199254740992", "9007199254740993", "123456789012345678",
+                "1234567890123456789", "0.000001234567890123456789", "1.7976931348623157e308", "4.9e-324",
+                "2.2250738585072014E-308", "1e400", "-1e-400", "2.5E+3", "123.456e-2", "100000000000000000000000",
+                "0.30000000000000004", "1e0001" }) {
+            numbers.add(number);
+        }
+        Random random = new Random(1);
+        for (int i = 0; i < 5000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+                numbers.add(Double.toString(value));
+            }
+            // Short decimals, as written by exporters, use the exact path
+            numbers.add(Float.toString(random.nextFloat() * 1000 - 500));
+            numbers.add((random.nextInt(2000000) - 1000000) + "e" + (random.nextInt(45) - 22));
+        }
+        String json = "[" + String.join(",", numbers) + "]";
+        for (ByteBuffer buffer : createBuffers(json)) {
+            ByteJsonReader reader = new ByteJsonReader(buffer);
+            reader.beginArray();
+            for (String number : numbers) {
+                Assertions.assertEquals(Double.doubleToRawLongBits(Double.parseDouble(number)), Double
+                        .doubleToRawLongBits(reader.nextDouble()), number);
+            }
+            reader.endArray();
+        }
+    }
+
+    /**
+     * Returns the data in a heap buffer, a heap buffer with array offset and position, and a direct buffer
+     *
+     * @param json
+     * @return
+     */
+    private static ByteBuffer[] createBuffers(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer offset = ByteBuffer.allocate(bytes.length + 10);
+        offset.position(3);
+        offset = offset.slice();
+        offset.position(4);
+        offset.put(bytes).flip().position(4);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        return new ByteBuffer[] { ByteBuffer.wrap(bytes), offset, direct };
+    }
+
+    /**
+     * Reads all tokens, numbers are read as doubles and compared bitwise
+     *
+     * @param reader
+     * @return
+     * @throws IOException
+     */
+    private static ArrayList<String> readTokens(JsonReader reader) throws IOException {
+        ArrayList<String> tokens = new ArrayList<String>();
+        int depth = 0;
+        do {
+            switch (reader.peek()) {
+                case BEGIN_ARRAY:
+                    reader.beginArray();
+                    tokens.add("[");
+                    depth++;
+                    break;
+                case END_ARRAY:
+                    reader.endArray();
+                    tokens.add("]");
+                    depth--;
+                    break;
+                case BEGIN_OBJECT:
+                    reader.beginObject();
+                    tokens.add("{");
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    reader.endObject();
+                    tokens.add("}");
+                    depth--;
+                    break;
+                case NAME:
+                    tokens.add("name " + reader.nextName());
+                    break;
+                case STRING:
+                    tokens.add("string " + reader.nextString());
+                    break;
+                case NUMBER:
+                    tokens.add("number " + Double.doubleToRawLongBits(reader.nextDouble()));
+                    break;
+                case BOOLEAN:
+                    tokens.add("boolean " + reader.nextBoolean());
+                    break;
+                case NULL:
+                    reader.nextNull();
+                    tokens.add("null");
+                    break;
+                default:
+                    throw new IllegalArgumentException(reader.peek().toString());
+            }
+        } while (depth > 0);
+        Assertions.assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+        return tokens;
+    }
+
+}
@@ -0,0 +1,105 @@
+package org.gltfio.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+
+import org.gltfio.deserialize.Ladda;
+import org.gltfio.gltf2.JSONBufferView;
+import org.gltfio.gltf2.VanillaGltf;
+import org.gltfio.gltf2.stream.SubStream;
+import org.gltfio.gltf2.stream.SubStream.Compression;
+import org.gltfio.gltf2.stream.SubStream.Type;
+import org.gltfio.lib.Logger;
+import org.gltfio.prepare.GltfSettings;
+
+/**
+ * Compares ZLIB and LZ chunk compression on the bufferviews of a glTF asset.
+ * Each bufferview is stored as one attribute chunk, the same chunks are used for all compression types.
+ * Usage: Glb2CompressionBenchmark [gltf file] [iterations]
+ */
+public class Glb2CompressionBenchmark {
+
+    String file = "C:/assets/test-assets/gltf/10000asteroids/asteroid_belt_01.glb";
+    int iterations = 10;
+
+    public static void main(String[] args) throws ClassNotFoundException, IOException, URISyntaxException,
+            DataFormatException {
+        Glb2CompressionBenchmark benchmark = new Glb2CompressionBenchmark();
+        if (args.length > 0) {
+            benchmark.file = args[0];
+        }
+        if (args.length > 1) {
+            benchmark.iterations = Integer.parseInt(args[1]);
+        }
+        benchmark.run();
+        System.exit(0);
+    }
+
+    public void run() throws ClassNotFoundException, IOException, URISyntaxException, DataFormatException {
+        File f = new File(file);
+        VanillaGltf asset = (VanillaGltf) Ladda.getInstance(VanillaGltf.class).loadGltf(f.getParent(), f.getName(),
+                null, new GltfSettings(null));
+        List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+        long total = 0;
+        for (JSONBufferView bufferView : asset.getBufferViews()) {
+            int length = bufferView.getByteLength();
+            ByteBuffer chunk = ByteBuffer.allocateDirect(length + SubStream.CHUNK_HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            chunk.put(Type.ATTRIBUTE.value);
+            chunk.putInt(chunk.capacity());
+            bufferView.copy(1, length, chunk);
+            chunks.add(chunk);
+            total += length;
+        }
+        // Warmup
+        measure(chunks, total, Compression.ZLIB, Deflater.BEST_SPEED, 1);
+        measure(chunks, total, Compression.LZ, 0, 1);
+        print(measure(chunks, total, Compression.ZLIB, Deflater.BEST_SPEED, iterations));
+        print(measure(chunks, total, Compression.ZLIB, Deflater.BEST_COMPRESSION, iterations));
+        print(measure(chunks, total, Compression.LZ, 0, iterations));
+    }
+
+    private void print(String result) {
+        Logger.d(getClass(), result);
+        System.out.println(result);
+    }
+
+    private String measure(List<ByteBuffer> chunks, long total, Compression compression, int level, int count)
+            throws DataFormatException {
+        long compressTime = 0;
+        long decompressTime = 0;
+        long compressedSize = 0;
+        for (int i = 0; i < count; i++) {
+            compressedSize = 0;
+            for (ByteBuffer source : chunks) {
+                ByteBuffer chunk = ByteBuffer.allocateDirect(source.capacity()).order(ByteOrder.LITTLE_ENDIAN);
+                chunk.put(source.duplicate().position(0));
+                chunk.position(0);
+                long start = System.nanoTime();
+                boolean compressed = SubStream.compressChunk(chunk, compression, level);
+                compressTime += System.nanoTime() - start;
+                compressedSize += chunk.remaining();
+                if (compressed) {
+                    chunk.position(SubStream.CHUNK_HEADER_SIZE);
+                    int size = chunk.getInt();
+                    ByteBuffer destination = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+                    start = System.nanoTime();
+                    SubStream.decompress(chunk, destination, compression);
+                    decompressTime += System.nanoTime() - start;
+                }
+            }
+        }
+        double mb = (double) total * count / (1024 * 1024);
+        return String.format("%-5s level %d: ratio %5.3f, compress %8.2f MB/s, decompress %8.2f MB/s",
+                compression, level, (double) compressedSize / total, mb / (compressTime / 1000000000.0),
+                mb / (decompressTime / 1000000000.0));
+    }
+
+}
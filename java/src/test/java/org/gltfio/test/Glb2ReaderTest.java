@@ -0,0 +1,181 @@
+package org.gltfio.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import org.gltfio.deserialize.Ladda;
+import org.gltfio.glb2.Glb2Reader;
+import org.gltfio.glb2.Glb2Reader.Glb2Streamer;
+import org.gltfio.glb2.Glb2Writer;
+import org.gltfio.gltf2.JSONGltf;
+import org.gltfio.gltf2.StreamingGltf;
+import org.gltfio.gltf2.StreamingScene;
+import org.gltfio.gltf2.VanillaGltf;
+import org.gltfio.gltf2.VanillaStreamingGltf;
+import org.gltfio.gltf2.stream.NamedSubStream;
+import org.gltfio.gltf2.stream.SubStream;
+import org.gltfio.gltf2.stream.SubStream.Type;
+import org.gltfio.prepare.GltfSettings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class Glb2ReaderTest implements Glb2Streamer<StreamingScene> {
+
+    /**
+     * Number of vertices in each mesh, large and small meshes are mixed so that chunks take different time to
+     * decode
+     */
+    private static final int[] VERTEX_COUNTS = new int[] { 60000, 3, 30, 90000, 3, 3, 300, 30000, 3 };
+    private static final ArrayList<String> DISPATCHED = new ArrayList<String>();
+
+    /**
+     * Records the chunks in the order they are dispatched
+     */
+    public static class RecordingGltf extends VanillaStreamingGltf {
+
+        @Override
+        public void chunkUpdate(SubStream<?> chunk) {
+            String name = chunk instanceof NamedSubStream ? ((NamedSubStream<?>) chunk).getName() : "";
+            DISPATCHED.add(chunk.getChunkType() + " " + chunk.getSize() + " " + name);
+            super.chunkUpdate(chunk);
+        }
+    }
+
+    private int loadedCount = 0;
+
+    @Override
+    public void glb2Update(StreamingGltf<StreamingScene> glTF, Type type) {
+    }
+
+    @Override
+    public void glb2Loaded(StreamingGltf<StreamingScene> glTF) {
+        loadedCount++;
+    }
+
+    @Test
+    void processUntilLoaded() throws IOException, ClassNotFoundException, URISyntaxException {
+        Path folder = createFolder();
+        try {
+            for (boolean channel : new boolean[] { false, true }) {
+                loadedCount = 0;
+                Glb2Reader reader = new Glb2Reader(VanillaStreamingGltf.class);
+                if (channel) {
+                    reader.openChannel(FileChannel.open(folder.resolve("triangle.glb2")));
+                } else {
+                    reader.mapToBuffer(folder.toString() + File.separator, "triangle.glb2");
+                }
+                reader.beginProcessing(this);
+                float progress;
+                int calls = 0;
+                do {
+                    // No budget, one chunk is processed for each call
+                    progress = reader.process(0);
+                    calls++;
+                    Assertions.assertEquals(progress < 1f ? 0 : 1, loadedCount, "Progress " + progress);
+                } while (progress < 1f && calls < 100);
+                Assertions.assertEquals(1, loadedCount, "Not loaded");
+                Assertions.assertTrue(calls > 1);
+                Assertions.assertEquals(1f, reader.process(0));
+                Assertions.assertEquals(1, loadedCount);
+            }
+        } finally {
+            delete(folder);
+        }
+    }
+
+    @Test
+    void parallelDecodeInFileOrder() throws IOException, ClassNotFoundException, URISyntaxException {
+        Path folder = createFolder();
+        try {
+            // Serial decode dispatches in file order
+            ArrayList<String> fileOrder = read(folder, false);
+            for (int i = 0; i < 5; i++) {
+                Assertions.assertEquals(fileOrder, read(folder, true));
+            }
+            Assertions.assertEquals(5 + 1, loadedCount);
+        } finally {
+            delete(folder);
+        }
+    }
+
+    private ArrayList<String> read(Path folder, boolean parallel) throws IOException, ClassNotFoundException,
+            URISyntaxException {
+        DISPATCHED.clear();
+        Glb2Reader reader = new Glb2Reader(RecordingGltf.class);
+        reader.setParallelDecode(parallel);
+        reader.mapToBuffer(folder.toString() + File.separator, "triangle.glb2");
+        reader.processChunks(this);
+        Assertions.assertTrue(DISPATCHED.size() > VERTEX_COUNTS.length * 2);
+        return new ArrayList<String>(DISPATCHED);
+    }
+
+    /**
+     * Creates a glTF with one node and mesh for each of {@link #VERTEX_COUNTS} and writes it as glb2
+     *
+     * @return
+     * @throws IOException
+     */
+    private Path createFolder() throws IOException, ClassNotFoundException, URISyntaxException {
+        Path folder = Files.createTempDirectory("glb2reader");
+        int total = 0;
+        for (int count : VERTEX_COUNTS) {
+            total += count * 3 * Float.BYTES;
+        }
+        ByteBuffer data = ByteBuffer.allocate(total).order(ByteOrder.LITTLE_ENDIAN);
+        StringBuilder nodes = new StringBuilder();
+        StringBuilder meshes = new StringBuilder();
+        StringBuilder bufferViews = new StringBuilder();
+        StringBuilder accessors = new StringBuilder();
+        for (int i = 0; i < VERTEX_COUNTS.length; i++) {
+            int count = VERTEX_COUNTS[i];
+            String separator = i > 0 ? "," : "";
+            nodes.append(separator + "{\"name\":\"node" + i + "\",\"mesh\":" + i + ",\"translation\":[0,0,0],"
+                    + "\"rotation\":[0,0,0,1],\"scale\":[1,1,1]}");
+            meshes.append(separator + "{\"name\":\"mesh" + i + "\",\"primitives\":[{\"attributes\":{\"POSITION\":"
+                    + i + "},\"material\":0}]}");
+            bufferViews.append(separator + "{\"buffer\":0,\"byteOffset\":" + data.position() + ",\"byteLength\":"
+                    + count * 3 * Float.BYTES + ",\"target\":34962}");
+            accessors.append(separator + "{\"bufferView\":" + i + ",\"componentType\":5126,\"count\":" + count
+                    + ",\"type\":\"VEC3\",\"min\":[0,0,0],\"max\":[1,1,0]}");
+            for (int v = 0; v < count; v++) {
+                data.putFloat(v % 2).putFloat((v / 2) % 2).putFloat(0);
+            }
+        }
+        Files.write(folder.resolve("triangle.bin"), data.array());
+        String json = "{\"asset\":{\"version\":\"2.0\"},\"scene\":0,\"scenes\":[{\"nodes\":[" + getNodeIndexes()
+                + "]}],\"nodes\":[" + nodes + "],\"meshes\":[" + meshes + "],"
+                + "\"materials\":[{\"name\":\"material\",\"alphaCutoff\":0.5,\"emissiveFactor\":[0,0,0],"
+                + "\"pbrMetallicRoughness\":{\"baseColorFactor\":[1,1,1,1]}}],"
+                + "\"buffers\":[{\"uri\":\"triangle.bin\",\"byteLength\":" + total + "}],"
+                + "\"bufferViews\":[" + bufferViews + "],\"accessors\":[" + accessors + "]}";
+        Files.write(folder.resolve("triangle.gltf"), json.getBytes(StandardCharsets.UTF_8));
+        JSONGltf glTF = (JSONGltf) Ladda.getInstance(VanillaGltf.class).loadGltf(folder.toString()
+                + File.separator, "triangle.gltf", null, new GltfSettings(null));
+        Glb2Writer.getInstance().write(glTF.getScene(0), folder.resolve("triangle.glb2").toString());
+        return folder;
+    }
+
+    private String getNodeIndexes() {
+        StringBuilder indexes = new StringBuilder();
+        for (int i = 0; i < VERTEX_COUNTS.length; i++) {
+            indexes.append(i > 0 ? "," + i : i);
+        }
+        return indexes.toString();
+    }
+
+    private void delete(Path folder) {
+        for (File f : folder.toFile().listFiles()) {
+            f.delete();
+        }
+        folder.toFile().delete();
+    }
+
+}
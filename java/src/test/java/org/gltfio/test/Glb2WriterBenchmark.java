@@ -0,0 +1,96 @@
+package org.gltfio.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.gltfio.deserialize.Ladda;
+import org.gltfio.glb2.Glb2Writer;
+import org.gltfio.glb2.Glb2WriterSession;
+import org.gltfio.glb2.Glb2WriterSettings;
+import org.gltfio.gltf2.RenderableScene;
+import org.gltfio.gltf2.VanillaGltf;
+import org.gltfio.lib.Logger;
+import org.gltfio.prepare.GltfSettings;
+
+/**
+ * Measures glb2 export throughput when a number of exports, each using its own session, are run concurrently.
+ * Usage: Glb2WriterBenchmark [gltf file] [exports per run]
+ * Each export compresses on its own thread so that the result shows scaling of concurrent sessions.
+ */
+public class Glb2WriterBenchmark {
+
+    String file = "C:/assets/test-assets/gltf/10000asteroids/asteroid_belt_01.glb";
+    int exports = 32;
+    int warmup = 2;
+
+    public static void main(String[] args) throws ClassNotFoundException, IOException, URISyntaxException,
+            InterruptedException, ExecutionException {
+        Glb2WriterBenchmark benchmark = new Glb2WriterBenchmark();
+        if (args.length > 0) {
+            benchmark.file = args[0];
+        }
+        if (args.length > 1) {
+            benchmark.exports = Integer.parseInt(args[1]);
+        }
+        benchmark.run();
+        System.exit(0);
+    }
+
+    public void run() throws ClassNotFoundException, IOException, URISyntaxException, InterruptedException,
+            ExecutionException {
+        File f = new File(file);
+        VanillaGltf asset = (VanillaGltf) Ladda.getInstance(VanillaGltf.class).loadGltf(f.getParent(), f.getName(),
+                null, new GltfSettings(null));
+        RenderableScene scene = asset.getScene(0);
+        Path outDir = Files.createTempDirectory("glb2bench");
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < warmup; i++) {
+            export(scene, outDir, 1);
+        }
+        for (int threads = 1; threads <= processors * 2; threads *= 2) {
+            long start = System.nanoTime();
+            long bytes = export(scene, outDir, threads);
+            double seconds = (System.nanoTime() - start) / 1000000000.0;
+            String result = String.format("threads %2d: %6.2f exports/s, %8.2f MB/s", threads, exports / seconds,
+                    bytes / seconds / (1024 * 1024));
+            Logger.d(getClass(), result);
+            System.out.println(result);
+        }
+    }
+
+    private long export(RenderableScene scene, Path outDir, int threads) throws InterruptedException,
+            ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<Future<Long>>();
+            for (int i = 0; i < exports; i++) {
+                String filename = outDir.resolve("export" + i + ".glb2").toString();
+                results.add(executor.submit(() -> {
+                    Glb2WriterSettings settings = new Glb2WriterSettings();
+                    settings.setExecutor(null);
+                    try (Glb2WriterSession session = Glb2Writer.getInstance().openSession(filename, settings)) {
+                        session.write(scene);
+                        return session.getTotalSize();
+                    }
+                }));
+            }
+            long bytes = 0;
+            for (Future<Long> result : results) {
+                bytes += result.get();
+            }
+            return bytes;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.gltfio.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+import org.gltfio.deserialize.Ladda;
+import org.gltfio.deserialize.Ladda.LaddaBooleanProperties;
+import org.gltfio.gltf2.VanillaGltf;
+import org.gltfio.lib.Logger;
+import org.gltfio.lib.Settings;
+
+/**
+ * Compares JSON parse time of a glTF or glb using {@link org.gltfio.deserialize.ByteJsonReader} and Gson's char
+ * based reader. Only the JSON is parsed, buffers are not loaded.
+ * Usage: GltfParseBenchmark [gltf or glb file] [iterations]
+ */
+public class GltfParseBenchmark {
+
+    String file = "C:/assets/test-assets/gltf/10000asteroids/asteroid_belt_01.glb";
+    int iterations = 10;
+    int warmup = 3;
+
+    public static void main(String[] args) throws ClassNotFoundException, IOException, URISyntaxException {
+        GltfParseBenchmark benchmark = new GltfParseBenchmark();
+        if (args.length > 0) {
+            benchmark.file = args[0];
+        }
+        if (args.length > 1) {
+            benchmark.iterations = Integer.parseInt(args[1]);
+        }
+        benchmark.run();
+        System.exit(0);
+    }
+
+    public void run() throws ClassNotFoundException, IOException, URISyntaxException {
+        File f = new File(file);
+        Ladda ladda = Ladda.getInstance(VanillaGltf.class);
+        print(measure(ladda, f, false));
+        print(measure(ladda, f, true));
+        Settings.getInstance().setProperty(LaddaBooleanProperties.BYTE_JSON_READER, true);
+    }
+
+    private void print(String result) {
+        Logger.d(getClass(), result);
+        System.out.println(result);
+    }
+
+    private String measure(Ladda ladda, File f, boolean byteReader) throws ClassNotFoundException, IOException,
+            URISyntaxException {
+        Settings.getInstance().setProperty(LaddaBooleanProperties.BYTE_JSON_READER, byteReader);
+        for (int i = 0; i < warmup; i++) {
+            ladda.loadJSON(f.getParent() + File.separator, f.getName());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            ladda.loadJSON(f.getParent() + File.separator, f.getName());
+        }
+        double millis = (System.nanoTime() - start) / 1000000.0 / iterations;
+        return String.format("%s: %8.2f ms per parse, %8.2f MB/s", byteReader ? "ByteJsonReader" : "Gson reader",
+                millis, f.length() / (millis / 1000) / (1024 * 1024));
+    }
+
+}
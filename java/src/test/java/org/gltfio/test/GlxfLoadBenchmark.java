@@ -0,0 +1,139 @@
+package org.gltfio.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.gltfio.deserialize.Ladda;
+import org.gltfio.deserialize.Ladda.LaddaIntProperties;
+import org.gltfio.gltf2.JSONScene;
+import org.gltfio.gltf2.MinMax;
+import org.gltfio.gltf2.VanillaGltf;
+import org.gltfio.glxf.Glxf;
+import org.gltfio.lib.Logger;
+import org.gltfio.lib.Settings;
+import org.gltfio.prepare.GltfSettings;
+
+/**
+ * Measures load time of a generated glXF that references a number of glTF assets, using different values of
+ * {@link LaddaIntProperties#GLXF_PARALLELISM}. Every fourth reference uses the same uri as the reference before,
+ * these shall share the loaded asset. Each glTF is offset by its asset index, this is used to check that the
+ * assets are set in the glXF in reference order.
+ * Usage: GlxfLoadBenchmark [number of references] [vertices per asset]
+ */
+public class GlxfLoadBenchmark {
+
+    int references = 200;
+    int vertices = 30000;
+    int warmup = 2;
+
+    public static void main(String[] args) throws ClassNotFoundException, IOException, URISyntaxException {
+        GlxfLoadBenchmark benchmark = new GlxfLoadBenchmark();
+        if (args.length > 0) {
+            benchmark.references = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            benchmark.vertices = Integer.parseInt(args[1]);
+        }
+        benchmark.run();
+        System.exit(0);
+    }
+
+    public void run() throws ClassNotFoundException, IOException, URISyntaxException {
+        Path folder = Files.createTempDirectory("glxf");
+        try {
+            int[] assetIndexes = createAssets(folder);
+            Ladda ladda = Ladda.getInstance(VanillaGltf.class);
+            String path = folder.toString() + File.separator;
+            for (int i = 0; i < warmup; i++) {
+                ladda.loadGltf(path, "benchmark.glxf", null, new GltfSettings(null));
+            }
+            int processors = Runtime.getRuntime().availableProcessors();
+            for (int parallelism = 1; parallelism <= processors * 2; parallelism *= 2) {
+                Settings.getInstance().setProperty(LaddaIntProperties.GLXF_PARALLELISM, parallelism);
+                long start = System.nanoTime();
+                Glxf glXF = (Glxf) ladda.loadGltf(path, "benchmark.glxf", null, new GltfSettings(null));
+                double millis = (System.nanoTime() - start) / 1000000.0;
+                String result = String.format("parallelism %2d: %8.2f ms, %8.2f references/s, ordered %b",
+                        parallelism, millis, references * 1000 / millis, isOrdered(glXF, assetIndexes));
+                Logger.d(getClass(), result);
+                System.out.println(result);
+            }
+        } finally {
+            for (File f : folder.toFile().listFiles()) {
+                f.delete();
+            }
+            folder.toFile().delete();
+        }
+    }
+
+    /**
+     * Returns true if the scene of each reference has the bounds of the expected asset and references with the
+     * same uri share the scene
+     *
+     * @param glXF
+     * @param assetIndexes
+     * @return
+     */
+    private boolean isOrdered(Glxf glXF, int[] assetIndexes) {
+        float[] min = new float[3];
+        for (int i = 0; i < assetIndexes.length; i++) {
+            JSONScene scene = (JSONScene) glXF.getAssetScene(i);
+            MinMax bounds = scene.calculateBounds();
+            if (bounds == null || bounds.getMinValue(min)[0] != assetIndexes[i]) {
+                return false;
+            }
+            if (i > 0 && assetIndexes[i] == assetIndexes[i - 1] && scene != glXF.getAssetScene(i - 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the glTF assets and the glXF, returns the asset index of each reference
+     *
+     * @param folder
+     * @return
+     * @throws IOException
+     */
+    private int[] createAssets(Path folder) throws IOException {
+        int[] assetIndexes = new int[references];
+        StringBuilder glxf = new StringBuilder("{\"asset\":{\"version\":\"2.0\"},\"assets\":[");
+        int assetIndex = -1;
+        for (int i = 0; i < references; i++) {
+            if (i % 4 != 3) {
+                assetIndex++;
+                createAsset(folder, assetIndex);
+            }
+            assetIndexes[i] = assetIndex;
+            glxf.append(i > 0 ? "," : "").append("{\"uri\":\"asset" + assetIndex + ".gltf\"}");
+        }
+        glxf.append("]}");
+        Files.write(folder.resolve("benchmark.glxf"), glxf.toString().getBytes(StandardCharsets.UTF_8));
+        return assetIndexes;
+    }
+
+    private void createAsset(Path folder, int index) throws IOException {
+        int count = vertices - vertices % 3;
+        ByteBuffer positions = ByteBuffer.allocate(count * 12).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < count; i++) {
+            positions.putFloat(index + (i % 7) / 7f).putFloat((i % 11) / 11f).putFloat((i % 13) / 13f);
+        }
+        Files.write(folder.resolve("asset" + index + ".bin"), positions.array());
+        String json = "{\"asset\":{\"version\":\"2.0\"},\"scene\":0,\"scenes\":[{\"nodes\":[0]}],"
+                + "\"nodes\":[{\"mesh\":0}],\"meshes\":[{\"primitives\":[{\"attributes\":{\"POSITION\":0},"
+                + "\"material\":0}]}],\"materials\":[{\"name\":\"material\"}],"
+                + "\"buffers\":[{\"uri\":\"asset" + index + ".bin\",\"byteLength\":" + count * 12 + "}],"
+                + "\"bufferViews\":[{\"buffer\":0,\"byteLength\":" + count * 12 + ",\"target\":34962}],"
+                + "\"accessors\":[{\"bufferView\":0,\"componentType\":5126,\"count\":" + count
+                + ",\"type\":\"VEC3\",\"min\":[" + index + ",0,0],\"max\":[" + (index + 1) + ",1,1]}]}";
+        Files.write(folder.resolve("asset" + index + ".gltf"), json.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,115 @@
+package org.gltfio.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.gltfio.gltf2.stream.IndexCodec;
+import org.gltfio.gltf2.stream.PrimitiveStream.IndexType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class IndexCodecTest {
+
+    @Test
+    void roundTrip() {
+        Random random = new Random(1);
+        for (IndexType type : IndexType.values()) {
+            int max = type == IndexType.BYTE ? 0x0ff : type == IndexType.SHORT ? 0x0ffff : Integer.MAX_VALUE;
+            // Triangle strip like indices, random indices and the extremes of the type
+            int[] sequential = new int[3000];
+            for (int i = 0; i < sequential.length; i++) {
+                sequential[i] = Math.min(max, i / 3 + i % 3);
+            }
+            int[] randomIndices = new int[1000];
+            for (int i = 0; i < randomIndices.length; i++) {
+                randomIndices[i] = type == IndexType.INT ? random.nextInt() : random.nextInt(max + 1);
+            }
+            int[] extremes = type == IndexType.INT ? new int[] { 0, Integer.MAX_VALUE, Integer.MIN_VALUE, -1, 0, -1 }
+                    : new int[] { 0, max, 0, max, max, 1 };
+            for (int[] indices : new int[][] { new int[0], sequential, randomIndices, extremes }) {
+                assertRoundTrip(type, indices);
+            }
+        }
+    }
+
+    @Test
+    void encodedSize() {
+        int[] indices = new int[] { 0, 1, 2, 2, 1, 3 };
+        ByteBuffer source = createSource(IndexType.SHORT, indices);
+        // Deltas are small, one byte for each index
+        Assertions.assertEquals(indices.length, IndexCodec.getEncodedSize(source, IndexType.SHORT, indices.length));
+        source = createSource(IndexType.INT, new int[] { 0, 64, 0, 8192 });
+        // Zig-zag of 64 is 128 and needs two bytes, -64 is 127 and needs one byte, 8192 needs three bytes
+        Assertions.assertEquals(1 + 2 + 1 + 3, IndexCodec.getEncodedSize(source, IndexType.INT, 4));
+    }
+
+    /**
+     * Encodes and decodes indices, checks that the encoded size matches and that source position is not
+     * changed
+     *
+     * @param type
+     * @param indices
+     */
+    private void assertRoundTrip(IndexType type, int[] indices) {
+        ByteBuffer source = createSource(type, indices);
+        source.position(3);
+        int size = IndexCodec.getEncodedSize(source, type, indices.length);
+        ByteBuffer encoded = ByteBuffer.allocate(size);
+        IndexCodec.encode(source, type, indices.length, encoded);
+        Assertions.assertEquals(0, encoded.remaining(), type + " encoded size");
+        Assertions.assertEquals(3, source.position());
+        ByteBuffer decoded = ByteBuffer.allocate(indices.length * type.dataType.size)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        IndexCodec.decode(encoded.flip(), type, indices.length, decoded);
+        Assertions.assertEquals(0, encoded.remaining());
+        Assertions.assertEquals(0, decoded.remaining());
+        decoded.flip();
+        for (int i = 0; i < indices.length; i++) {
+            Assertions.assertEquals(indices[i], getIndex(decoded, type), type + " index " + i);
+        }
+    }
+
+    /**
+     * Returns the indices stored as type, after 3 unused bytes
+     *
+     * @param type
+     * @param indices
+     * @return
+     */
+    private ByteBuffer createSource(IndexType type, int[] indices) {
+        ByteBuffer source = ByteBuffer.allocate(3 + indices.length * type.dataType.size)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        source.position(3);
+        for (int index : indices) {
+            switch (type) {
+                case BYTE:
+                    source.put((byte) index);
+                    break;
+                case SHORT:
+                    source.putShort((short) index);
+                    break;
+                case INT:
+                    source.putInt(index);
+                    break;
+                default:
+                    throw new IllegalArgumentException(type.toString());
+            }
+        }
+        return source.position(3);
+    }
+
+    private int getIndex(ByteBuffer buffer, IndexType type) {
+        switch (type) {
+            case BYTE:
+                return buffer.get() & 0x0ff;
+            case SHORT:
+                return buffer.getShort() & 0x0ffff;
+            case INT:
+                return buffer.getInt();
+            default:
+                throw new IllegalArgumentException(type.toString());
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+package org.gltfio.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+
+import org.gltfio.gltf2.stream.Decompressor;
+import org.gltfio.gltf2.stream.SubStream.Compression;
+import org.gltfio.lib.LZCodec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LZCodecTest {
+
+    @Test
+    void roundTrip() throws DataFormatException {
+        for (byte[] data : createData()) {
+            byte[] compressed = compress(data);
+            byte[] result = new byte[data.length];
+            Assertions.assertEquals(data.length, LZCodec.decompress(compressed, 0, compressed.length, result, 0,
+                    result.length));
+            Assertions.assertArrayEquals(data, result);
+        }
+    }
+
+    @Test
+    void roundTripBuffers() throws DataFormatException {
+        for (byte[] data : createData()) {
+            byte[] compressed = compress(data);
+            for (boolean direct : new boolean[] { false, true }) {
+                for (ByteOrder order : new ByteOrder[] { ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN }) {
+                    ByteBuffer source = allocate(compressed.length + 3, direct).order(ByteOrder.LITTLE_ENDIAN);
+                    source.position(3);
+                    source.put(compressed).position(3);
+                    ByteBuffer destination = allocate(data.length + 5, direct).order(order);
+                    destination.position(5);
+                    Assertions.assertEquals(data.length, LZCodec.decompress(source, destination));
+                    Assertions.assertEquals(0, source.remaining());
+                    Assertions.assertEquals(0, destination.remaining());
+                    byte[] result = new byte[data.length];
+                    destination.position(5);
+                    destination.get(result);
+                    Assertions.assertArrayEquals(data, result);
+                }
+            }
+        }
+    }
+
+    @Test
+    void decompressor() throws DataFormatException {
+        Decompressor decompressor = new Decompressor();
+        try {
+            for (byte[] data : createData()) {
+                ByteBuffer destination = ByteBuffer.allocateDirect(data.length);
+                decompressor.decompress(ByteBuffer.wrap(compress(data)), destination, Compression.LZ);
+                byte[] result = new byte[data.length];
+                destination.flip().get(result);
+                Assertions.assertArrayEquals(data, result);
+            }
+        } finally {
+            decompressor.end();
+        }
+    }
+
+    @Test
+    void invalidData() {
+        byte[] data = createData()[2];
+        byte[] compressed = compress(data);
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+        Decompressor decompressor = new Decompressor();
+        try {
+            // Truncated data may end after literals, the size does not match
+            Assertions.assertThrows(DataFormatException.class, () -> decompressor.decompress(ByteBuffer.wrap(
+                    truncated), ByteBuffer.allocate(data.length), Compression.LZ));
+            Assertions.assertThrows(DataFormatException.class, () -> decompressor.decompress(ByteBuffer
+                    .allocateDirect(truncated.length).put(truncated).flip(), ByteBuffer.allocateDirect(data.length),
+                    Compression.LZ));
+        } finally {
+            decompressor.end();
+        }
+        Assertions.assertThrows(DataFormatException.class, () -> LZCodec.decompress(compressed, 0,
+                compressed.length, new byte[data.length - 1], 0, data.length - 1));
+        Assertions.assertThrows(DataFormatException.class, () -> LZCodec.decompress(ByteBuffer.allocateDirect(
+                compressed.length).put(compressed).flip(), ByteBuffer.allocateDirect(data.length - 1)));
+    }
+
+    @Test
+    void unknownCompression() {
+        Assertions.assertEquals(Compression.LZ, Compression.get(2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Compression.get(3));
+    }
+
+    private static ByteBuffer allocate(int size, boolean direct) {
+        return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    }
+
+    private static byte[] compress(byte[] data) {
+        byte[] compressed = new byte[LZCodec.maxCompressedLength(data.length)];
+        int length = LZCodec.compress(data, 0, data.length, compressed, 0, compressed.length);
+        Assertions.assertTrue(length >= 0);
+        return Arrays.copyOf(compressed, length);
+    }
+
+    /**
+     * Returns empty, short, random, repeated float and single value data - the single value data has
+     * overlapping matches and lengths that continue in following bytes
+     *
+     * @return
+     */
+    private static byte[][] createData() {
+        Random random = new Random(1);
+        byte[] noise = new byte[70000];
+        random.nextBytes(noise);
+        ByteBuffer floats = ByteBuffer.allocate(100000).order(ByteOrder.LITTLE_ENDIAN);
+        while (floats.hasRemaining()) {
+            floats.putFloat(random.nextInt(16) * 0.25f);
+        }
+        byte[] single = new byte[5000];
+        Arrays.fill(single, (byte) 7);
+        byte[] mixed = new byte[20000];
+        for (int i = 0; i < mixed.length; i++) {
+            mixed[i] = (byte) (i % 1000 < 300 ? random.nextInt() : i % 13);
+        }
+        return new byte[][] { new byte[0], new byte[] { 1, 2, 3 }, floats.array(), noise, single, mixed };
+    }
+
+}
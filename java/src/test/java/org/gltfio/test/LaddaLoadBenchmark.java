@@ -0,0 +1,73 @@
+package org.gltfio.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.gltfio.deserialize.Ladda;
+import org.gltfio.gltf2.AssetBaseObject;
+import org.gltfio.gltf2.VanillaGltf;
+import org.gltfio.lib.Logger;
+import org.gltfio.prepare.GltfSettings;
+
+/**
+ * Measures glTF load throughput when a number of loads are run concurrently using
+ * {@link Ladda#loadGltfAsync(String, String, org.gltfio.prepare.ModelPreparation, GltfSettings)}.
+ * Usage: LaddaLoadBenchmark [gltf file] [loads per run]
+ * The same file is loaded for each load, the result shows how loading scales with number of threads.
+ */
+public class LaddaLoadBenchmark {
+
+    String file = "C:/assets/test-assets/gltf/10000asteroids/asteroid_belt_01.glb";
+    int loads = 32;
+    int warmup = 2;
+
+    public static void main(String[] args) throws ClassNotFoundException, IOException, URISyntaxException {
+        LaddaLoadBenchmark benchmark = new LaddaLoadBenchmark();
+        if (args.length > 0) {
+            benchmark.file = args[0];
+        }
+        if (args.length > 1) {
+            benchmark.loads = Integer.parseInt(args[1]);
+        }
+        benchmark.run();
+        System.exit(0);
+    }
+
+    public void run() throws ClassNotFoundException, IOException, URISyntaxException {
+        File f = new File(file);
+        Ladda ladda = Ladda.getInstance(VanillaGltf.class);
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < warmup; i++) {
+            load(ladda, f, 1);
+        }
+        for (int threads = 1; threads <= processors * 2; threads *= 2) {
+            long start = System.nanoTime();
+            load(ladda, f, threads);
+            double seconds = (System.nanoTime() - start) / 1000000000.0;
+            String result = String.format("threads %2d: %8.2f assets/s", threads, loads / seconds);
+            Logger.d(getClass(), result);
+            System.out.println(result);
+        }
+    }
+
+    private void load(Ladda ladda, File f, int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            ladda.setExecutor(executor);
+            List<CompletableFuture<AssetBaseObject>> results = new ArrayList<CompletableFuture<AssetBaseObject>>();
+            for (int i = 0; i < loads; i++) {
+                results.add(ladda.loadGltfAsync(f.getParent(), f.getName(), null, new GltfSettings(null)));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.gltfio.test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.gltfio.lib.LoadHandle;
+import org.gltfio.lib.LoadHandle.Priority;
+import org.gltfio.lib.LoadHandle.State;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LoadHandleTest {
+
+    @Test
+    void releaseWhenCancelledWhileQueued() {
+        LoadHandle<String> handle = new LoadHandle<String>("queued", Priority.NORMAL);
+        AtomicBoolean released = new AtomicBoolean();
+        AtomicBoolean loaded = new AtomicBoolean();
+        handle.setRelease(() -> released.set(true));
+        Assertions.assertTrue(handle.cancel());
+        handle.run(() -> {
+            loaded.set(true);
+            return "loaded";
+        });
+        Assertions.assertFalse(loaded.get(), "Load started after cancel");
+        Assertions.assertTrue(released.get(), "Release not called");
+        Assertions.assertEquals(State.CANCELLED, handle.getState());
+        Assertions.assertTrue(handle.isDone());
+    }
+
+    @Test
+    void releaseWhenCancelledAtCheckpoint() {
+        LoadHandle<String> handle = new LoadHandle<String>("loading", Priority.NORMAL);
+        AtomicBoolean released = new AtomicBoolean();
+        handle.setRelease(() -> released.set(true));
+        handle.run(() -> {
+            handle.cancel();
+            handle.checkpoint();
+            return "loaded";
+        });
+        Assertions.assertTrue(released.get(), "Release not called");
+        Assertions.assertEquals(State.CANCELLED, handle.getState());
+    }
+
+    @Test
+    void ignoreCancelAfterLoadReturned() throws Exception {
+        LoadHandle<String> handle = new LoadHandle<String>("completed", Priority.NORMAL);
+        AtomicBoolean released = new AtomicBoolean();
+        handle.setRelease(() -> released.set(true));
+        handle.run(() -> {
+            handle.checkpoint();
+            // Cancel after the last checkpoint, the loaded asset may already be shared
+            handle.cancel();
+            return "loaded";
+        });
+        Assertions.assertFalse(released.get(), "Release called for completed load");
+        Assertions.assertEquals(State.COMPLETED, handle.getState());
+        Assertions.assertEquals("loaded", handle.await());
+        Assertions.assertFalse(handle.cancel());
+    }
+
+    @Test
+    void cancelWithParent() {
+        LoadHandle<String> parent = new LoadHandle<String>("glxf", Priority.BACKGROUND);
+        LoadHandle<String> started = new LoadHandle<String>("started", parent);
+        LoadHandle<String> queued = new LoadHandle<String>("queued", parent);
+        Assertions.assertEquals(Priority.BACKGROUND, started.getPriority());
+        parent.setPriority(Priority.HIGH);
+        Assertions.assertEquals(Priority.HIGH, started.getPriority());
+        AtomicBoolean released = new AtomicBoolean();
+        AtomicBoolean loaded = new AtomicBoolean();
+        started.setRelease(() -> released.set(true));
+        started.run(() -> {
+            parent.cancel();
+            started.checkpoint();
+            return "loaded";
+        });
+        Assertions.assertTrue(released.get(), "Release not called");
+        Assertions.assertEquals(State.CANCELLED, started.getState());
+        queued.run(() -> {
+            loaded.set(true);
+            return "loaded";
+        });
+        Assertions.assertFalse(loaded.get(), "Load started after parent cancel");
+        Assertions.assertEquals(State.CANCELLED, queued.getState());
+    }
+
+    @Test
+    void releaseWhenFailed() {
+        LoadHandle<String> handle = new LoadHandle<String>("failed", Priority.NORMAL);
+        AtomicBoolean released = new AtomicBoolean();
+        handle.setRelease(() -> released.set(true));
+        handle.run(() -> {
+            throw new IllegalStateException("Failed");
+        });
+        Assertions.assertTrue(released.get(), "Release not called");
+        Assertions.assertEquals(State.FAILED, handle.getState());
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.gltfio.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.gltfio.deserialize.Ladda;
+import org.gltfio.deserialize.Ladda.LaddaBooleanProperties;
+import org.gltfio.gltf2.VanillaGltf;
+import org.gltfio.lib.Logger;
+import org.gltfio.lib.Settings;
+
+/**
+ * Compares JSON parse time using {@link org.gltfio.gltf2.JSONTypeAdapter} and Gson reflection, on a generated glTF
+ * with large node and accessor arrays. Only the JSON is parsed, buffers are not loaded.
+ * Usage: ModelTypeAdapterBenchmark [number of nodes and accessors] [iterations]
+ */
+public class ModelTypeAdapterBenchmark {
+
+    int count = 100000;
+    int iterations = 10;
+    int warmup = 3;
+
+    public static void main(String[] args) throws ClassNotFoundException, IOException, URISyntaxException {
+        ModelTypeAdapterBenchmark benchmark = new ModelTypeAdapterBenchmark();
+        if (args.length > 0) {
+            benchmark.count = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            benchmark.iterations = Integer.parseInt(args[1]);
+        }
+        benchmark.run();
+        System.exit(0);
+    }
+
+    public void run() throws ClassNotFoundException, IOException, URISyntaxException {
+        File f = File.createTempFile("typeadapter", ".gltf");
+        try {
+            Files.write(f.toPath(), createJson(count).getBytes(StandardCharsets.UTF_8));
+            Settings.getInstance().setProperty(LaddaBooleanProperties.MODEL_TYPE_ADAPTERS, false);
+            Ladda reflective = new Ladda(VanillaGltf.class);
+            Settings.getInstance().setProperty(LaddaBooleanProperties.MODEL_TYPE_ADAPTERS, true);
+            Ladda adapters = new Ladda(VanillaGltf.class);
+            print(measure(reflective, f, "Reflection"));
+            print(measure(adapters, f, "Type adapters"));
+        } finally {
+            f.delete();
+        }
+    }
+
+    private void print(String result) {
+        Logger.d(getClass(), result);
+        System.out.println(result);
+    }
+
+    private String measure(Ladda ladda, File f, String name) throws ClassNotFoundException, IOException,
+            URISyntaxException {
+        for (int i = 0; i < warmup; i++) {
+            ladda.loadJSON(f.getParent() + File.separator, f.getName());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            ladda.loadJSON(f.getParent() + File.separator, f.getName());
+        }
+        double millis = (System.nanoTime() - start) / 1000000.0 / iterations;
+        return String.format("%s: %8.2f ms per parse, %8.2f nodes and accessors per ms", name, millis, count / millis);
+    }
+
+    private String createJson(int size) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"asset\":{\"version\":\"2.0\"},\"scene\":0,\"scenes\":[{\"nodes\":[0]}],\"nodes\":[");
+        for (int i = 0; i < size; i++) {
+            sb.append(i > 0 ? "," : "");
+            sb.append("{\"name\":\"node" + i + "\",\"translation\":[" + i + ".5,1.25,-3.0],");
+            sb.append("\"rotation\":[0.0,0.7071068,0.0,0.7071068],\"scale\":[1.0,2.0,1.0]}");
+        }
+        sb.append("],\"accessors\":[");
+        for (int i = 0; i < size; i++) {
+            sb.append(i > 0 ? "," : "");
+            sb.append("{\"bufferView\":0,\"byteOffset\":" + (i % 100) * 12 + ",\"componentType\":5126,\"count\":100,");
+            sb.append("\"type\":\"VEC3\",\"max\":[1.0,1.0,1.0],\"min\":[-1.0,-1.0,-1.0]}");
+        }
+        sb.append("],\"bufferViews\":[{\"buffer\":0,\"byteLength\":2400,\"byteStride\":12,\"target\":34962}],");
+        sb.append("\"buffers\":[{\"uri\":\"data.bin\",\"byteLength\":2400}]}");
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,124 @@
+package org.gltfio.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.gltfio.deserialize.Ladda;
+import org.gltfio.gltf2.JSONAccessor;
+import org.gltfio.gltf2.JSONGltf;
+import org.gltfio.gltf2.JSONPrimitive.Attributes;
+import org.gltfio.gltf2.VanillaGltf;
+import org.gltfio.gltf2.stream.PayloadDeduplicator;
+import org.gltfio.gltf2.stream.VertexAttributeStream;
+import org.gltfio.lib.Buffers;
+import org.gltfio.prepare.GltfSettings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PayloadDeduplicatorTest {
+
+    private static final float[] POSITIONS = new float[] { 0, 0, 0, 1, 0, 0, 0, 1, 0, 1, 1, 0 };
+    private static final int SIZE = POSITIONS.length * Float.BYTES;
+    /**
+     * Accessors: 0 positions, 1 copy of positions, 2 positions interleaved, 3 positions with one changed byte
+     */
+    private static final int POSITION = 0;
+    private static final int COPY = 1;
+    private static final int INTERLEAVED = 2;
+    private static final int CHANGED = 3;
+
+    /**
+     * Hashes all data to the same value
+     */
+    private static class CollidingDeduplicator extends PayloadDeduplicator {
+        @Override
+        protected long hash(JSONAccessor accessor) {
+            return 1;
+        }
+    }
+
+    @Test
+    void duplicate() throws IOException, ClassNotFoundException, URISyntaxException {
+        JSONGltf glTF = load();
+        assertDuplicates(new PayloadDeduplicator(), glTF);
+        JSONAccessor position = glTF.getAccessor(POSITION);
+        ByteBuffer buffer = position.getBufferView().getBuffer().getBuffer();
+        Assertions.assertEquals(Buffers.hash64(buffer.duplicate().position(0).limit(SIZE)), Buffers.hash64(buffer, 0,
+                SIZE / 4, 4, SIZE / 4));
+        Assertions.assertEquals(Buffers.hash64(buffer, 0, SIZE / 4, 4, SIZE / 4), Buffers.hash64(buffer, SIZE * 2,
+                SIZE / 4, 4, SIZE / 2));
+    }
+
+    @Test
+    void hashCollision() throws IOException, ClassNotFoundException, URISyntaxException {
+        assertDuplicates(new CollidingDeduplicator(), load());
+    }
+
+    private void assertDuplicates(PayloadDeduplicator deduplicator, JSONGltf glTF) {
+        VertexAttributeStream stream = new VertexAttributeStream(Attributes.POSITION);
+        int[] next = new int[1];
+        int[] streamIndexes = new int[CHANGED + 1];
+        for (int i = 0; i < streamIndexes.length; i++) {
+            streamIndexes[i] = deduplicator.getStreamIndex(stream, glTF.getAccessor(i), () -> next[0]++);
+        }
+        Assertions.assertEquals(streamIndexes[POSITION], streamIndexes[COPY]);
+        Assertions.assertEquals(streamIndexes[POSITION], streamIndexes[INTERLEAVED]);
+        Assertions.assertNotEquals(streamIndexes[POSITION], streamIndexes[CHANGED]);
+        Assertions.assertEquals(2, deduplicator.getDuplicateCount());
+        Assertions.assertEquals(2, next[0]);
+    }
+
+    private JSONGltf load() throws IOException, ClassNotFoundException, URISyntaxException {
+        Path folder = Files.createTempDirectory("deduplicate");
+        try {
+            ByteBuffer data = ByteBuffer.allocate(SIZE * 5).order(ByteOrder.LITTLE_ENDIAN);
+            for (int copy = 0; copy < 2; copy++) {
+                for (float f : POSITIONS) {
+                    data.putFloat(f);
+                }
+            }
+            for (int i = 0; i < POSITIONS.length; i += 3) {
+                data.putFloat(POSITIONS[i]).putFloat(POSITIONS[i + 1]).putFloat(POSITIONS[i + 2]);
+                data.putFloat(-1).putFloat(-1).putFloat(-1);
+            }
+            for (float f : POSITIONS) {
+                data.putFloat(f);
+            }
+            data.put(data.position() - 1, (byte) 1);
+            Files.write(folder.resolve("deduplicate.bin"), data.array());
+            String json = "{\"asset\":{\"version\":\"2.0\"},\"scene\":0,\"scenes\":[{\"nodes\":[0]}],"
+                    + "\"nodes\":[{\"mesh\":0}],\"meshes\":[{\"primitives\":[{\"attributes\":{\"POSITION\":0},"
+                    + "\"material\":0}]}],\"materials\":[{\"name\":\"material\"}],"
+                    + "\"buffers\":[{\"uri\":\"deduplicate.bin\",\"byteLength\":" + SIZE * 5 + "}],"
+                    + "\"bufferViews\":[" + getBufferView(0, SIZE, 0) + "," + getBufferView(SIZE, SIZE, 0) + ","
+                    + getBufferView(SIZE * 2, SIZE * 2, SIZE / 2) + "," + getBufferView(SIZE * 4, SIZE, 0) + "],"
+                    + "\"accessors\":[" + getAccessor(0) + "," + getAccessor(1) + "," + getAccessor(2) + ","
+                    + getAccessor(3) + "]}";
+            Files.write(folder.resolve("deduplicate.gltf"), json.getBytes(StandardCharsets.UTF_8));
+            return (JSONGltf) Ladda.getInstance(VanillaGltf.class).loadGltf(folder.toString() + File.separator,
+                    "deduplicate.gltf", null, new GltfSettings(null));
+        } finally {
+            for (File f : folder.toFile().listFiles()) {
+                f.delete();
+            }
+            folder.toFile().delete();
+        }
+    }
+
+    private String getBufferView(int offset, int length, int stride) {
+        return "{\"buffer\":0,\"byteOffset\":" + offset + ",\"byteLength\":" + length
+                + (stride > 0 ? ",\"byteStride\":" + stride : "") + ",\"target\":34962}";
+    }
+
+    private String getAccessor(int bufferView) {
+        return "{\"bufferView\":" + bufferView + ",\"componentType\":5126,\"count\":4,\"type\":\"VEC3\","
+                + "\"min\":[0,0,0],\"max\":[1,1,0]}";
+    }
+
+}
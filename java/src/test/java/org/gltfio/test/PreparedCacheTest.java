@@ -0,0 +1,111 @@
+package org.gltfio.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.gltfio.deserialize.Ladda;
+import org.gltfio.deserialize.Ladda.LaddaProperties;
+import org.gltfio.gltf2.J2SEModelPreparation;
+import org.gltfio.gltf2.JSONAccessor;
+import org.gltfio.gltf2.JSONGltf;
+import org.gltfio.gltf2.JSONPrimitive.Attributes;
+import org.gltfio.gltf2.VanillaGltf;
+import org.gltfio.lib.Settings;
+import org.gltfio.prepare.GltfSettings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PreparedCacheTest {
+
+    private static final float[] POSITIONS = new float[] { 0, 0, 0, 1, 0, 0, 0, 1, 0 };
+    private static final float[] CHANGED = new float[] { 0, 0, 0, 2, 0, 0, 0, 2, 0 };
+
+    @Test
+    void changedBuffer() throws IOException, ClassNotFoundException, URISyntaxException {
+        Path folder = Files.createTempDirectory("preparedsource");
+        Path cacheFolder = Files.createTempDirectory("preparedcache");
+        Ladda ladda = Ladda.getInstance(VanillaGltf.class);
+        Settings.getInstance().setProperty(LaddaProperties.PREPARED_CACHE, cacheFolder.toString());
+        try {
+            createAsset(folder, POSITIONS);
+            Assertions.assertArrayEquals(POSITIONS, getPositions(load(ladda, folder)));
+            Assertions.assertEquals(1, count(cacheFolder, ".glb"));
+            Assertions.assertEquals(1, count(cacheFolder, ".key"));
+            // Key is read from index
+            Assertions.assertArrayEquals(POSITIONS, getPositions(load(ladda, folder)));
+            Assertions.assertEquals(1, count(cacheFolder, ".glb"));
+            Assertions.assertEquals(1, count(cacheFolder, ".key"));
+            // Same size, contents and modification time changed
+            File bin = folder.resolve("triangle.bin").toFile();
+            long modified = bin.lastModified();
+            Files.write(bin.toPath(), getBytes(CHANGED));
+            bin.setLastModified(modified + 10000);
+            Assertions.assertArrayEquals(CHANGED, getPositions(load(ladda, folder)));
+            Assertions.assertEquals(2, count(cacheFolder, ".glb"));
+            Assertions.assertEquals(2, count(cacheFolder, ".key"));
+        } finally {
+            Settings.getInstance().setProperty(LaddaProperties.PREPARED_CACHE, null);
+            delete(folder);
+            delete(cacheFolder);
+        }
+    }
+
+    private JSONGltf load(Ladda ladda, Path folder) throws IOException, ClassNotFoundException,
+            URISyntaxException {
+        J2SEModelPreparation modelPrep = new J2SEModelPreparation();
+        return (JSONGltf) ladda.loadGltf(folder.toString() + File.separator, "triangle.gltf", modelPrep,
+                new GltfSettings(null));
+    }
+
+    private float[] getPositions(JSONGltf glTF) {
+        JSONAccessor positions = glTF.getMeshes()[0].getPrimitives()[0].getAccessor(Attributes.POSITION);
+        float[] result = new float[POSITIONS.length];
+        positions.copy(result, 0);
+        return result;
+    }
+
+    private int count(Path folder, String suffix) {
+        int count = 0;
+        for (File f : folder.toFile().listFiles()) {
+            if (f.getName().endsWith(suffix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private byte[] getBytes(float[] values) {
+        ByteBuffer data = ByteBuffer.allocate(values.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (float f : values) {
+            data.putFloat(f);
+        }
+        return data.array();
+    }
+
+    private void createAsset(Path folder, float[] values) throws IOException {
+        int size = values.length * Float.BYTES;
+        Files.write(folder.resolve("triangle.bin"), getBytes(values));
+        String json = "{\"asset\":{\"version\":\"2.0\"},\"scene\":0,\"scenes\":[{\"nodes\":[0]}],"
+                + "\"nodes\":[{\"mesh\":0}],\"meshes\":[{\"primitives\":[{\"attributes\":{\"POSITION\":0},"
+                + "\"material\":0}]}],\"materials\":[{\"name\":\"material\"}],"
+                + "\"buffers\":[{\"uri\":\"triangle.bin\",\"byteLength\":" + size + "}],"
+                + "\"bufferViews\":[{\"buffer\":0,\"byteLength\":" + size + ",\"target\":34962}],"
+                + "\"accessors\":[{\"bufferView\":0,\"componentType\":5126,\"count\":3,\"type\":\"VEC3\","
+                + "\"min\":[0,0,0],\"max\":[2,2,0]}]}";
+        Files.write(folder.resolve("triangle.gltf"), json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void delete(Path folder) {
+        for (File f : folder.toFile().listFiles()) {
+            f.delete();
+        }
+        folder.toFile().delete();
+    }
+
+}
@@ -0,0 +1,96 @@
+package org.gltfio.test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.gltfio.deserialize.Ladda;
+import org.gltfio.deserialize.Ladda.LaddaProperties;
+import org.gltfio.deserialize.PreparedCache;
+import org.gltfio.gltf2.AssetBaseObject;
+import org.gltfio.gltf2.J2SEModelPreparation;
+import org.gltfio.gltf2.VanillaGltf;
+import org.gltfio.lib.Logger;
+import org.gltfio.lib.Settings;
+import org.gltfio.prepare.GltfSettings;
+
+/**
+ * Warms the prepared model cache, see {@link PreparedCache}, by loading all glTF and glb files in the folders using
+ * {@link J2SEModelPreparation} with all settings handlers. Each folder is searched recursively.
+ * The files are then loaded a second time, from the cache, and the load times are printed.
+ * Usage: PreparedCacheWarmer [cache folder] [asset folder or file]...
+ */
+public class PreparedCacheWarmer {
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: PreparedCacheWarmer [cache folder] [asset folder or file]...");
+            System.exit(1);
+        }
+        Settings.getInstance().setProperty(LaddaProperties.PREPARED_CACHE, args[0]);
+        ArrayList<File> files = new ArrayList<File>();
+        for (int i = 1; i < args.length; i++) {
+            addFiles(new File(args[i]), files);
+        }
+        PreparedCacheWarmer warmer = new PreparedCacheWarmer();
+        Ladda ladda = Ladda.getInstance(VanillaGltf.class);
+        warmer.print("Warm   " + warmer.load(ladda, files));
+        warmer.print("Cached " + warmer.load(ladda, files));
+        System.exit(0);
+    }
+
+    private static void addFiles(File file, ArrayList<File> files) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    addFiles(child, files);
+                }
+            }
+        } else {
+            String name = file.getName().toLowerCase();
+            if (name.endsWith(".gltf") || name.endsWith(".glb")) {
+                files.add(file);
+            }
+        }
+    }
+
+    private void print(String result) {
+        Logger.d(getClass(), result);
+        System.out.println(result);
+    }
+
+    /**
+     * Loads the files concurrently, the loads share one model preparation
+     *
+     * @param ladda
+     * @param files
+     * @return
+     */
+    private String load(Ladda ladda, List<File> files) {
+        long start = System.nanoTime();
+        List<CompletableFuture<AssetBaseObject>> results = new ArrayList<CompletableFuture<AssetBaseObject>>();
+        J2SEModelPreparation modelPrep = new J2SEModelPreparation();
+        for (File f : files) {
+            GltfSettings settings = new GltfSettings(null);
+            settings.setDefaultVertexBuffers(modelPrep);
+            settings.setIndexedToShort(modelPrep);
+            settings.setCreateNormals(modelPrep);
+            settings.setCreateTangents(modelPrep);
+            results.add(ladda.loadGltfAsync(f.getParent(), f.getName(), modelPrep, settings));
+        }
+        int failed = 0;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                results.get(i).join();
+            } catch (RuntimeException e) {
+                failed++;
+                print("Failed " + files.get(i) + ", " + e.getCause());
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1000000000.0;
+        return String.format("%d files, %d failed, %8.2f s", files.size(), failed, seconds);
+    }
+
+}